@@ -0,0 +1,65 @@
+package edlab.eda.ardb;
+
+/**
+ * {@link Column} that references a range of a primitive array
+ */
+final class ArrayColumn extends Column {
+
+  private final double[] values;
+  private final int offset;
+  private final int size;
+
+  /**
+   * Create a column that references a range of an array
+   *
+   * @param values array
+   * @param offset index of the first value in the array
+   * @param size   number of values
+   */
+  ArrayColumn(final double[] values, final int offset, final int size) {
+    this.values = values;
+    this.offset = offset;
+    this.size = size;
+  }
+
+  @Override
+  int size() {
+    return this.size;
+  }
+
+  @Override
+  double get(final int i) {
+    return this.values[this.offset + i];
+  }
+
+  @Override
+  Column slice(final int from, final int to) {
+    return new ArrayColumn(this.values, this.offset + from, to - from);
+  }
+
+  @Override
+  void copy(final int from, final double[] dst, final int dstPos,
+      final int length) {
+    System.arraycopy(this.values, this.offset + from, dst, dstPos, length);
+  }
+
+  @Override
+  double[] array() {
+    return this.values;
+  }
+
+  @Override
+  int arrayOffset() {
+    return this.offset;
+  }
+
+  @Override
+  double[] toArray() {
+
+    if ((this.offset == 0) && (this.size == this.values.length)) {
+      return this.values;
+    }
+
+    return super.toArray();
+  }
+}
@@ -0,0 +1,188 @@
+package edlab.eda.ardb;
+
+/**
+ * Kernels on ranges of primitive arrays. The arguments follow
+ * {@link System#arraycopy(Object, int, Object, int, int)}, every array is
+ * accompanied by the index of its first value in the range.
+ * <p>
+ * This class contains the scalar implementations. The implementation that is
+ * used by the waveforms is provided by {@link KernelProvider}, it can be a
+ * subclass that overrides the kernels.
+ */
+class ArrayKernels {
+
+  /**
+   * <code>dst = a + b</code>
+   */
+  void add(final double[] a, final int aPos, final double[] b, final int bPos,
+      final double[] dst, final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] + b[bPos + i];
+    }
+  }
+
+  /**
+   * <code>dst = a - b</code>
+   */
+  void subtract(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] - b[bPos + i];
+    }
+  }
+
+  /**
+   * <code>dst = a * b</code>
+   */
+  void multiply(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] * b[bPos + i];
+    }
+  }
+
+  /**
+   * <code>dst = a / b</code>
+   */
+  void divide(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] / b[bPos + i];
+    }
+  }
+
+  /**
+   * <code>dst = a + b</code>
+   */
+  void add(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] + b;
+    }
+  }
+
+  /**
+   * <code>dst = a * b</code>
+   */
+  void multiply(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] * b;
+    }
+  }
+
+  /**
+   * <code>dst = a / b</code>
+   */
+  void divide(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = a[aPos + i] / b;
+    }
+  }
+
+  /**
+   * <code>dst = |a|</code>
+   */
+  void abs(final double[] a, final int aPos, final double[] dst,
+      final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = Math.abs(a[aPos + i]);
+    }
+  }
+
+  /**
+   * <code>dst = factor * log10(a)</code>
+   */
+  void log10(final double[] a, final int aPos, final double factor,
+      final double[] dst, final int dstPos, final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = factor * Math.log10(a[aPos + i]);
+    }
+  }
+
+  /**
+   * <code>dst = |re + j*im|</code>, see
+   * {@link ComplexMath#abs(double, double)}
+   */
+  void abs(final double[] re, final int rePos, final double[] im,
+      final int imPos, final double[] dst, final int dstPos,
+      final int length) {
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = ComplexMath.abs(re[rePos + i], im[imPos + i]);
+    }
+  }
+
+  /**
+   * <code>dstRe + j*dstIm = (aRe + j*aIm) * (bRe + j*bIm)</code>
+   */
+  void multiply(final double[] aRe, final int aRePos, final double[] aIm,
+      final int aImPos, final double[] bRe, final int bRePos,
+      final double[] bIm, final int bImPos, final double[] dstRe,
+      final double[] dstIm, final int dstPos, final int length) {
+
+    double re;
+    double im;
+
+    for (int i = 0; i < length; i++) {
+
+      re = (aRe[aRePos + i] * bRe[bRePos + i])
+          - (aIm[aImPos + i] * bIm[bImPos + i]);
+      im = (aRe[aRePos + i] * bIm[bImPos + i])
+          + (aIm[aImPos + i] * bRe[bRePos + i]);
+
+      dstRe[dstPos + i] = re;
+      dstIm[dstPos + i] = im;
+    }
+  }
+
+  /**
+   * Get the minimum of a range, <code>+Infinity</code> when the range is
+   * empty
+   */
+  double min(final double[] a, final int aPos, final int length) {
+
+    double retval = Double.POSITIVE_INFINITY;
+
+    for (int i = 0; i < length; i++) {
+      retval = Math.min(a[aPos + i], retval);
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the maximum of a range, <code>-Infinity</code> when the range is
+   * empty
+   */
+  double max(final double[] a, final int aPos, final int length) {
+
+    double retval = Double.NEGATIVE_INFINITY;
+
+    for (int i = 0; i < length; i++) {
+      retval = Math.max(a[aPos + i], retval);
+    }
+
+    return retval;
+  }
+
+  /**
+   * Integrate the polyline through <code>length</code> points with the
+   * trapezoidal rule
+   */
+  double trapezoid(final double[] x, final int xPos, final double[] y,
+      final int yPos, final int length) {
+
+    double retval = 0;
+
+    for (int i = 1; i < length; i++) {
+      retval += ((x[xPos + i] - x[xPos + i - 1])
+          * (y[yPos + i] + y[yPos + i - 1])) / 2.0;
+    }
+
+    return retval;
+  }
+}
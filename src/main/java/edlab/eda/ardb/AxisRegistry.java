@@ -0,0 +1,155 @@
+package edlab.eda.ardb;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of x-axes. Axes with identical values are collapsed to one
+ * canonical instance, such that waveforms from different databases with the
+ * same sweep share their x-values and {@link Waveform#sameAxis(Waveform)} is
+ * a reference check. The registry only references the axes weakly, an axis
+ * is removed when it is no longer used by any waveform.
+ */
+final class AxisRegistry {
+
+  private static final Map<Integer, List<Entry>> AXES = new HashMap<>();
+
+  private static final ReferenceQueue<Column> QUEUE = new ReferenceQueue<>();
+
+  private AxisRegistry() {
+  }
+
+  /**
+   * Get the canonical instance of an axis. The axis itself is registered as
+   * canonical instance when no axis with identical values is registered.
+   *
+   * @param axis axis
+   * @return canonical axis with the same values
+   */
+  static Column intern(final Column axis) {
+
+    if (axis.size() < 2) {
+      return axis;
+    }
+
+    final int hash = AxisRegistry.hash(axis);
+
+    synchronized (AXES) {
+
+      AxisRegistry.expunge();
+
+      List<Entry> entries = AXES.get(hash);
+
+      if (entries == null) {
+        entries = new ArrayList<>(1);
+        AXES.put(hash, entries);
+      }
+
+      Column canonical;
+
+      for (final Entry entry : entries) {
+
+        canonical = entry.get();
+
+        if ((canonical != null) && AxisRegistry.equals(canonical, axis)) {
+          return canonical;
+        }
+      }
+
+      entries.add(new Entry(axis, hash));
+
+      return axis;
+    }
+  }
+
+  /**
+   * Remove the entries of axes that are no longer referenced
+   */
+  private static void expunge() {
+
+    Entry entry;
+    List<Entry> entries;
+    Iterator<Entry> iterator;
+
+    while ((entry = (Entry) QUEUE.poll()) != null) {
+
+      entries = AXES.get(entry.hash);
+
+      if (entries != null) {
+
+        iterator = entries.iterator();
+
+        while (iterator.hasNext()) {
+          if (iterator.next() == entry) {
+            iterator.remove();
+          }
+        }
+
+        if (entries.isEmpty()) {
+          AXES.remove(entry.hash);
+        }
+      }
+    }
+  }
+
+  /**
+   * Calculate the hash of the values of an axis
+   *
+   * @param axis axis
+   * @return hash
+   */
+  private static int hash(final Column axis) {
+
+    int hash = 1;
+    long bits;
+
+    for (int i = 0; i < axis.size(); i++) {
+      bits = Double.doubleToLongBits(axis.get(i));
+      hash = (31 * hash) + (int) (bits ^ (bits >>> 32));
+    }
+
+    return hash;
+  }
+
+  /**
+   * Check if two axes have identical values
+   *
+   * @param a first axis
+   * @param b second axis
+   * @return <code>true</code> when all values are bitwise identical,
+   *         <code>false</code> otherwise
+   */
+  private static boolean equals(final Column a, final Column b) {
+
+    if (a.size() != b.size()) {
+      return false;
+    }
+
+    for (int i = 0; i < a.size(); i++) {
+      if (Double.doubleToLongBits(a.get(i)) != Double
+          .doubleToLongBits(b.get(i))) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Weak reference to a registered axis
+   */
+  private static final class Entry extends WeakReference<Column> {
+
+    private final int hash;
+
+    Entry(final Column axis, final int hash) {
+      super(axis, QUEUE);
+      this.hash = hash;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package edlab.eda.ardb;
+
+/**
+ * Immutable sequence of double values that stores the x- or y-values of a
+ * waveform. A column does not necessarily own its values, it can be a view on
+ * another column.
+ */
+abstract class Column {
+
+  private volatile double[] array = null;
+
+  /**
+   * Create a column from an array. The array is not copied and must not be
+   * modified afterwards.
+   *
+   * @param values values
+   * @return column
+   */
+  static Column of(final double[] values) {
+    return new ArrayColumn(values, 0, values.length);
+  }
+
+  /**
+   * Get the number of values in the column
+   *
+   * @return number of values
+   */
+  abstract int size();
+
+  /**
+   * Get a value of the column
+   *
+   * @param i index of the value
+   * @return value
+   */
+  abstract double get(int i);
+
+  /**
+   * Get a view on a range of the column. No values are copied.
+   *
+   * @param from index of the first value (inclusive)
+   * @param to   index of the last value (exclusive)
+   * @return column
+   */
+  abstract Column slice(int from, int to);
+
+  /**
+   * Copy a range of the column to an array
+   *
+   * @param from   index of the first value in the column
+   * @param dst    destination array
+   * @param dstPos first index in the destination array
+   * @param length number of values to be copied
+   */
+  void copy(final int from, final double[] dst, final int dstPos,
+      final int length) {
+
+    for (int i = 0; i < length; i++) {
+      dst[dstPos + i] = this.get(from + i);
+    }
+  }
+
+  /**
+   * Get the array that stores the values of the column
+   *
+   * @return array, <code>null</code> when the values are not stored in an
+   *         array
+   */
+  double[] array() {
+    return null;
+  }
+
+  /**
+   * Get the index of the first value of the column in {@link #array()}
+   *
+   * @return index
+   */
+  int arrayOffset() {
+    return 0;
+  }
+
+  /**
+   * Get the values of the column as array. The array is created on the first
+   * call and shared afterwards, it must not be modified.
+   *
+   * @return array
+   */
+  double[] toArray() {
+
+    double[] array = this.array;
+
+    if (array == null) {
+      array = new double[this.size()];
+      this.copy(0, array, 0, array.length);
+      this.array = array;
+    }
+
+    return array;
+  }
+}
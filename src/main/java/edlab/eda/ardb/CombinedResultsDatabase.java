@@ -97,6 +97,42 @@ public class CombinedResultsDatabase extends ResultsDatabase {
         ComplexResultsDatabase.create());
   }
 
+  /**
+   * Opens a {@link CombinedResultsDatabase} that was written with
+   * {@link #writeStore(String)}. The waves are memory-mapped, their values are
+   * read from the file when they are accessed.
+   *
+   * @param path path to the file
+   * @return database, <code>null</code> when the file cannot be read
+   */
+  public static CombinedResultsDatabase openStore(final String path) {
+
+    final WaveformStore store = WaveformStore.open(path);
+
+    if (store == null) {
+      return null;
+    }
+
+    return CombinedResultsDatabase.create(
+        RealResultsDatabase.openStore(store),
+        ComplexResultsDatabase.openStore(store));
+  }
+
+  /**
+   * Writes the database to a file that can be opened with
+   * {@link #openStore(String)}
+   *
+   * @param path path to the file
+   * @return <code>true</code> when the file was written, <code>false</code>
+   *         otherwise
+   */
+  public boolean writeStore(final String path) {
+    return WaveformStore.write(path, this.realResultsDatabase.getValues(),
+        this.realResultsDatabase.getWaves(),
+        this.complexResultsDatabase.getValues(),
+        this.complexResultsDatabase.getWaves());
+  }
+
   @Override
   public Set<String> getValueNames() {
 
@@ -0,0 +1,144 @@
+package edlab.eda.ardb;
+
+import org.apache.commons.math3.util.FastMath;
+
+/**
+ * Scalar kernels for complex numbers that are stored as separate real and
+ * imaginary parts. The results are identical to the corresponding methods of
+ * {@link org.apache.commons.math3.complex.Complex}, but no objects are
+ * allocated.
+ */
+final class ComplexMath {
+
+  private ComplexMath() {
+  }
+
+  /**
+   * Calculate the absolute value of a complex number
+   *
+   * @param re real part
+   * @param im imaginary part
+   * @return absolute value
+   */
+  static double abs(final double re, final double im) {
+
+    if (Double.isNaN(re) || Double.isNaN(im)) {
+      return Double.NaN;
+    }
+
+    if (Double.isInfinite(re) || Double.isInfinite(im)) {
+      return Double.POSITIVE_INFINITY;
+    }
+
+    double q;
+
+    if (Math.abs(re) < Math.abs(im)) {
+
+      if (im == 0.0) {
+        return Math.abs(re);
+      }
+
+      q = re / im;
+      return Math.abs(im) * Math.sqrt(1 + (q * q));
+
+    } else {
+
+      if (re == 0.0) {
+        return Math.abs(im);
+      }
+
+      q = im / re;
+      return Math.abs(re) * Math.sqrt(1 + (q * q));
+    }
+  }
+
+  /**
+   * Calculate the argument of a complex number
+   *
+   * @param re real part
+   * @param im imaginary part
+   * @return argument in radians
+   */
+  static double argument(final double re, final double im) {
+    return FastMath.atan2(im, re);
+  }
+
+  /**
+   * Divide the complex number <code>(a+j*b)</code> by <code>(c+j*d)</code> and
+   * store the result in <code>outRe[i]</code> and <code>outIm[i]</code>
+   *
+   * @param a     real part of the dividend
+   * @param b     imaginary part of the dividend
+   * @param c     real part of the divisor
+   * @param d     imaginary part of the divisor
+   * @param outRe array for the real part of the quotient
+   * @param outIm array for the imaginary part of the quotient
+   * @param i     index in the output arrays
+   */
+  static void divide(final double a, final double b, final double c,
+      final double d, final double[] outRe, final double[] outIm,
+      final int i) {
+
+    if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c)
+        || Double.isNaN(d) || ((c == 0.0) && (d == 0.0))) {
+      outRe[i] = Double.NaN;
+      outIm[i] = Double.NaN;
+      return;
+    }
+
+    if ((Double.isInfinite(c) || Double.isInfinite(d))
+        && !(Double.isInfinite(a) || Double.isInfinite(b))) {
+      outRe[i] = 0.0;
+      outIm[i] = 0.0;
+      return;
+    }
+
+    double q;
+    double denominator;
+
+    if (Math.abs(c) < Math.abs(d)) {
+      q = c / d;
+      denominator = (c * q) + d;
+      outRe[i] = ((a * q) + b) / denominator;
+      outIm[i] = ((b * q) - a) / denominator;
+    } else {
+      q = d / c;
+      denominator = (d * q) + c;
+      outRe[i] = ((b * q) + a) / denominator;
+      outIm[i] = (b - (a * q)) / denominator;
+    }
+  }
+
+  /**
+   * Divide the complex number <code>(a+j*b)</code> by the real number
+   * <code>c</code> and store the result in <code>outRe[i]</code> and
+   * <code>outIm[i]</code>
+   *
+   * @param a     real part of the dividend
+   * @param b     imaginary part of the dividend
+   * @param c     divisor
+   * @param outRe array for the real part of the quotient
+   * @param outIm array for the imaginary part of the quotient
+   * @param i     index in the output arrays
+   */
+  static void divide(final double a, final double b, final double c,
+      final double[] outRe, final double[] outIm, final int i) {
+
+    if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c) || (c == 0.0)) {
+      outRe[i] = Double.NaN;
+      outIm[i] = Double.NaN;
+    } else if (Double.isInfinite(c)) {
+
+      if (Double.isInfinite(a) || Double.isInfinite(b)) {
+        outRe[i] = Double.NaN;
+        outIm[i] = Double.NaN;
+      } else {
+        outRe[i] = 0.0;
+        outIm[i] = 0.0;
+      }
+    } else {
+      outRe[i] = a / c;
+      outIm[i] = b / c;
+    }
+  }
+}
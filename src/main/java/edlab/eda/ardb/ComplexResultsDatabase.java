@@ -1,7 +1,9 @@
 package edlab.eda.ardb;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -36,7 +38,7 @@ public final class ComplexResultsDatabase extends ResultsDatabase {
     final ComplexResultsDatabase retval = new ComplexResultsDatabase();
 
     retval.values = value;
-    retval.waves = waves;
+    retval.waves = ComplexResultsDatabase.internAxes(waves);
 
     return retval;
   }
@@ -60,6 +62,39 @@ public final class ComplexResultsDatabase extends ResultsDatabase {
       retval.values.put(valueNames[i], valuesKeys[i]);
     }
 
+    for (int i = 0; i < Math.min(waveNames.length, waveKeys.length); i++) {
+      retval.waves.put(waveNames[i],
+          (ComplexWaveform) new ComplexWaveform(waveKeys[i]).internAxis());
+    }
+
+    return retval;
+  }
+
+  /**
+   * Replace the x-axes of waveforms by their canonical instances, such that
+   * waveforms with identical x-values share one axis
+   *
+   * @param waves map of waves
+   * @return map of waves with canonical x-axes
+   */
+  private static Map<String, ComplexWaveform> internAxes(
+      final Map<String, ComplexWaveform> waves) {
+
+    if (waves == null) {
+      return null;
+    }
+
+    final Map<String, ComplexWaveform> retval = new HashMap<>();
+
+    for (final Map.Entry<String, ComplexWaveform> entry : waves.entrySet()) {
+      if (entry.getValue() == null) {
+        retval.put(entry.getKey(), null);
+      } else {
+        retval.put(entry.getKey(),
+            (ComplexWaveform) entry.getValue().internAxis());
+      }
+    }
+
     return retval;
   }
 
@@ -181,6 +216,42 @@ public final class ComplexResultsDatabase extends ResultsDatabase {
    */
   public static ComplexResultsDatabase buildResultDatabase(
       final NutmegComplexPlot plot, final CharSequenceTranslator translator) {
+    return buildResultDatabase(plot, translator, false);
+  }
+
+  /**
+   * Builds a {@link ComplexResultsDatabase} from a {@link NutmegComplexPlot}
+   *
+   * @param plot {@link NutmegComplexPlot}
+   * @param lazy when <code>true</code>, a wave is created from the plot when
+   *             it is accessed for the first time
+   * @return ComplexResultsDatabase
+   */
+  public static ComplexResultsDatabase buildResultDatabase(
+      final NutmegComplexPlot plot, final boolean lazy) {
+    return buildResultDatabase(plot, new DefaultTranslator(), lazy);
+  }
+
+  /**
+   * Builds a {@link ComplexResultsDatabase} from a {@link NutmegComplexPlot}.
+   * <p>
+   * In lazy mode only the names of the waves are recorded and the x-axis is
+   * sorted. A wave is created when it is accessed for the first time, the
+   * database keeps a reference to the plot until then.
+   *
+   * @param plot       {@link NutmegComplexPlot}
+   * @param translator Translator for wave names
+   * @param lazy       when <code>true</code>, a wave is created from the plot
+   *                   when it is accessed for the first time
+   * @return ComplexResultsDatabase
+   */
+  public static ComplexResultsDatabase buildResultDatabase(
+      final NutmegComplexPlot plot, final CharSequenceTranslator translator,
+      final boolean lazy) {
+
+    if (lazy && (plot.getNoOfPoints() != 1)) {
+      return buildLazyResultDatabase(plot, translator);
+    }
 
     final ComplexResultsDatabase retval = new ComplexResultsDatabase();
 
@@ -208,20 +279,191 @@ public final class ComplexResultsDatabase extends ResultsDatabase {
         x[i] = xComplex[i].getReal();
       }
 
+      final List<String> names = new ArrayList<>();
+      final List<double[]> ys = new ArrayList<>();
+
+      Complex[] y;
+      double[] re;
+      double[] im;
+
       for (final String wave : plot.getWaves()) {
 
         if (!wave.equals(refWave)) {
 
-          retval.waves.put(translator.translate(wave),
-              ComplexWaveform.buildComplexWaveform(x, plot.getWave(wave),
-                  translator.translate(refWaveUnit),
-                  translator.translate(plot.getUnit(wave))));
+          y = plot.getWave(wave);
+
+          if (y.length == x.length) {
+
+            re = new double[y.length];
+            im = new double[y.length];
+
+            for (int i = 0; i < y.length; i++) {
+              re[i] = y[i].getReal();
+              im[i] = y[i].getImaginary();
+            }
+
+            names.add(wave);
+            ys.add(re);
+            ys.add(im);
+
+          } else {
+            System.err.println("Length of arrays do not match");
+            retval.waves.put(translator.translate(wave),
+                new ComplexWaveform());
+          }
         }
       }
+
+      // all waves of the plot share one x-axis, which is sorted only once
+      WaveformSorter.sort(x, ys.toArray(new double[ys.size()][]));
+
+      final Column axis = AxisRegistry.intern(Column.of(x));
+
+      for (int i = 0; i < names.size(); i++) {
+        retval.waves.put(translator.translate(names.get(i)),
+            ComplexWaveform.buildSortedComplexWaveform(axis,
+                Column.of(ys.get(2 * i)), Column.of(ys.get((2 * i) + 1)),
+                translator.translate(refWaveUnit),
+                translator.translate(plot.getUnit(names.get(i)))));
+      }
     }
     return retval;
   }
 
+  /**
+   * Builds a {@link ComplexResultsDatabase} whose waves are created on demand
+   *
+   * @param plot       {@link NutmegComplexPlot}
+   * @param translator Translator for wave names
+   * @return ComplexResultsDatabase
+   */
+  private static ComplexResultsDatabase buildLazyResultDatabase(
+      final NutmegComplexPlot plot, final CharSequenceTranslator translator) {
+
+    final ComplexResultsDatabase retval = new ComplexResultsDatabase();
+
+    final String refWave = plot.getRefWave();
+    final String unitX = translator.translate(plot.getUnit(refWave));
+
+    final Complex[] xComplex = plot.getWave(refWave);
+
+    double[] x = new double[xComplex.length];
+
+    for (int i = 0; i < xComplex.length; i++) {
+      x[i] = xComplex[i].getReal();
+    }
+
+    final int[] permutation = WaveformSorter.isSorted(x) ? null
+        : WaveformSorter.permutation(x);
+
+    x = WaveformSorter.reorder(x, permutation);
+
+    final int length = x.length;
+    final Column axis = AxisRegistry.intern(Column.of(x));
+
+    final Map<String, LazyWaveMap.Source> sources = new HashMap<>();
+
+    for (final String wave : plot.getWaves()) {
+      if (!wave.equals(refWave)) {
+        sources.put(translator.translate(wave), new LazyWaveMap.Source(wave,
+            axis, unitX, translator.translate(plot.getUnit(wave))));
+      }
+    }
+
+    retval.waves = new LazyWaveMap<>(sources, wave -> {
+
+      final Complex[] y = plot.getWave(wave);
+
+      if (y.length != length) {
+        System.err.println("Length of arrays do not match");
+        return new ComplexWaveform();
+      }
+
+      final double[] re = new double[length];
+      final double[] im = new double[length];
+
+      int j;
+
+      // split and reorder in one pass
+      for (int i = 0; i < length; i++) {
+        j = permutation == null ? i : permutation[i];
+        re[i] = y[j].getReal();
+        im[i] = y[j].getImaginary();
+      }
+
+      return ComplexWaveform.buildSortedComplexWaveform(axis, Column.of(re),
+          Column.of(im), unitX, translator.translate(plot.getUnit(wave)));
+    });
+
+    return retval;
+  }
+
+  /**
+   * Opens a {@link ComplexResultsDatabase} that was written with
+   * {@link #writeStore(String)}. The waves are memory-mapped, their values are
+   * read from the file when they are accessed.
+   *
+   * @param path path to the file
+   * @return database, <code>null</code> when the file cannot be read
+   */
+  public static ComplexResultsDatabase openStore(final String path) {
+
+    final WaveformStore store = WaveformStore.open(path);
+
+    if (store == null) {
+      return null;
+    }
+
+    return ComplexResultsDatabase.openStore(store);
+  }
+
+  /**
+   * Create a {@link ComplexResultsDatabase} from the complex values and waves
+   * of an opened file
+   *
+   * @param store opened file
+   * @return database
+   */
+  static ComplexResultsDatabase openStore(final WaveformStore store) {
+
+    final ComplexResultsDatabase retval = new ComplexResultsDatabase();
+
+    retval.values = store.getComplexValues();
+    retval.waves = store.getComplexWaves();
+
+    return retval;
+  }
+
+  /**
+   * Writes the database to a file that can be opened with
+   * {@link #openStore(String)}
+   *
+   * @param path path to the file
+   * @return <code>true</code> when the file was written, <code>false</code>
+   *         otherwise
+   */
+  public boolean writeStore(final String path) {
+    return WaveformStore.write(path, null, null, this.values, this.waves);
+  }
+
+  /**
+   * Get the map of values
+   *
+   * @return values
+   */
+  Map<String, ComplexValue> getValues() {
+    return this.values;
+  }
+
+  /**
+   * Get the map of waves
+   *
+   * @return waves
+   */
+  Map<String, ComplexWaveform> getWaves() {
+    return this.waves;
+  }
+
   @Override
   public String toString() {
 
@@ -255,8 +497,8 @@ public final class ComplexResultsDatabase extends ResultsDatabase {
       for (final String name : this.waves.keySet()) {
 
         retval.append("\n- ").append(name).append(" X=")
-            .append(this.waves.get(name).getUnitX()).append("/").append(" X=")
-            .append(this.waves.get(name).getUnitY());
+            .append(LazyWaveMap.getUnitX(this.waves, name)).append("/")
+            .append(" X=").append(LazyWaveMap.getUnitY(this.waves, name));
       }
     }
 
@@ -2,22 +2,36 @@ package edlab.eda.ardb;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.util.LinkedList;
 
 import org.apache.commons.math3.complex.Complex;
 
 /**
  * Class for representing a complex waveform. Both axes and the units are
- * covered by the object.
+ * covered by the object. The y-values are stored as two primitive arrays that
+ * contain the real and imaginary parts.
  */
 public final class ComplexWaveform extends Waveform {
 
-  private final Complex[] y;
+  private final Column re;
+  private final Column im;
 
-  private ComplexWaveform(final double[] x, final Complex[] y,
+  private volatile Complex[] y = null;
+
+  private ComplexWaveform(final Column x, final Column re, final Column im,
       final String unitX, final String unitY) {
     super(x, unitX, unitY);
-    this.y = y;
+    this.re = re;
+    this.im = im;
+  }
+
+  private ComplexWaveform(final Column x, final double[] re,
+      final double[] im, final String unitX, final String unitY) {
+    this(x, Column.of(re), Column.of(im), unitX, unitY);
+  }
+
+  private ComplexWaveform(final double[] x, final double[] re,
+      final double[] im, final String unitX, final String unitY) {
+    this(Column.of(x), Column.of(re), Column.of(im), unitX, unitY);
   }
 
   /**
@@ -25,31 +39,80 @@ public final class ComplexWaveform extends Waveform {
    */
   ComplexWaveform() {
     super();
-    this.y = new Complex[0];
+    this.re = Column.of(new double[0]);
+    this.im = Column.of(new double[0]);
   }
 
   /**
    * Create an complex waveform from a real waveform
-   * 
+   *
    * @param wave real waveform
    */
   public ComplexWaveform(final RealWaveform wave) {
-    super(wave.getX(), new String(wave.getUnitX()),
-        new String(wave.getUnitY()));
-    this.y = new Complex[wave.getY().length];
-
-    for (int i = 0; i < this.y.length; i++) {
-      this.y[i] = new Complex(wave.getY()[i]);
-    }
+    super(wave.x, new String(wave.getUnitX()), new String(wave.getUnitY()));
+    this.re = wave.getYColumn();
+    this.im = Column.of(new double[this.re.size()]);
   }
 
   /**
-   * Get the y-values of a complex waveform
+   * Get the y-values of a complex waveform. The array is created on the first
+   * call, use {@link #getYReal()} and {@link #getYImag()} to access the values
+   * without creating objects.
    *
    * @return y-values
    */
   public Complex[] getY() {
-    return this.y;
+
+    Complex[] y = this.y;
+
+    if (y == null) {
+
+      y = new Complex[this.re.size()];
+
+      for (int i = 0; i < y.length; i++) {
+        y[i] = new Complex(this.re.get(i), this.im.get(i));
+      }
+
+      this.y = y;
+    }
+
+    return y;
+  }
+
+  /**
+   * Get the real part of the y-values of a complex waveform
+   *
+   * @return real part of the y-values
+   */
+  public double[] getYReal() {
+    return this.re.toArray();
+  }
+
+  /**
+   * Get the imaginary part of the y-values of a complex waveform
+   *
+   * @return imaginary part of the y-values
+   */
+  public double[] getYImag() {
+    return this.im.toArray();
+  }
+
+  /**
+   * Get the column that stores the real part of the y-values
+   *
+   * @return real part of the y-values
+   */
+  Column getYRealColumn() {
+    return this.re;
+  }
+
+  /**
+   * Get the column that stores the imaginary part of the y-values
+   *
+   * @return imaginary part of the y-values
+   */
+  Column getYImagColumn() {
+    return this.im;
   }
 
   @Override
@@ -57,16 +120,16 @@ public final class ComplexWaveform extends Waveform {
 
     final StringBuilder builder = new StringBuilder();
 
-    for (int i = 0; i < this.x.length; i++) {
+    for (int i = 0; i < this.x.size(); i++) {
 
       if (i > 0) {
         builder.append("\n");
       }
 
-      builder.append("(").append(Formatter.format(this.x[i])).append(" ")
+      builder.append("(").append(Formatter.format(this.x.get(i))).append(" ")
           .append(this.getUnitX()).append(" , ")
-          .append(Formatter.format(this.y[i].getReal())).append("+i*")
-          .append(Formatter.format(this.y[i].getImaginary())).append(" ")
+          .append(Formatter.format(this.re.get(i))).append("+i*")
+          .append(Formatter.format(this.im.get(i))).append(" ")
           .append(this.getUnitY()).append(")");
     }
 
@@ -77,102 +140,203 @@ public final class ComplexWaveform extends Waveform {
   @Override
   public ComplexValue getValue(final double pos) {
 
-    if (pos <= this.x[0]) {
+    if (this.isEmpty()) {
+      return new ComplexValue();
+    }
 
-      return new ComplexValue(
-          this.y[0].add(this.y[1].subtract(this.y[0]).multiply(
-              new Complex((pos - this.x[0]) / (this.x[1] - this.x[0])))),
-          this.getUnitY());
+    final double[] value = new double[2];
 
-    } else if (pos >= this.x[this.x.length - 1]) {
+    this.valueAt(pos, value, 0);
 
-      return new ComplexValue(
-          this.y[this.y.length - 1]
-              .add(this.y[this.y.length - 1].subtract(this.y[this.y.length - 2])
-                  .multiply(new Complex(
-                      (pos - this.x[0]) / (this.x[1] - this.x[0])))),
-          this.getUnitY());
+    return new ComplexValue(new Complex(value[0], value[1]), this.getUnitY());
+  }
 
+  /**
+   * Evaluate a waveform at a value. In contrast to
+   * {@link #getValue(double)}, no object is created. The real part is stored
+   * in <code>dst[offset]</code> and the imaginary part in
+   * <code>dst[offset+1]</code>.
+   *
+   * @param pos    x-value where the waveform is evaluated
+   * @param dst    array where the y-value is stored
+   * @param offset index of the real part in the array
+   */
+  public void valueAt(final double pos, final double[] dst,
+      final int offset) {
+
+    if (this.isEmpty()) {
+      dst[offset] = Double.NaN;
+      dst[offset + 1] = Double.NaN;
     } else {
+      this.interpolate(pos, this.segment(pos), dst, offset);
+    }
+  }
+
+  /**
+   * Evaluate a waveform at a value. The segment of the waveform is searched
+   * with a cursor, which is faster than {@link #getValue(double)} when the
+   * waveform is evaluated at a monotonic sequence of positions.
+   *
+   * @param pos    x-value where the waveform is evaluated
+   * @param cursor cursor
+   * @return y-value
+   */
+  public ComplexValue getValue(final double pos,
+      final InterpolationCursor cursor) {
 
-      for (int i = 0; i < (this.x.length - 1); i++) {
+    if (this.isEmpty()) {
+      return new ComplexValue();
+    }
 
-        if (((this.x[i] - pos) * (this.x[i + 1] - pos)) <= 0) {
+    final double[] value = new double[2];
 
-          return new ComplexValue(
-              this.y[i].add(this.y[i + 1].subtract(this.y[i])
-                  .multiply(new Complex(
-                      (pos - this.x[i]) / (this.x[i + 1] - this.x[i])))),
-              this.getUnitY());
+    this.valueAt(pos, cursor, value, 0);
 
-        }
-      }
+    return new ComplexValue(new Complex(value[0], value[1]), this.getUnitY());
+  }
+
+  /**
+   * Evaluate a waveform at a value with a cursor, see
+   * {@link #valueAt(double, double[], int)}
+   *
+   * @param pos    x-value where the waveform is evaluated
+   * @param cursor cursor
+   * @param dst    array where the y-value is stored
+   * @param offset index of the real part in the array
+   */
+  public void valueAt(final double pos, final InterpolationCursor cursor,
+      final double[] dst, final int offset) {
+
+    if (this.isEmpty()) {
+      dst[offset] = Double.NaN;
+      dst[offset + 1] = Double.NaN;
+    } else {
+      this.interpolate(pos, cursor.locate(this, pos), dst, offset);
     }
-    return null;
   }
 
-  @Override
-  public ComplexWaveform conjugate() {
+  /**
+   * Evaluate a waveform at an array of positions. The positions are visited
+   * in ascending order with an {@link InterpolationCursor}, i.e. the
+   * waveform is walked once. Unsorted positions are sorted first.
+   *
+   * @param positions x-values where the waveform is evaluated
+   * @param re        array where the real parts are stored, at least as long
+   *                  as the positions
+   * @param im        array where the imaginary parts are stored, at least as
+   *                  long as the positions
+   * @return <code>true</code> when the waveform is evaluated,
+   *         <code>false</code> otherwise
+   */
+  public boolean valueAt(final double[] positions, final double[] re,
+      final double[] im) {
+
+    if ((re.length < positions.length) || (im.length < positions.length)) {
+      System.err.println("Cannot store " + positions.length
+          + " values in an array of length "
+          + Math.min(re.length, im.length));
+      return false;
+    }
+
+    final int[] permutation = WaveformSorter.isSorted(positions) ? null
+        : WaveformSorter.permutation(positions);
+
+    final InterpolationCursor cursor = new InterpolationCursor(this);
+    final double[] value = new double[2];
+
+    int k;
 
-    final Complex[] yVec = new Complex[this.y.length];
+    for (int i = 0; i < positions.length; i++) {
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = this.y[i].conjugate();
+      k = permutation == null ? i : permutation[i];
+
+      this.valueAt(positions[k], cursor, value, 0);
+
+      re[k] = value[0];
+      im[k] = value[1];
     }
 
-    return ComplexWaveform.buildComplexWaveform(this.x, yVec, this.getUnitX(),
-        this.getUnitY());
+    return true;
   }
 
-  @Override
-  public RealWaveform abs() {
-
-    final double[] yVec = new double[this.x.length];
+  /**
+   * Linear interpolation of the waveform in a segment
+   *
+   * @param pos    x-value
+   * @param i      index of the segment
+   * @param dst    array where the y-value is stored
+   * @param offset index of the real part in the array
+   */
+  private void interpolate(final double pos, final int i, final double[] dst,
+      final int offset) {
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = this.y[i].abs();
+    if (this.x.size() == 1) {
+      dst[offset] = this.re.get(0);
+      dst[offset + 1] = this.im.get(0);
+      return;
     }
 
-    return RealWaveform.buildRealWaveform(this.x, yVec, this.getUnitX(),
-        this.getUnitY());
+    final double x0 = this.x.get(i);
+    final double t = (pos - x0) / (this.x.get(i + 1) - x0);
+
+    final double re0 = this.re.get(i);
+    final double im0 = this.im.get(i);
+
+    dst[offset] = re0 + ((this.re.get(i + 1) - re0) * t);
+    dst[offset + 1] = im0 + ((this.im.get(i + 1) - im0) * t);
   }
 
   @Override
-  public RealWaveform real() {
+  public ComplexWaveform conjugate() {
 
-    final double[] yVec = new double[this.x.length];
+    final double[] imVec = new double[this.im.size()];
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = this.y[i].getReal();
+    for (int i = 0; i < imVec.length; i++) {
+      imVec[i] = -this.im.get(i);
     }
 
-    return RealWaveform.buildRealWaveform(this.x, yVec, this.getUnitX(),
-        this.getUnitY());
+    return new ComplexWaveform(this.x, this.re, Column.of(imVec),
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
-  public RealWaveform imag() {
+  public RealWaveform abs() {
 
-    final double[] yVec = new double[this.x.length];
+    final double[] yVec = new double[this.x.size()];
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = this.y[i].getImaginary();
-    }
+    ExecutionPolicy.forEach(yVec.length,
+        (from, to) -> Kernels.abs(this.re, this.im, yVec, from, to));
 
-    return RealWaveform.buildRealWaveform(this.x, yVec, this.getUnitX(),
-        this.getUnitY());
+    return RealWaveform.buildSortedRealWaveform(this.x, Column.of(yVec),
+        this.getUnitX(), this.getUnitY());
+  }
+
+  @Override
+  public RealWaveform real() {
+    return RealWaveform.buildSortedRealWaveform(this.x, this.re,
+        this.getUnitX(), this.getUnitY());
+  }
+
+  @Override
+  public RealWaveform imag() {
+    return RealWaveform.buildSortedRealWaveform(this.x, this.im,
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
   public RealWaveform phaseDeg() {
 
-    final double[] yVec = new double[this.x.length];
+    final double[] yVec = new double[this.x.size()];
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = (this.y[i].getArgument() / Math.PI) * 180;
-    }
+    ExecutionPolicy.forEach(yVec.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        yVec[i] = (ComplexMath.argument(this.re.get(i), this.im.get(i))
+            / Math.PI) * 180;
+      }
+    });
 
-    return RealWaveform.buildRealWaveform(this.x, yVec, this.getUnitX(), "deg");
+    return RealWaveform.buildSortedRealWaveform(this.x, Column.of(yVec),
+        this.getUnitX(), "deg");
   }
 
   @Override
@@ -202,9 +366,15 @@ public final class ComplexWaveform extends Waveform {
 
     if ((x != null) && (y != null) && (x.length == y.length)) {
 
-      ComplexWaveform.sortWaveElements(x, y);
+      final double[] re = new double[y.length];
+      final double[] im = new double[y.length];
+
+      for (int i = 0; i < y.length; i++) {
+        re[i] = y[i].getReal();
+        im[i] = y[i].getImaginary();
+      }
 
-      return new ComplexWaveform(x, y, new String(unitX), new String(unitY));
+      return ComplexWaveform.buildComplexWaveform(x, re, im, unitX, unitY);
 
     } else {
       System.err.println("Length of arrays do not match");
@@ -213,39 +383,51 @@ public final class ComplexWaveform extends Waveform {
   }
 
   /**
-   * Sort both <code>x</code> and <code>y</code> that <code>x</code> is sorted
-   * in ascending order
+   * Create a new {@link ComplexWaveform}. The arrays are sorted in place when
+   * <code>x</code> is not in ascending order.
    *
-   * @param x x-values
-   * @param y y-values
+   * @param x     x-values
+   * @param re    real part of the y-values
+   * @param im    imaginary part of the y-values
+   * @param unitX unit of x-values
+   * @param unitY unit of y-values
+   * @return {@link ComplexWaveform}
    */
-  private static void sortWaveElements(final double[] x, final Complex[] y) {
-
-    double swapReal;
-    Complex swapComplex;
-    boolean swapPerformed = true;
-
-    while (swapPerformed) {
-
-      swapPerformed = false;
+  public static ComplexWaveform buildComplexWaveform(final double[] x,
+      final double[] re, final double[] im, final String unitX,
+      final String unitY) {
 
-      for (int i = 0; i < (x.length - 1); i++) {
+    if ((x != null) && (re != null) && (im != null) && (x.length == re.length)
+        && (x.length == im.length)) {
 
-        if (x[i] > x[i + 1]) {
+      WaveformSorter.sort(x, re, im);
 
-          swapReal = x[i + 1];
-          x[i + 1] = x[i];
-          x[i] = swapReal;
+      return new ComplexWaveform(x, re, im, new String(unitX),
+          new String(unitY));
 
-          swapComplex = y[i + 1];
-          y[i + 1] = y[i];
-          y[i] = swapComplex;
-          swapPerformed = true;
-        }
-      }
+    } else {
+      System.err.println("Length of arrays do not match");
+      return null;
     }
   }
 
+  /**
+   * Create a new {@link ComplexWaveform} from columns whose x-values are
+   * already sorted in ascending order. The order is not checked.
+   *
+   * @param x     sorted x-values
+   * @param re    real part of the y-values
+   * @param im    imaginary part of the y-values
+   * @param unitX unit of x-values
+   * @param unitY unit of y-values
+   * @return {@link ComplexWaveform}
+   */
+  static ComplexWaveform buildSortedComplexWaveform(final Column x,
+      final Column re, final Column im, final String unitX,
+      final String unitY) {
+    return new ComplexWaveform(x, re, im, unitX, unitY);
+  }
+
   @Override
   public boolean lessThan(final Waveform wave) {
 
@@ -284,50 +466,34 @@ public final class ComplexWaveform extends Waveform {
 
   @Override
   public Waveform clip(final double left, final double right) {
-    final LinkedList<Double> newXVals = new LinkedList<>();
-    final LinkedList<Complex> newYVals = new LinkedList<>();
 
-    for (int i = 0; i < this.x.length; i++) {
-      if ((left <= this.x[i]) && (this.x[i] <= right)) {
-        newXVals.addLast(this.x[i]);
-        newYVals.addLast(this.y[i]);
-      }
+    if (this.isEmpty() || !(left <= right)) {
+      return new ComplexWaveform();
     }
 
-    final ComplexValue leftValue = this.getValue(left);
-
-    if (!leftValue.isNaN()) {
-
-      if (!newYVals.get(0).equals(leftValue.getValue())) {
-        newYVals.addFirst(leftValue.getValue());
-        newXVals.addFirst(left);
-      }
-    }
+    final int first = this.lowerBound(left);
+    final int last = this.upperBound(right);
 
+    final ComplexValue leftValue = this.getValue(left);
     final ComplexValue rightValue = this.getValue(right);
 
-    if (!rightValue.isNaN()) {
-
-      if (!newYVals.get(newXVals.size() - 1).equals(rightValue.getValue())) {
-        newYVals.addLast(rightValue.getValue());
-        newXVals.addLast(right);
-      }
-    }
-
-    if (newXVals.size() > 0) {
-
-      final double[] newX = new double[newXVals.size()];
-      final Complex[] newY = new Complex[newYVals.size()];
-
-      for (int i = 0; i < newY.length; i++) {
-        newX[i] = newXVals.get(i);
-        newY[i] = newYVals.get(i);
-      }
+    final boolean addLeft = !leftValue.isNaN()
+        && ((first == last) || (this.x.get(first) != left));
+    final boolean addRight = !rightValue.isNaN() && (left < right)
+        && ((first == last) || (this.x.get(last - 1) != right));
 
-      return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
-    } else {
+    if (!addLeft && !addRight && (first == last)) {
       return new ComplexWaveform();
     }
+
+    return new ComplexWaveform(
+        PaddedColumn.pad(this.x.slice(first, last), addLeft, left, addRight,
+            right),
+        PaddedColumn.pad(this.re.slice(first, last), addLeft,
+            leftValue.real(), addRight, rightValue.real()),
+        PaddedColumn.pad(this.im.slice(first, last), addLeft,
+            leftValue.imag(), addRight, rightValue.imag()),
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -339,37 +505,53 @@ public final class ComplexWaveform extends Waveform {
     }
   }
 
+  /**
+   * Add a {@link RealWaveform} to the waveform
+   *
+   * @param wave waveform to be added
+   * @return sum
+   */
   public Waveform add(final RealWaveform wave) {
     return this.add(new ComplexWaveform(wave));
   }
 
+  /**
+   * Add a {@link ComplexWaveform} to the waveform
+   *
+   * @param wave waveform to be added
+   * @return sum
+   */
   public ComplexWaveform add(ComplexWaveform wave) {
 
     if (!this.sameAxis(wave)) {
-      wave = wave.resample(this.getX());
+      wave = wave.resample(this.x);
     }
 
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
+    final Column otherRe = wave.re;
+    final Column otherIm = wave.im;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].add(wave.y[i]);
-    }
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
+
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      Kernels.add(this.re, otherRe, newRe, from, to);
+      Kernels.add(this.im, otherIm, newIm, from, to);
+    });
+
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public ComplexWaveform add(final double value) {
 
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
+    final double[] newRe = new double[this.re.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].add(value);
-    }
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newRe.length,
+        (from, to) -> Kernels.add(this.re, value, newRe, from, to));
+
+    return new ComplexWaveform(this.x, Column.of(newRe), this.im,
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -382,6 +564,12 @@ public final class ComplexWaveform extends Waveform {
     }
   }
 
+  /**
+   * Add a {@link RealValue} to the waveform
+   *
+   * @param value value to be added
+   * @return sum
+   */
   public Waveform add(final RealValue value) {
     if (value.isNaN()) {
       return new ComplexWaveform();
@@ -390,6 +578,12 @@ public final class ComplexWaveform extends Waveform {
     }
   }
 
+  /**
+   * Add a {@link ComplexValue} to the waveform
+   *
+   * @param value value to be added
+   * @return sum
+   */
   public Waveform add(final ComplexValue value) {
 
     if (value.isNaN()) {
@@ -407,41 +601,100 @@ public final class ComplexWaveform extends Waveform {
   @Override
   public Waveform add(final Complex value) {
 
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
+    final double valueRe = value.getReal();
+    final double valueIm = value.getImaginary();
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].add(value);
-    }
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        newRe[i] = this.re.get(i) + valueRe;
+        newIm[i] = this.im.get(i) + valueIm;
+      }
+    });
+
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public ComplexWaveform resample(final double[] newX) {
+    return this.resample(newX, INTERPOLATION.LINEAR);
+  }
 
-    // TODO Auto-generated method stub
-    final Complex[] yNew = new Complex[newX.length];
+  @Override
+  public ComplexWaveform resample(final double[] newX,
+      final INTERPOLATION interpolation) {
+
+    final double[] reNew = new double[newX.length];
+    final double[] imNew = new double[newX.length];
 
-    for (int i = 0; i < (newX.length - 1); i++) {
-      yNew[i] = this.getValue(newX[i]).getValue();
+    final Column xNew = Resampler.resample(this.x,
+        new Column[] { this.re, this.im }, Column.of(newX),
+        new double[][] { reNew, imNew }, interpolation);
+
+    return new ComplexWaveform(xNew, reNew, imNew, this.getUnitX(),
+        this.getUnitY());
+  }
+
+  /**
+   * Get a waveform with the same values that stores its values compressed,
+   * see {@link RealWaveform#compact()}
+   *
+   * @return compressed waveform
+   */
+  public ComplexWaveform compact() {
+    return new ComplexWaveform(
+        AxisRegistry.intern(CompressedColumn.axis(this.x)),
+        CompressedColumn.values(this.re), CompressedColumn.values(this.im),
+        this.getUnitX(), this.getUnitY());
+  }
+
+  @Override
+  ComplexWaveform withAxis(final Column axis) {
+    return new ComplexWaveform(axis, this.re, this.im, this.getUnitX(),
+        this.getUnitY());
+  }
+
+  @Override
+  ComplexWaveform resample(final Column newX) {
+
+    // a constant is identical on every axis
+    if ((this.re instanceof ConstantColumn)
+        && (this.im instanceof ConstantColumn) && (this.x.size() > 0)) {
+      return new ComplexWaveform(newX,
+          new ConstantColumn(((ConstantColumn) this.re).getValue(),
+              newX.size()),
+          new ConstantColumn(((ConstantColumn) this.im).getValue(),
+              newX.size()),
+          this.getUnitX(), this.getUnitY());
     }
 
-    return new ComplexWaveform(this.x, yNew, this.getUnitX(), this.getUnitY());
+    final double[] reNew = new double[newX.size()];
+    final double[] imNew = new double[newX.size()];
+
+    final Column xNew = Resampler.resample(this.x,
+        new Column[] { this.re, this.im }, newX,
+        new double[][] { reNew, imNew }, INTERPOLATION.LINEAR);
+
+    return new ComplexWaveform(xNew, reNew, imNew, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public Waveform uminus() {
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = new Complex(-this.y[i].getReal(), -this.y[i].getImaginary());
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
+
+    for (int i = 0; i < newRe.length; i++) {
+      newRe[i] = -this.re.get(i);
+      newIm[i] = -this.im.get(i);
     }
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
@@ -458,22 +711,33 @@ public final class ComplexWaveform extends Waveform {
     }
   }
 
+  /**
+   * Subtract a {@link ComplexWaveform} from the waveform
+   *
+   * @param subtrahed waveform to be subtracted
+   * @return difference
+   */
   public ComplexWaveform subtract(ComplexWaveform subtrahed) {
 
-    if (this.isEmpty() || subtrahed.isEmpty()) {
+    if (!this.isEmpty() && !subtrahed.isEmpty()) {
+
       if (!this.sameAxis(subtrahed)) {
-        subtrahed = subtrahed.resample(this.getX());
+        subtrahed = subtrahed.resample(this.x);
       }
 
-      final double[] newX = new double[this.x.length];
-      final Complex[] newY = new Complex[this.y.length];
+      final Column otherRe = subtrahed.re;
+      final Column otherIm = subtrahed.im;
 
-      for (int i = 0; i < newY.length; i++) {
-        newX[i] = this.x[i];
-        newY[i] = this.y[i].subtract(subtrahed.y[i]);
-      }
+      final double[] newRe = new double[this.re.size()];
+      final double[] newIm = new double[this.im.size()];
+
+      ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+        Kernels.subtract(this.re, otherRe, newRe, from, to);
+        Kernels.subtract(this.im, otherIm, newIm, from, to);
+      });
 
-      return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+      return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+          this.getUnitY());
 
     } else {
       return new ComplexWaveform();
@@ -482,15 +746,14 @@ public final class ComplexWaveform extends Waveform {
 
   @Override
   public ComplexWaveform subtract(final double subtrahed) {
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].subtract(subtrahed);
-    }
+    final double[] newRe = new double[this.re.size()];
+
+    ExecutionPolicy.forEach(newRe.length,
+        (from, to) -> Kernels.add(this.re, -subtrahed, newRe, from, to));
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new ComplexWaveform(this.x, Column.of(newRe), this.im,
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -500,15 +763,22 @@ public final class ComplexWaveform extends Waveform {
 
   @Override
   public ComplexWaveform subtract(final Complex subtrahed) {
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].subtract(subtrahed);
-    }
+    final double subtrahedRe = subtrahed.getReal();
+    final double subtrahedIm = subtrahed.getImaginary();
+
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        newRe[i] = this.re.get(i) - subtrahedRe;
+        newIm[i] = this.im.get(i) - subtrahedIm;
+      }
+    });
+
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
@@ -534,43 +804,47 @@ public final class ComplexWaveform extends Waveform {
 
   /**
    * Multiply a waveform with another {@link ComplexWaveform}
-   * 
+   *
    * @param factor waveform to be multiplied
    * @return wave
    */
   public ComplexWaveform multiply(ComplexWaveform factor) {
 
     if (!this.sameAxis(factor)) {
-      factor = factor.resample(this.getX());
+      factor = factor.resample(this.x);
     }
 
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
+    final Column otherRe = factor.re;
+    final Column otherIm = factor.im;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].multiply(factor.y[i]);
-    }
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> Kernels
+        .multiply(this.re, this.im, otherRe, otherIm, newRe, newIm, from, to));
+
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public Waveform multiply(final double factor) {
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].multiply(factor);
-    }
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
+
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      Kernels.multiply(this.re, factor, newRe, from, to);
+      Kernels.multiply(this.im, factor, newIm, from, to);
+    });
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public Waveform multiply(final BigDecimal factor) {
-    return this.multiply(factor.round(MathContext.DECIMAL64));
+    return this.multiply(factor.round(MathContext.DECIMAL64).doubleValue());
   }
 
   @Override
@@ -584,83 +858,100 @@ public final class ComplexWaveform extends Waveform {
 
   @Override
   public ComplexWaveform multiply(final Complex factor) {
-    final double[] newX = new double[this.x.length];
-    final Complex[] newY = new Complex[this.y.length];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i].multiply(factor);
-    }
+    final double factorRe = factor.getReal();
+    final double factorIm = factor.getImaginary();
+
+    final double[] newRe = new double[this.re.size()];
+    final double[] newIm = new double[this.im.size()];
+
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        newRe[i] = (this.re.get(i) * factorRe) - (this.im.get(i) * factorIm);
+        newIm[i] = (this.re.get(i) * factorIm) + (this.im.get(i) * factorRe);
+      }
+    });
 
-    return new ComplexWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
+        this.getUnitY());
   }
 
   @Override
   public ComplexWaveform divide(Waveform divisor) {
 
     if (!this.sameAxis(divisor)) {
-      divisor = divisor.resample(this.getX());
+      divisor = divisor.resample(this.x);
     }
 
-    final Complex[] y = new Complex[this.x.length];
+    final double[] newRe = new double[this.x.size()];
+    final double[] newIm = new double[this.x.size()];
 
     if (divisor instanceof RealWaveform) {
 
-      final RealWaveform wave = (RealWaveform) divisor;
+      final Column wave = ((RealWaveform) divisor).getYColumn();
 
-      for (int i = 0; i < y.length; i++) {
-        y[i] = this.y[i].divide(wave.getY()[i]);
-      }
+      ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          ComplexMath.divide(this.re.get(i), this.im.get(i), wave.get(i),
+              newRe, newIm, i);
+        }
+      });
 
     } else if (divisor instanceof ComplexWaveform) {
 
       final ComplexWaveform wave = (ComplexWaveform) divisor;
 
-      for (int i = 0; i < y.length; i++) {
-        y[i] = this.y[i].divide(wave.getY()[i]);
-      }
+      ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          ComplexMath.divide(this.re.get(i), this.im.get(i), wave.re.get(i),
+              wave.im.get(i), newRe, newIm, i);
+        }
+      });
     }
 
-    return ComplexWaveform.buildComplexWaveform(this.x, y, this.getUnitX(),
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
         this.getUnitY());
   }
 
   @Override
   public ComplexWaveform divide(final double divisor) {
 
-    final Complex[] y = new Complex[this.x.length];
+    final double[] newRe = new double[this.x.size()];
+    final double[] newIm = new double[this.x.size()];
 
-    for (int i = 0; i < y.length; i++) {
-      y[i] = this.y[i].divide(divisor);
-    }
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        ComplexMath.divide(this.re.get(i), this.im.get(i), divisor, newRe,
+            newIm, i);
+      }
+    });
 
-    return ComplexWaveform.buildComplexWaveform(this.x, y, this.getUnitX(),
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
         this.getUnitY());
   }
 
   @Override
   public ComplexWaveform divide(final BigDecimal divisor) {
-
-    final Complex[] y = new Complex[this.x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = this.y[i].divide(divisor.doubleValue());
-    }
-
-    return ComplexWaveform.buildComplexWaveform(this.x, y, this.getUnitX(),
-        this.getUnitY());
+    return this.divide(divisor.doubleValue());
   }
 
   @Override
   public ComplexWaveform divide(final Complex divisor) {
 
-    final Complex[] y = new Complex[this.x.length];
+    final double divisorRe = divisor.getReal();
+    final double divisorIm = divisor.getImaginary();
 
-    for (int i = 0; i < y.length; i++) {
-      y[i] = this.y[i].divide(divisor);
-    }
+    final double[] newRe = new double[this.x.size()];
+    final double[] newIm = new double[this.x.size()];
+
+    ExecutionPolicy.forEach(newRe.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        ComplexMath.divide(this.re.get(i), this.im.get(i), divisorRe,
+            divisorIm, newRe, newIm, i);
+      }
+    });
 
-    return ComplexWaveform.buildComplexWaveform(this.x, y, this.getUnitX(),
+    return new ComplexWaveform(this.x, newRe, newIm, this.getUnitX(),
         this.getUnitY());
   }
 
@@ -688,8 +979,8 @@ public final class ComplexWaveform extends Waveform {
 
   @Override
   public boolean isEmpty() {
-    return (this.x == null) || (this.y == null) || (this.x.length == 0)
-        || (this.y.length == 0);
+    return (this.x == null) || (this.re == null) || (this.im == null)
+        || (this.x.size() == 0) || (this.re.size() == 0);
   }
 
   /**
@@ -702,4 +993,4 @@ public final class ComplexWaveform extends Waveform {
   public static boolean isInstanceOf(final Object o) {
     return o instanceof ComplexWaveform;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,541 @@
+package edlab.eda.ardb;
+
+/**
+ * {@link Column} that stores its values compressed in blocks of
+ * {@link #BLOCK} values. The compression is lossless, every block is encoded
+ * independently, such that a value is accessed by decoding a single block.
+ * The last decoded block is cached, i.e. a sequential access decodes every
+ * block once.
+ * <ul>
+ * <li>{@link #axis(Column)} encodes the differences of the differences of
+ * consecutive values. This is efficient for monotonic x-axes with a constant
+ * or slowly changing step.
+ * <li>{@link #values(Column)} encodes the XOR of consecutive values. This is
+ * efficient for y-values that change slowly, since consecutive values share
+ * the sign, the exponent and the leading bits of the mantissa.
+ * </ul>
+ */
+final class CompressedColumn extends Column {
+
+  /**
+   * Binary logarithm of the number of values in a block
+   */
+  static final int BLOCK_SHIFT = 10;
+
+  /**
+   * Number of values in a block
+   */
+  static final int BLOCK = 1 << BLOCK_SHIFT;
+
+  private static final int DELTA_OF_DELTA = 0;
+  private static final int XOR = 1;
+
+  private final int encoding;
+  private final int offset;
+  private final int size;
+
+  // number of encoded values, the column can be a view on a range of them
+  private final int count;
+  private final long[] words;
+  private final long[] offsets;
+
+  private volatile Block cache = null;
+
+  private CompressedColumn(final int encoding, final int offset,
+      final int size, final int count, final long[] words,
+      final long[] offsets) {
+    this.encoding = encoding;
+    this.offset = offset;
+    this.size = size;
+    this.count = count;
+    this.words = words;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Compress the values of an x-axis with a delta-of-delta encoding
+   *
+   * @param column values
+   * @return compressed column, the column itself when it is already
+   *         compressed or constant
+   */
+  static Column axis(final Column column) {
+    return CompressedColumn.encode(column, DELTA_OF_DELTA);
+  }
+
+  /**
+   * Compress y-values with an XOR encoding
+   *
+   * @param column values
+   * @return compressed column, the column itself when it is already
+   *         compressed or constant
+   */
+  static Column values(final Column column) {
+    return CompressedColumn.encode(column, XOR);
+  }
+
+  /**
+   * Compress a column
+   *
+   * @param column   values
+   * @param encoding encoding
+   * @return compressed column
+   */
+  private static Column encode(final Column column, final int encoding) {
+
+    if ((column instanceof CompressedColumn)
+        || (column instanceof ConstantColumn)) {
+      return column;
+    }
+
+    final int size = column.size();
+    final long[] offsets = new long[(size + BLOCK - 1) >>> BLOCK_SHIFT];
+
+    final BitWriter writer = new BitWriter(size);
+    final double[] values = new double[BLOCK];
+
+    int length;
+
+    for (int b = 0; b < offsets.length; b++) {
+
+      offsets[b] = writer.position();
+      length = Math.min(BLOCK, size - (b << BLOCK_SHIFT));
+
+      column.copy(b << BLOCK_SHIFT, values, 0, length);
+
+      if (encoding == DELTA_OF_DELTA) {
+        CompressedColumn.encodeDeltaOfDelta(values, length, writer);
+      } else {
+        CompressedColumn.encodeXor(values, length, writer);
+      }
+    }
+
+    return new CompressedColumn(encoding, 0, size, size, writer.toArray(),
+        offsets);
+  }
+
+  /**
+   * Get the number of bytes that store the compressed values
+   *
+   * @return number of bytes
+   */
+  long bytes() {
+    return 8L * (this.words.length + this.offsets.length);
+  }
+
+  @Override
+  int size() {
+    return this.size;
+  }
+
+  @Override
+  double get(final int i) {
+
+    final int index = this.offset + i;
+
+    return this.block(index >>> BLOCK_SHIFT).values[index & (BLOCK - 1)];
+  }
+
+  @Override
+  Column slice(final int from, final int to) {
+    return new CompressedColumn(this.encoding, this.offset + from, to - from,
+        this.count, this.words, this.offsets);
+  }
+
+  @Override
+  void copy(final int from, final double[] dst, final int dstPos,
+      final int length) {
+
+    final int start = this.offset + from;
+    final int end = start + length;
+
+    int i = start;
+    int b;
+    int n;
+
+    while (i < end) {
+
+      b = i >>> BLOCK_SHIFT;
+      n = Math.min(end, (b + 1) << BLOCK_SHIFT) - i;
+
+      // complete blocks are decoded directly into the destination
+      if (((i & (BLOCK - 1)) == 0) && (n == BLOCK)) {
+        this.decode(b, dst, (dstPos + i) - start);
+      } else {
+        System.arraycopy(this.block(b).values, i & (BLOCK - 1), dst,
+            (dstPos + i) - start, n);
+      }
+
+      i += n;
+    }
+  }
+
+  /**
+   * The values are not cached, such that the column stays compressed
+   */
+  @Override
+  double[] toArray() {
+
+    final double[] retval = new double[this.size];
+
+    this.copy(0, retval, 0, retval.length);
+
+    return retval;
+  }
+
+  /**
+   * Get a decoded block
+   *
+   * @param b index of the block
+   * @return block
+   */
+  private Block block(final int b) {
+
+    Block block = this.cache;
+
+    if ((block == null) || (block.index != b)) {
+
+      block = new Block(b, new double[BLOCK]);
+
+      this.decode(b, block.values, 0);
+
+      this.cache = block;
+    }
+
+    return block;
+  }
+
+  /**
+   * Decode a block
+   *
+   * @param b      index of the block
+   * @param dst    destination array
+   * @param dstPos first index in the destination array
+   */
+  private void decode(final int b, final double[] dst, final int dstPos) {
+
+    final BitReader reader = new BitReader(this.words, this.offsets[b]);
+    final int length = b < (this.offsets.length - 1) ? BLOCK
+        : this.count - (b << BLOCK_SHIFT);
+
+    if (this.encoding == DELTA_OF_DELTA) {
+      CompressedColumn.decodeDeltaOfDelta(reader, dst, dstPos, length);
+    } else {
+      CompressedColumn.decodeXor(reader, dst, dstPos, length);
+    }
+  }
+
+  /**
+   * Map a double to a long, such that the order of the values is preserved.
+   * The mapping is its own inverse.
+   *
+   * @param bits raw bits of a double
+   * @return long
+   */
+  private static long sortable(final long bits) {
+    return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+  }
+
+  /**
+   * Encode values with the delta-of-delta encoding. The first value and the
+   * first difference are stored with 64 bits, every further difference of
+   * the differences is stored with a prefix that identifies its number of
+   * bits.
+   *
+   * @param values values
+   * @param length number of values
+   * @param writer writer
+   */
+  private static void encodeDeltaOfDelta(final double[] values,
+      final int length, final BitWriter writer) {
+
+    long previous = CompressedColumn
+        .sortable(Double.doubleToRawLongBits(values[0]));
+    long delta = 0;
+
+    writer.write(previous, 64);
+
+    long value;
+    long dod;
+    long zigzag;
+
+    for (int i = 1; i < length; i++) {
+
+      value = CompressedColumn.sortable(Double.doubleToRawLongBits(values[i]));
+
+      if (i == 1) {
+        delta = value - previous;
+        writer.write(delta, 64);
+      } else {
+
+        dod = (value - previous) - delta;
+        delta = value - previous;
+        zigzag = (dod << 1) ^ (dod >> 63);
+
+        if (zigzag == 0) {
+          writer.write(0b0, 1);
+        } else if ((zigzag >>> 7) == 0) {
+          writer.write(0b10, 2);
+          writer.write(zigzag, 7);
+        } else if ((zigzag >>> 9) == 0) {
+          writer.write(0b110, 3);
+          writer.write(zigzag, 9);
+        } else if ((zigzag >>> 12) == 0) {
+          writer.write(0b1110, 4);
+          writer.write(zigzag, 12);
+        } else {
+          writer.write(0b1111, 4);
+          writer.write(zigzag, 64);
+        }
+      }
+
+      previous = value;
+    }
+  }
+
+  /**
+   * Decode values with the delta-of-delta encoding
+   *
+   * @param reader reader
+   * @param dst    destination array
+   * @param dstPos first index in the destination array
+   * @param length number of values
+   */
+  private static void decodeDeltaOfDelta(final BitReader reader,
+      final double[] dst, final int dstPos, final int length) {
+
+    long value = reader.read(64);
+    long delta = 0;
+    long zigzag;
+
+    dst[dstPos] = Double
+        .longBitsToDouble(CompressedColumn.sortable(value));
+
+    for (int i = 1; i < length; i++) {
+
+      if (i == 1) {
+        delta = reader.read(64);
+      } else if (reader.read(1) == 0) {
+        zigzag = 0;
+        delta += zigzag;
+      } else {
+
+        if (reader.read(1) == 0) {
+          zigzag = reader.read(7);
+        } else if (reader.read(1) == 0) {
+          zigzag = reader.read(9);
+        } else if (reader.read(1) == 0) {
+          zigzag = reader.read(12);
+        } else {
+          zigzag = reader.read(64);
+        }
+
+        delta += (zigzag >>> 1) ^ -(zigzag & 1);
+      }
+
+      value += delta;
+
+      dst[dstPos + i] = Double
+          .longBitsToDouble(CompressedColumn.sortable(value));
+    }
+  }
+
+  /**
+   * Encode values with the XOR encoding. The first value is stored with 64
+   * bits, every further value is stored as XOR with the previous value. Only
+   * the bits between the leading and the trailing zeros of the XOR are
+   * stored, the position of these bits is reused when it covers the XOR.
+   *
+   * @param values values
+   * @param length number of values
+   * @param writer writer
+   */
+  private static void encodeXor(final double[] values, final int length,
+      final BitWriter writer) {
+
+    long previous = Double.doubleToRawLongBits(values[0]);
+
+    writer.write(previous, 64);
+
+    int leading = -1;
+    int trailing = 0;
+
+    long value;
+    long xor;
+    int lead;
+    int trail;
+
+    for (int i = 1; i < length; i++) {
+
+      value = Double.doubleToRawLongBits(values[i]);
+      xor = value ^ previous;
+
+      if (xor == 0) {
+        writer.write(0b0, 1);
+      } else {
+
+        lead = Math.min(31, Long.numberOfLeadingZeros(xor));
+        trail = Long.numberOfTrailingZeros(xor);
+
+        if ((leading >= 0) && (lead >= leading) && (trail >= trailing)) {
+          writer.write(0b10, 2);
+          writer.write(xor >>> trailing, 64 - leading - trailing);
+        } else {
+          writer.write(0b11, 2);
+          writer.write(lead, 5);
+          writer.write(63 - lead - trail, 6);
+          writer.write(xor >>> trail, 64 - lead - trail);
+          leading = lead;
+          trailing = trail;
+        }
+      }
+
+      previous = value;
+    }
+  }
+
+  /**
+   * Decode values with the XOR encoding
+   *
+   * @param reader reader
+   * @param dst    destination array
+   * @param dstPos first index in the destination array
+   * @param length number of values
+   */
+  private static void decodeXor(final BitReader reader, final double[] dst,
+      final int dstPos, final int length) {
+
+    long value = reader.read(64);
+
+    dst[dstPos] = Double.longBitsToDouble(value);
+
+    int leading = 0;
+    int trailing = 0;
+
+    for (int i = 1; i < length; i++) {
+
+      if (reader.read(1) == 1) {
+
+        if (reader.read(1) == 1) {
+          leading = (int) reader.read(5);
+          trailing = 63 - leading - (int) reader.read(6);
+        }
+
+        value ^= reader.read(64 - leading - trailing) << trailing;
+      }
+
+      dst[dstPos + i] = Double.longBitsToDouble(value);
+    }
+  }
+
+  /**
+   * Decoded block
+   */
+  private static final class Block {
+
+    private final int index;
+    private final double[] values;
+
+    private Block(final int index, final double[] values) {
+      this.index = index;
+      this.values = values;
+    }
+  }
+
+  /**
+   * Writer of a bit stream, the bits are stored from the most significant bit
+   * of a word
+   */
+  private static final class BitWriter {
+
+    private long[] words;
+    private long position = 0;
+
+    private BitWriter(final int size) {
+      this.words = new long[Math.max(1, size / 8)];
+    }
+
+    private long position() {
+      return this.position;
+    }
+
+    /**
+     * Append the lowest bits of a value
+     *
+     * @param value value
+     * @param bits  number of bits, between 1 and 64
+     */
+    private void write(final long value, final int bits) {
+
+      final int word = (int) (this.position >>> 6);
+      final int used = (int) (this.position & 63);
+
+      if ((word + 1) >= this.words.length) {
+        final long[] words = new long[this.words.length * 2];
+        System.arraycopy(this.words, 0, words, 0, this.words.length);
+        this.words = words;
+      }
+
+      final long masked = bits == 64 ? value : value & ((1L << bits) - 1);
+      final int free = 64 - used;
+
+      if (bits <= free) {
+        this.words[word] |= masked << (free - bits);
+      } else {
+        this.words[word] |= masked >>> (bits - free);
+        this.words[word + 1] |= masked << (64 - (bits - free));
+      }
+
+      this.position += bits;
+    }
+
+    private long[] toArray() {
+
+      final long[] retval = new long[(int) ((this.position + 63) >>> 6)];
+
+      System.arraycopy(this.words, 0, retval, 0, retval.length);
+
+      return retval;
+    }
+  }
+
+  /**
+   * Reader of a bit stream written by a {@link BitWriter}
+   */
+  private static final class BitReader {
+
+    private final long[] words;
+    private long position;
+
+    private BitReader(final long[] words, final long position) {
+      this.words = words;
+      this.position = position;
+    }
+
+    /**
+     * Read bits
+     *
+     * @param bits number of bits, between 1 and 64
+     * @return value
+     */
+    private long read(final int bits) {
+
+      final int word = (int) (this.position >>> 6);
+      final int used = (int) (this.position & 63);
+      final int free = 64 - used;
+
+      long value;
+
+      if (bits <= free) {
+        value = this.words[word] >>> (free - bits);
+      } else {
+        value = (this.words[word] << (bits - free))
+            | (this.words[word + 1] >>> (64 - (bits - free)));
+      }
+
+      this.position += bits;
+
+      return bits == 64 ? value : value & ((1L << bits) - 1);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+package edlab.eda.ardb;
+
+import java.util.Arrays;
+
+/**
+ * {@link Column} where all values are identical. Only the value and the
+ * number of values are stored, the kernels treat the column as a scalar, see
+ * {@link Kernels}.
+ */
+final class ConstantColumn extends Column {
+
+  private final double value;
+  private final int size;
+
+  /**
+   * Create a constant column
+   *
+   * @param value value
+   * @param size  number of values
+   */
+  ConstantColumn(final double value, final int size) {
+    this.value = value;
+    this.size = size;
+  }
+
+  /**
+   * Get the value of the column
+   *
+   * @return value
+   */
+  double getValue() {
+    return this.value;
+  }
+
+  @Override
+  int size() {
+    return this.size;
+  }
+
+  @Override
+  double get(final int i) {
+    return this.value;
+  }
+
+  @Override
+  Column slice(final int from, final int to) {
+    return new ConstantColumn(this.value, to - from);
+  }
+
+  @Override
+  void copy(final int from, final double[] dst, final int dstPos,
+      final int length) {
+    Arrays.fill(dst, dstPos, dstPos + length, this.value);
+  }
+}
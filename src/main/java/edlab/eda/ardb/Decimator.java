@@ -0,0 +1,255 @@
+package edlab.eda.ardb;
+
+/**
+ * Decimation of waveform data for plotting. The x-range of the waveform is
+ * divided in buckets of equal width, either on a linear or on a logarithmic
+ * x-axis, and every bucket is represented by a few points.
+ * <ul>
+ * <li>{@link #minMax(Column, Column, int, boolean)} keeps the minimum and the
+ * maximum of every bucket, i.e. the envelope of the waveform is preserved.
+ * <li>{@link #lttb(Column, Column, int, boolean)} keeps one point per bucket,
+ * which is selected with the Largest-Triangle-Three-Buckets algorithm, i.e.
+ * the shape of the waveform is preserved.
+ * </ul>
+ */
+final class Decimator {
+
+  private Decimator() {
+  }
+
+  /**
+   * Decimate waveform data to the minimum and the maximum of every bucket.
+   * The points are returned in ascending order, a bucket without points is
+   * skipped.
+   *
+   * @param x       sorted x-values
+   * @param y       y-values
+   * @param buckets number of buckets
+   * @param logX    <code>true</code> when the buckets have an equal width on
+   *                a logarithmic x-axis, <code>false</code> otherwise
+   * @return array with the x-values and the y-values of the decimated data
+   */
+  static double[][] minMax(final Column x, final Column y, final int buckets,
+      final boolean logX) {
+
+    final int[] bounds = Decimator.bounds(x, 0, x.size(), buckets, logX);
+
+    final GrowableDoubleArray newX = new GrowableDoubleArray(2 * buckets);
+    final GrowableDoubleArray newY = new GrowableDoubleArray(2 * buckets);
+
+    int argmin;
+    int argmax;
+
+    for (int b = 0; b < buckets; b++) {
+
+      if (bounds[b] == bounds[b + 1]) {
+        continue;
+      }
+
+      argmin = bounds[b];
+      argmax = bounds[b];
+
+      for (int i = bounds[b] + 1; i < bounds[b + 1]; i++) {
+
+        if (Statistics.isLess(y.get(i), y.get(argmin))) {
+          argmin = i;
+        }
+
+        if (Statistics.isGreater(y.get(i), y.get(argmax))) {
+          argmax = i;
+        }
+      }
+
+      if (argmin != argmax) {
+        newX.add(x.get(Math.min(argmin, argmax)));
+        newY.add(y.get(Math.min(argmin, argmax)));
+      }
+
+      newX.add(x.get(Math.max(argmin, argmax)));
+      newY.add(y.get(Math.max(argmin, argmax)));
+    }
+
+    return new double[][] { newX.toArray(), newY.toArray() };
+  }
+
+  /**
+   * Decimate waveform data with the Largest-Triangle-Three-Buckets algorithm.
+   * The first and the last point are kept, the points in between are divided
+   * in <code>points-2</code> buckets. From every bucket, the point is
+   * selected that spans the largest triangle with the point selected from the
+   * previous bucket and the average of the next bucket. On a logarithmic
+   * x-axis, the triangles are evaluated in the logarithm of the x-values.
+   *
+   * @param x      sorted x-values
+   * @param y      y-values
+   * @param points number of points, at least 3
+   * @param logX   <code>true</code> when the buckets have an equal width on a
+   *               logarithmic x-axis, <code>false</code> otherwise
+   * @return array with the x-values and the y-values of the decimated data
+   */
+  static double[][] lttb(final Column x, final Column y, final int points,
+      final boolean logX) {
+
+    final int n = x.size();
+    final int buckets = points - 2;
+
+    final int[] bounds = Decimator.bounds(x, 1, n - 1, buckets, logX);
+
+    final GrowableDoubleArray newX = new GrowableDoubleArray(points);
+    final GrowableDoubleArray newY = new GrowableDoubleArray(points);
+
+    newX.add(x.get(0));
+    newY.add(y.get(0));
+
+    // selected point of the previous bucket
+    double ax = Decimator.scale(x.get(0), logX);
+    double ay = y.get(0);
+
+    int next;
+    double cx;
+    double cy;
+    double area;
+    double maxArea;
+    int selected;
+
+    for (int b = 0; b < buckets; b++) {
+
+      if (bounds[b] == bounds[b + 1]) {
+        continue;
+      }
+
+      // average of the next bucket that contains points
+      next = b + 1;
+
+      while ((next < buckets) && (bounds[next] == bounds[next + 1])) {
+        next++;
+      }
+
+      if (next < buckets) {
+
+        cx = 0;
+        cy = 0;
+
+        for (int i = bounds[next]; i < bounds[next + 1]; i++) {
+          cx += Decimator.scale(x.get(i), logX);
+          cy += y.get(i);
+        }
+
+        cx /= bounds[next + 1] - bounds[next];
+        cy /= bounds[next + 1] - bounds[next];
+
+      } else {
+        cx = Decimator.scale(x.get(n - 1), logX);
+        cy = y.get(n - 1);
+      }
+
+      selected = bounds[b];
+      maxArea = -1;
+
+      for (int i = bounds[b]; i < bounds[b + 1]; i++) {
+
+        area = Math.abs(((ax - cx) * (y.get(i) - ay))
+            - ((ax - Decimator.scale(x.get(i), logX)) * (cy - ay)));
+
+        if (area > maxArea) {
+          maxArea = area;
+          selected = i;
+        }
+      }
+
+      newX.add(x.get(selected));
+      newY.add(y.get(selected));
+
+      ax = Decimator.scale(x.get(selected), logX);
+      ay = y.get(selected);
+    }
+
+    newX.add(x.get(n - 1));
+    newY.add(y.get(n - 1));
+
+    return new double[][] { newX.toArray(), newY.toArray() };
+  }
+
+  /**
+   * Divide the points in <code>[from,to)</code> in buckets of equal width on
+   * the x-axis, which spans from the first to the last point of the waveform
+   *
+   * @param x       sorted x-values
+   * @param from    first point (inclusive)
+   * @param to      last point (exclusive)
+   * @param buckets number of buckets
+   * @param logX    <code>true</code> for a logarithmic x-axis,
+   *                <code>false</code> otherwise
+   * @return index of the first point of every bucket, followed by
+   *         <code>to</code>
+   */
+  private static int[] bounds(final Column x, final int from, final int to,
+      final int buckets, final boolean logX) {
+
+    final double first = x.get(0);
+    final double last = x.get(x.size() - 1);
+
+    final int[] bounds = new int[buckets + 1];
+
+    bounds[0] = from;
+    bounds[buckets] = to;
+
+    double edge;
+
+    for (int b = 1; b < buckets; b++) {
+
+      if (logX) {
+        edge = first * Math.pow(last / first, (double) b / buckets);
+      } else {
+        edge = first + (((last - first) * b) / buckets);
+      }
+
+      bounds[b] = Decimator.lowerBound(x, edge, bounds[b - 1], to);
+    }
+
+    return bounds;
+  }
+
+  /**
+   * Get the index of the first point in <code>[from,to)</code> whose x-value
+   * is not less than a position
+   *
+   * @param x    sorted x-values
+   * @param pos  x-value
+   * @param from first index (inclusive)
+   * @param to   last index (exclusive)
+   * @return index, <code>to</code> when all x-values are less
+   */
+  private static int lowerBound(final Column x, final double pos,
+      final int from, final int to) {
+
+    int lo = from;
+    int hi = to;
+    int mid;
+
+    while (lo < hi) {
+
+      mid = (lo + hi) >>> 1;
+
+      if (x.get(mid) < pos) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    return lo;
+  }
+
+  /**
+   * Map an x-value to the plotted axis
+   *
+   * @param x    x-value
+   * @param logX <code>true</code> for a logarithmic x-axis, <code>false</code>
+   *             otherwise
+   * @return position on the axis
+   */
+  private static double scale(final double x, final boolean logX) {
+    return logX ? Math.log10(x) : x;
+  }
+}
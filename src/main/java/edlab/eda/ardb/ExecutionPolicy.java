@@ -0,0 +1,239 @@
+package edlab.eda.ardb;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Execution policy of the waveform kernels. The element-wise operations and
+ * the reductions of waveforms with at least {@link #getThreshold()} points are
+ * executed in parallel in a {@link ForkJoinPool}, smaller waveforms are
+ * processed serially.
+ * <p>
+ * The results do not depend on the policy. The waveform is partitioned in
+ * blocks of fixed size, a reduction is first evaluated for every block and the
+ * results of the blocks are then combined in ascending order, independent of
+ * the number of threads.
+ */
+public final class ExecutionPolicy {
+
+  /**
+   * Default number of points of a waveform from which on the kernels are
+   * executed in parallel
+   */
+  public static final int DEFAULT_THRESHOLD = 1 << 18;
+
+  /**
+   * Number of points in one block
+   */
+  static final int BLOCK = 1 << 14;
+
+  private static volatile int threshold = DEFAULT_THRESHOLD;
+  private static volatile ForkJoinPool pool = null;
+
+  private ExecutionPolicy() {
+  }
+
+  /**
+   * Get the number of points of a waveform from which on the kernels are
+   * executed in parallel
+   *
+   * @return threshold
+   */
+  public static int getThreshold() {
+    return ExecutionPolicy.threshold;
+  }
+
+  /**
+   * Set the number of points of a waveform from which on the kernels are
+   * executed in parallel. Use {@link Integer#MAX_VALUE} to disable the
+   * parallel execution.
+   *
+   * @param threshold threshold, must be positive
+   * @return <code>true</code> when the threshold is set, <code>false</code>
+   *         otherwise
+   */
+  public static boolean setThreshold(final int threshold) {
+
+    if (threshold < 1) {
+      System.err.println("Threshold must be positive");
+      return false;
+    }
+
+    ExecutionPolicy.threshold = threshold;
+    return true;
+  }
+
+  /**
+   * Set the pool that executes the parallel kernels
+   *
+   * @param pool pool, <code>null</code> for the common pool
+   */
+  public static void setPool(final ForkJoinPool pool) {
+    ExecutionPolicy.pool = pool;
+  }
+
+  /**
+   * Get the pool that executes the parallel kernels
+   *
+   * @return pool
+   */
+  public static ForkJoinPool getPool() {
+
+    final ForkJoinPool pool = ExecutionPolicy.pool;
+
+    return pool == null ? ForkJoinPool.commonPool() : pool;
+  }
+
+  /**
+   * Check if a kernel over <code>n</code> points is executed in parallel
+   *
+   * @param n number of points
+   * @return <code>true</code> when the kernel is executed in parallel,
+   *         <code>false</code> otherwise
+   */
+  static boolean isParallel(final int n) {
+    return (n >= ExecutionPolicy.threshold) && (n > BLOCK);
+  }
+
+  /**
+   * Get the number of blocks of <code>n</code> points
+   *
+   * @param n number of points
+   * @return number of blocks
+   */
+  static int noOfBlocks(final int n) {
+    return (n + BLOCK - 1) / BLOCK;
+  }
+
+  /**
+   * Apply a kernel to the index range <code>[0,n)</code>. The kernel is
+   * called for disjoint ranges that cover the whole range.
+   *
+   * @param n      number of points
+   * @param kernel kernel
+   */
+  static void forEach(final int n, final RangeKernel kernel) {
+
+    if (ExecutionPolicy.isParallel(n)) {
+      ExecutionPolicy.getPool()
+          .invoke(new Task(n, kernel, 0, ExecutionPolicy.noOfBlocks(n)));
+    } else if (n > 0) {
+      kernel.apply(0, n);
+    }
+  }
+
+  /**
+   * Apply a kernel to every block of the index range <code>[0,n)</code>
+   *
+   * @param n      number of points
+   * @param kernel kernel
+   */
+  static void forEachBlock(final int n, final BlockKernel kernel) {
+    ExecutionPolicy.forEach(n, (from, to) -> {
+      for (int b = from / BLOCK; (b * BLOCK) < to; b++) {
+        kernel.apply(b, b * BLOCK, Math.min(n, (b + 1) * BLOCK));
+      }
+    });
+  }
+
+  /**
+   * Evaluate a reduction for every block of the index range
+   * <code>[0,n)</code>
+   *
+   * @param n         number of points
+   * @param reduction reduction
+   * @return result of every block in ascending order
+   */
+  static double[] blocks(final int n, final RangeReduction reduction) {
+
+    final double[] retval = new double[ExecutionPolicy.noOfBlocks(n)];
+
+    ExecutionPolicy.forEachBlock(n,
+        (block, from, to) -> retval[block] = reduction.apply(from, to));
+
+    return retval;
+  }
+
+  /**
+   * Element-wise kernel over an index range
+   */
+  @FunctionalInterface
+  interface RangeKernel {
+
+    /**
+     * Apply the kernel
+     *
+     * @param from first index (inclusive)
+     * @param to   last index (exclusive)
+     */
+    void apply(int from, int to);
+  }
+
+  /**
+   * Reduction over an index range
+   */
+  @FunctionalInterface
+  interface RangeReduction {
+
+    /**
+     * Evaluate the reduction
+     *
+     * @param from first index (inclusive)
+     * @param to   last index (exclusive)
+     * @return result
+     */
+    double apply(int from, int to);
+  }
+
+  /**
+   * Kernel over a block
+   */
+  @FunctionalInterface
+  interface BlockKernel {
+
+    /**
+     * Apply the kernel
+     *
+     * @param block index of the block
+     * @param from  first index (inclusive)
+     * @param to    last index (exclusive)
+     */
+    void apply(int block, int from, int to);
+  }
+
+  /**
+   * Task that applies a kernel to a range of blocks
+   */
+  private static final class Task extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int n;
+    private final RangeKernel kernel;
+    private final int first;
+    private final int last;
+
+    Task(final int n, final RangeKernel kernel, final int first,
+        final int last) {
+      this.n = n;
+      this.kernel = kernel;
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected void compute() {
+
+      if ((this.last - this.first) == 1) {
+        this.kernel.apply(this.first * BLOCK,
+            Math.min(this.n, this.last * BLOCK));
+      } else {
+
+        final int mid = (this.first + this.last) >>> 1;
+
+        invokeAll(new Task(this.n, this.kernel, this.first, mid),
+            new Task(this.n, this.kernel, mid, this.last));
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package edlab.eda.ardb;
+
+/**
+ * Array of primitive doubles with a variable length. The capacity is doubled
+ * whenever the array is full, i.e. appending a value takes amortized constant
+ * time. The values are not boxed.
+ */
+final class GrowableDoubleArray {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private double[] values;
+  private int size = 0;
+
+  /**
+   * Create an empty array
+   */
+  GrowableDoubleArray() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create an empty array
+   *
+   * @param capacity initial capacity
+   */
+  GrowableDoubleArray(final int capacity) {
+    this.values = new double[Math.max(1, capacity)];
+  }
+
+  /**
+   * Append a value
+   *
+   * @param value value
+   */
+  void add(final double value) {
+
+    if (this.size == this.values.length) {
+      final double[] values = new double[this.values.length * 2];
+      System.arraycopy(this.values, 0, values, 0, this.size);
+      this.values = values;
+    }
+
+    this.values[this.size++] = value;
+  }
+
+  /**
+   * Get a value
+   *
+   * @param i index
+   * @return value
+   */
+  double get(final int i) {
+    return this.values[i];
+  }
+
+  /**
+   * Get the number of values
+   *
+   * @return number of values
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Get the values as array with the length {@link #size()}
+   *
+   * @return values
+   */
+  double[] toArray() {
+
+    if (this.size == this.values.length) {
+      return this.values;
+    }
+
+    final double[] retval = new double[this.size];
+
+    System.arraycopy(this.values, 0, retval, 0, this.size);
+
+    return retval;
+  }
+}
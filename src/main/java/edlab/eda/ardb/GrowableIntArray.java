@@ -0,0 +1,83 @@
+package edlab.eda.ardb;
+
+/**
+ * Array of primitive integers with a variable length. The capacity is doubled
+ * whenever the array is full, i.e. appending a value takes amortized constant
+ * time. The values are not boxed.
+ */
+final class GrowableIntArray {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] values;
+  private int size = 0;
+
+  /**
+   * Create an empty array
+   */
+  GrowableIntArray() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create an empty array
+   *
+   * @param capacity initial capacity
+   */
+  GrowableIntArray(final int capacity) {
+    this.values = new int[Math.max(1, capacity)];
+  }
+
+  /**
+   * Append a value
+   *
+   * @param value value
+   */
+  void add(final int value) {
+
+    if (this.size == this.values.length) {
+      final int[] values = new int[this.values.length * 2];
+      System.arraycopy(this.values, 0, values, 0, this.size);
+      this.values = values;
+    }
+
+    this.values[this.size++] = value;
+  }
+
+  /**
+   * Get a value
+   *
+   * @param i index
+   * @return value
+   */
+  int get(final int i) {
+    return this.values[i];
+  }
+
+  /**
+   * Get the number of values
+   *
+   * @return number of values
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Get the values as array with the length {@link #size()}
+   *
+   * @return values
+   */
+  int[] toArray() {
+
+    if (this.size == this.values.length) {
+      return this.values;
+    }
+
+    final int[] retval = new int[this.size];
+
+    System.arraycopy(this.values, 0, retval, 0, this.size);
+
+    return retval;
+  }
+}
@@ -0,0 +1,116 @@
+package edlab.eda.ardb;
+
+/**
+ * Cumulative integrals of a waveform. The index stores the integrals of
+ * <code>y</code> and <code>y^2</code> from the first point to every point,
+ * calculated with the trapezoidal rule. The integral over an arbitrary range
+ * is the difference of the cumulative integrals at the first and the last
+ * point in the range plus the trapezoids at the borders of the range, i.e. it
+ * is computed in O(log n).
+ * <p>
+ * The integrals are identical to the integrals of the clipped waveform, see
+ * {@link RealWaveform#clip(double, double)}, except for rounding.
+ */
+final class IntegralIndex {
+
+  private final double[] integral;
+  private final double[] square;
+
+  /**
+   * Build the index of a waveform
+   *
+   * @param x x-values
+   * @param y y-values
+   */
+  IntegralIndex(final Column x, final Column y) {
+
+    final int n = y.size();
+
+    this.integral = new double[n];
+    this.square = new double[n];
+
+    final int noOfBlocks = ExecutionPolicy.noOfBlocks(n);
+
+    final double[] integrals = new double[noOfBlocks];
+    final double[] squares = new double[noOfBlocks];
+
+    // cumulative integrals of the segments that end in the block
+    ExecutionPolicy.forEachBlock(n, (block, from, to) -> {
+
+      double integral = 0;
+      double square = 0;
+
+      double x0 = from > 0 ? x.get(from - 1) : 0;
+      double y0 = from > 0 ? y.get(from - 1) : 0;
+      double x1;
+      double y1;
+
+      for (int i = from; i < to; i++) {
+
+        x1 = x.get(i);
+        y1 = y.get(i);
+
+        if (i > 0) {
+          integral += ((x1 - x0) * (y1 + y0)) / 2.0;
+          square += ((x1 - x0) * ((y1 * y1) + (y0 * y0))) / 2.0;
+        }
+
+        this.integral[i] = integral;
+        this.square[i] = square;
+
+        x0 = x1;
+        y0 = y1;
+      }
+
+      integrals[block] = integral;
+      squares[block] = square;
+    });
+
+    // the offsets of the blocks are accumulated in ascending order
+    for (int b = 1; b < noOfBlocks; b++) {
+      integrals[b] += integrals[b - 1];
+      squares[b] += squares[b - 1];
+    }
+
+    ExecutionPolicy.forEachBlock(n, (block, from, to) -> {
+
+      if (block > 0) {
+        for (int i = from; i < to; i++) {
+          this.integral[i] += integrals[block - 1];
+          this.square[i] += squares[block - 1];
+        }
+      }
+    });
+  }
+
+  /**
+   * Get the cumulative integral of <code>y</code>
+   *
+   * @return integral from the first point to every point
+   */
+  double[] getIntegral() {
+    return this.integral;
+  }
+
+  /**
+   * Get the integral of <code>y</code> between two points
+   *
+   * @param from index of the first point
+   * @param to   index of the last point
+   * @return integral
+   */
+  double integral(final int from, final int to) {
+    return this.integral[to] - this.integral[from];
+  }
+
+  /**
+   * Get the integral of <code>y^2</code> between two points
+   *
+   * @param from index of the first point
+   * @param to   index of the last point
+   * @return integral
+   */
+  double square(final int from, final int to) {
+    return this.square[to] - this.square[from];
+  }
+}
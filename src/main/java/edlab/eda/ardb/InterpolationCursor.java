@@ -0,0 +1,70 @@
+package edlab.eda.ardb;
+
+/**
+ * Cursor for evaluating a {@link Waveform} at a sequence of positions. The
+ * cursor remembers the segment of the last evaluation, a monotonic sequence of
+ * positions is evaluated in amortized constant time per position.
+ *
+ * A cursor is not thread-safe, but can be used for all waveforms that share
+ * the x-values of the waveform it was created for.
+ */
+public final class InterpolationCursor {
+
+  private final Waveform wave;
+  private int segment = 0;
+
+  /**
+   * Create a cursor for a waveform
+   *
+   * @param wave waveform
+   */
+  public InterpolationCursor(final Waveform wave) {
+    this.wave = wave;
+  }
+
+  /**
+   * Get the waveform the cursor was created for
+   *
+   * @return waveform
+   */
+  public Waveform getWaveform() {
+    return this.wave;
+  }
+
+  /**
+   * Identify the segment <code>[x[i],x[i+1]]</code> that is used for
+   * interpolating at a position
+   *
+   * @param pos x-value
+   * @return index <code>i</code> of the segment
+   */
+  public int locate(final double pos) {
+    this.segment = this.wave.segment(pos, this.segment);
+    return this.segment;
+  }
+
+  /**
+   * Identify the segment that is used for interpolating a waveform at a
+   * position. The cursor is only used when the waveform shares the x-values of
+   * the waveform the cursor was created for.
+   *
+   * @param wave waveform
+   * @param pos  x-value
+   * @return index of the segment
+   */
+  int locate(final Waveform wave, final double pos) {
+
+    if (wave.x == this.wave.x) {
+      return this.locate(pos);
+    } else {
+      return wave.segment(pos);
+    }
+  }
+
+  /**
+   * Reset the cursor to the first segment
+   */
+  public void reset() {
+    this.segment = 0;
+  }
+}
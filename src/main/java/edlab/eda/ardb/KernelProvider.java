@@ -0,0 +1,22 @@
+package edlab.eda.ardb;
+
+/**
+ * Provides the implementation of the {@link ArrayKernels}. This is the
+ * Java 8 variant, which always provides the scalar kernels. The multi-release
+ * JAR contains a variant for Java 17 that provides kernels based on the
+ * Vector API.
+ */
+final class KernelProvider {
+
+  private KernelProvider() {
+  }
+
+  /**
+   * Get the kernels
+   *
+   * @return kernels
+   */
+  static ArrayKernels get() {
+    return new ArrayKernels();
+  }
+}
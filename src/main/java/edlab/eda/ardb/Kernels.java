@@ -0,0 +1,233 @@
+package edlab.eda.ardb;
+
+/**
+ * Kernels on ranges of {@link Column}s. The values of an array-backed column
+ * are passed to the {@link ArrayKernels} directly, the values of other columns
+ * are copied to a temporary array first. A {@link ConstantColumn} is passed as
+ * scalar to the element-wise arithmetic and the extrema whenever possible.
+ */
+final class Kernels {
+
+  private static final ArrayKernels KERNELS = KernelProvider.get();
+
+  private Kernels() {
+  }
+
+  /**
+   * Get the kernels that are used
+   *
+   * @return kernels
+   */
+  static ArrayKernels get() {
+    return KERNELS;
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) + b[from,to)</code>
+   */
+  static void add(final Column a, final Column b, final double[] dst,
+      final int from, final int to) {
+
+    if (b instanceof ConstantColumn) {
+      Kernels.add(a, ((ConstantColumn) b).getValue(), dst, from, to);
+      return;
+    }
+
+    if (a instanceof ConstantColumn) {
+      Kernels.add(b, ((ConstantColumn) a).getValue(), dst, from, to);
+      return;
+    }
+
+    KERNELS.add(Kernels.array(a, from, to), Kernels.position(a, from),
+        Kernels.array(b, from, to), Kernels.position(b, from), dst, from,
+        to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) - b[from,to)</code>
+   */
+  static void subtract(final Column a, final Column b, final double[] dst,
+      final int from, final int to) {
+
+    // a - b is identical to a + (-b)
+    if (b instanceof ConstantColumn) {
+      Kernels.add(a, -((ConstantColumn) b).getValue(), dst, from, to);
+      return;
+    }
+
+    KERNELS.subtract(Kernels.array(a, from, to), Kernels.position(a, from),
+        Kernels.array(b, from, to), Kernels.position(b, from), dst, from,
+        to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) * b[from,to)</code>
+   */
+  static void multiply(final Column a, final Column b, final double[] dst,
+      final int from, final int to) {
+
+    if (b instanceof ConstantColumn) {
+      Kernels.multiply(a, ((ConstantColumn) b).getValue(), dst, from, to);
+      return;
+    }
+
+    if (a instanceof ConstantColumn) {
+      Kernels.multiply(b, ((ConstantColumn) a).getValue(), dst, from, to);
+      return;
+    }
+
+    KERNELS.multiply(Kernels.array(a, from, to), Kernels.position(a, from),
+        Kernels.array(b, from, to), Kernels.position(b, from), dst, from,
+        to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) / b[from,to)</code>
+   */
+  static void divide(final Column a, final Column b, final double[] dst,
+      final int from, final int to) {
+
+    if (b instanceof ConstantColumn) {
+      Kernels.divide(a, ((ConstantColumn) b).getValue(), dst, from, to);
+      return;
+    }
+
+    KERNELS.divide(Kernels.array(a, from, to), Kernels.position(a, from),
+        Kernels.array(b, from, to), Kernels.position(b, from), dst, from,
+        to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) + b</code>
+   */
+  static void add(final Column a, final double b, final double[] dst,
+      final int from, final int to) {
+    KERNELS.add(Kernels.array(a, from, to), Kernels.position(a, from), b,
+        dst, from, to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) * b</code>
+   */
+  static void multiply(final Column a, final double b, final double[] dst,
+      final int from, final int to) {
+    KERNELS.multiply(Kernels.array(a, from, to), Kernels.position(a, from),
+        b, dst, from, to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = a[from,to) / b</code>
+   */
+  static void divide(final Column a, final double b, final double[] dst,
+      final int from, final int to) {
+    KERNELS.divide(Kernels.array(a, from, to), Kernels.position(a, from), b,
+        dst, from, to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = |a[from,to)|</code>
+   */
+  static void abs(final Column a, final double[] dst, final int from,
+      final int to) {
+    KERNELS.abs(Kernels.array(a, from, to), Kernels.position(a, from), dst,
+        from, to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = factor * log10(a[from,to))</code>
+   */
+  static void log10(final Column a, final double factor, final double[] dst,
+      final int from, final int to) {
+    KERNELS.log10(Kernels.array(a, from, to), Kernels.position(a, from),
+        factor, dst, from, to - from);
+  }
+
+  /**
+   * <code>dst[from,to) = |re[from,to) + j*im[from,to)|</code>
+   */
+  static void abs(final Column re, final Column im, final double[] dst,
+      final int from, final int to) {
+    KERNELS.abs(Kernels.array(re, from, to), Kernels.position(re, from),
+        Kernels.array(im, from, to), Kernels.position(im, from), dst, from,
+        to - from);
+  }
+
+  /**
+   * Multiply the complex values <code>aRe + j*aIm</code> and
+   * <code>bRe + j*bIm</code> in the range <code>[from,to)</code>
+   */
+  static void multiply(final Column aRe, final Column aIm, final Column bRe,
+      final Column bIm, final double[] dstRe, final double[] dstIm,
+      final int from, final int to) {
+    KERNELS.multiply(Kernels.array(aRe, from, to),
+        Kernels.position(aRe, from), Kernels.array(aIm, from, to),
+        Kernels.position(aIm, from), Kernels.array(bRe, from, to),
+        Kernels.position(bRe, from), Kernels.array(bIm, from, to),
+        Kernels.position(bIm, from), dstRe, dstIm, from, to - from);
+  }
+
+  /**
+   * Get the minimum of the range <code>[from,to)</code>
+   */
+  static double min(final Column a, final int from, final int to) {
+
+    if ((a instanceof ConstantColumn) && (from < to)) {
+      return ((ConstantColumn) a).getValue();
+    }
+
+    return KERNELS.min(Kernels.array(a, from, to), Kernels.position(a, from),
+        to - from);
+  }
+
+  /**
+   * Get the maximum of the range <code>[from,to)</code>
+   */
+  static double max(final Column a, final int from, final int to) {
+
+    if ((a instanceof ConstantColumn) && (from < to)) {
+      return ((ConstantColumn) a).getValue();
+    }
+
+    return KERNELS.max(Kernels.array(a, from, to), Kernels.position(a, from),
+        to - from);
+  }
+
+  /**
+   * Integrate the polyline through the points in the range
+   * <code>[from,to)</code> with the trapezoidal rule
+   */
+  static double trapezoid(final Column x, final Column y, final int from,
+      final int to) {
+    return KERNELS.trapezoid(Kernels.array(x, from, to),
+        Kernels.position(x, from), Kernels.array(y, from, to),
+        Kernels.position(y, from), to - from);
+  }
+
+  /**
+   * Get an array that contains the range <code>[from,to)</code> of a column
+   * at {@link #position(Column, int)}
+   */
+  private static double[] array(final Column column, final int from,
+      final int to) {
+
+    final double[] array = column.array();
+
+    if (array != null) {
+      return array;
+    }
+
+    final double[] retval = new double[to - from];
+
+    column.copy(from, retval, 0, retval.length);
+
+    return retval;
+  }
+
+  /**
+   * Get the index of the value <code>from</code> of a column in the array
+   * returned by {@link #array(Column, int, int)}
+   */
+  private static int position(final Column column, final int from) {
+    return column.array() != null ? column.arrayOffset() + from : 0;
+  }
+}
@@ -0,0 +1,225 @@
+package edlab.eda.ardb;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Read-only map of waves that are created on demand. Only the names, the
+ * units and optionally the x-axes of the waves are known when the map is
+ * created, a wave is created by the loader when it is accessed for the first
+ * time and is then cached. The map is thread-safe, every wave is created at
+ * most once.
+ *
+ * @param <W> type of the waves
+ */
+final class LazyWaveMap<W extends Waveform> extends AbstractMap<String, W> {
+
+  private final Map<String, Source> sources;
+  private final Function<String, W> loader;
+  private final ConcurrentHashMap<String, W> cache;
+
+  /**
+   * Create a map
+   *
+   * @param sources map from the name of a wave to its source
+   * @param loader  function that creates a wave from the name of its source,
+   *                must not return <code>null</code>
+   */
+  LazyWaveMap(final Map<String, Source> sources,
+      final Function<String, W> loader) {
+    this.sources = new HashMap<>(sources);
+    this.loader = loader;
+    this.cache = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Get the number of waves that were created so far
+   *
+   * @return number of created waves
+   */
+  int noOfLoadedWaves() {
+    return this.cache.size();
+  }
+
+  @Override
+  public W get(final Object name) {
+
+    final Source source = this.sources.get(name);
+
+    if (source == null) {
+      return null;
+    }
+
+    return this.cache.computeIfAbsent((String) name,
+        key -> this.loader.apply(source.name));
+  }
+
+  @Override
+  public boolean containsKey(final Object name) {
+    return this.sources.containsKey(name);
+  }
+
+  @Override
+  public int size() {
+    return this.sources.size();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    return Collections.unmodifiableSet(this.sources.keySet());
+  }
+
+  /**
+   * Get all entries of the map. All waves are created.
+   */
+  @Override
+  public Set<Map.Entry<String, W>> entrySet() {
+
+    final Set<Map.Entry<String, W>> retval = new HashSet<>();
+
+    for (final String name : this.sources.keySet()) {
+      retval.add(new SimpleImmutableEntry<>(name, this.get(name)));
+    }
+
+    return Collections.unmodifiableSet(retval);
+  }
+
+  /**
+   * Get a wave from a map. A wave of a {@link LazyWaveMap} that was not
+   * created so far is created, but not cached, i.e. it is not kept on the
+   * heap when it is no longer used by the caller.
+   *
+   * @param waves map of waves
+   * @param name  name of the wave
+   * @param <W>   type of the waves
+   * @return wave, <code>null</code> when the map contains no such wave
+   */
+  static <W extends Waveform> W load(final Map<String, W> waves,
+      final String name) {
+
+    if (!(waves instanceof LazyWaveMap)) {
+      return waves.get(name);
+    }
+
+    final LazyWaveMap<W> lazy = (LazyWaveMap<W>) waves;
+    final Source source = lazy.sources.get(name);
+
+    if (source == null) {
+      return null;
+    }
+
+    final W wave = lazy.cache.get(name);
+
+    return wave == null ? lazy.loader.apply(source.name) : wave;
+  }
+
+  /**
+   * Get the x-axis of a wave from a map. The wave is only created when its
+   * x-axis is not known in a {@link LazyWaveMap}.
+   *
+   * @param waves map of waves
+   * @param name  name of the wave
+   * @return x-axis, <code>null</code> when the map contains no such wave
+   */
+  static Column getAxis(final Map<String, ? extends Waveform> waves,
+      final String name) {
+
+    final Source source = LazyWaveMap.source(waves, name);
+
+    if ((source != null) && (source.axis != null)) {
+      return source.axis;
+    }
+
+    final Waveform wave = LazyWaveMap.load(waves, name);
+
+    return wave == null ? null : wave.x;
+  }
+
+  /**
+   * Get the unit of the x-axis of a wave from a map. The wave is not created
+   * when the map is a {@link LazyWaveMap}.
+   *
+   * @param waves map of waves
+   * @param name  name of the wave
+   * @return unit, <code>null</code> when the map contains no such wave
+   */
+  static String getUnitX(final Map<String, ? extends Waveform> waves,
+      final String name) {
+
+    final Source source = LazyWaveMap.source(waves, name);
+
+    if (source != null) {
+      return source.unitX;
+    }
+
+    final Waveform wave = waves.get(name);
+
+    return wave == null ? null : wave.getUnitX();
+  }
+
+  /**
+   * Get the unit of the y-axis of a wave from a map. The wave is not created
+   * when the map is a {@link LazyWaveMap}.
+   *
+   * @param waves map of waves
+   * @param name  name of the wave
+   * @return unit, <code>null</code> when the map contains no such wave
+   */
+  static String getUnitY(final Map<String, ? extends Waveform> waves,
+      final String name) {
+
+    final Source source = LazyWaveMap.source(waves, name);
+
+    if (source != null) {
+      return source.unitY;
+    }
+
+    final Waveform wave = waves.get(name);
+
+    return wave == null ? null : wave.getUnitY();
+  }
+
+  /**
+   * Get the source of a wave when the map is a {@link LazyWaveMap}
+   */
+  private static Source source(final Map<String, ? extends Waveform> waves,
+      final String name) {
+    return waves instanceof LazyWaveMap
+        ? ((LazyWaveMap<?>) waves).sources.get(name)
+        : null;
+  }
+
+  /**
+   * Properties of a wave that are known before the wave is created
+   */
+  static final class Source {
+
+    private final String name;
+    private final Column axis;
+    private final String unitX;
+    private final String unitY;
+
+    /**
+     * Create a source
+     *
+     * @param name  name that is passed to the loader
+     * @param axis  x-axis of the wave, <code>null</code> when it is only known
+     *              when the wave is created
+     * @param unitX unit of the x-axis
+     * @param unitY unit of the y-axis
+     */
+    Source(final String name, final Column axis, final String unitX,
+        final String unitY) {
+      this.name = name;
+      this.axis = axis;
+      this.unitX = unitX;
+      this.unitY = unitY;
+    }
+  }
+}
@@ -0,0 +1,1113 @@
+package edlab.eda.ardb;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+
+/**
+ * Waveform expression that is evaluated lazily. Operations on a lazy waveform
+ * do not create new arrays, they only record the operation. The recorded
+ * operations are evaluated in a single pass over the x-axis when a terminal
+ * operation like {@link #cross(double, int)}, {@link #getValue(double)},
+ * {@link #ymax()}, {@link #integrate()} or {@link #materialize()} is called.
+ * The points are processed in small blocks, such that intermediate results
+ * stay in the cache and no intermediate waveforms are allocated.
+ * <p>
+ * A lazy waveform is created with {@link Waveform#lazy()}. All operands are
+ * evaluated on the x-axis of this waveform, operands with a different x-axis
+ * are resampled when they are added to the expression.
+ */
+public final class LazyWaveform {
+
+  /**
+   * Number of points that are evaluated in one block
+   */
+  static final int BLOCK = 256;
+
+  private static final double[] ZERO = new double[BLOCK];
+
+  private final Waveform axis;
+  private final Node node;
+
+  private LazyWaveform(final Waveform axis, final Node node) {
+    this.axis = axis;
+    this.node = node;
+  }
+
+  /**
+   * Create a lazy waveform from a waveform
+   *
+   * @param wave waveform
+   * @return lazy waveform
+   */
+  static LazyWaveform of(final Waveform wave) {
+    return new LazyWaveform(wave, LazyWaveform.leaf(wave));
+  }
+
+  /**
+   * Get the unit of the x-axis
+   *
+   * @return unit
+   */
+  public String getUnitX() {
+    return this.axis.getUnitX();
+  }
+
+  /**
+   * Get the unit of the y-axis
+   *
+   * @return unit
+   */
+  public String getUnitY() {
+    return this.node.unit;
+  }
+
+  /**
+   * Get the number of points
+   *
+   * @return number of points
+   */
+  public int noOfVals() {
+    return this.axis.x.size();
+  }
+
+  /**
+   * Check if the expression results in a complex waveform
+   *
+   * @return <code>true</code> when the result is a {@link ComplexWaveform},
+   *         <code>false</code> when the result is a {@link RealWaveform}
+   */
+  public boolean isComplex() {
+    return this.node.complex;
+  }
+
+  /**
+   * Add a waveform
+   *
+   * @param wave waveform to be added
+   * @return sum
+   */
+  public LazyWaveform add(final Waveform wave) {
+    return this.binary(OPERATION.ADD, this.operand(wave));
+  }
+
+  /**
+   * Add a lazy waveform
+   *
+   * @param wave waveform to be added
+   * @return sum
+   */
+  public LazyWaveform add(final LazyWaveform wave) {
+    return this.binary(OPERATION.ADD, this.operand(wave));
+  }
+
+  /**
+   * Add a value
+   *
+   * @param value value to be added
+   * @return sum
+   */
+  public LazyWaveform add(final double value) {
+    return this.binary(OPERATION.ADD, new Constant(value));
+  }
+
+  /**
+   * Add a complex value
+   *
+   * @param value value to be added
+   * @return sum
+   */
+  public LazyWaveform add(final Complex value) {
+    return this.binary(OPERATION.ADD, new Constant(value));
+  }
+
+  /**
+   * Add a value
+   *
+   * @param value value to be added
+   * @return sum
+   */
+  public LazyWaveform add(final Value value) {
+    return this.binary(OPERATION.ADD, LazyWaveform.constant(value));
+  }
+
+  /**
+   * Subtract a waveform
+   *
+   * @param subtrahend waveform to be subtracted
+   * @return difference
+   */
+  public LazyWaveform subtract(final Waveform subtrahend) {
+    return this.binary(OPERATION.SUBTRACT, this.operand(subtrahend));
+  }
+
+  /**
+   * Subtract a lazy waveform
+   *
+   * @param subtrahend waveform to be subtracted
+   * @return difference
+   */
+  public LazyWaveform subtract(final LazyWaveform subtrahend) {
+    return this.binary(OPERATION.SUBTRACT, this.operand(subtrahend));
+  }
+
+  /**
+   * Subtract a value
+   *
+   * @param subtrahend value to be subtracted
+   * @return difference
+   */
+  public LazyWaveform subtract(final double subtrahend) {
+    return this.binary(OPERATION.SUBTRACT, new Constant(subtrahend));
+  }
+
+  /**
+   * Subtract a complex value
+   *
+   * @param subtrahend value to be subtracted
+   * @return difference
+   */
+  public LazyWaveform subtract(final Complex subtrahend) {
+    return this.binary(OPERATION.SUBTRACT, new Constant(subtrahend));
+  }
+
+  /**
+   * Subtract a value
+   *
+   * @param subtrahend value to be subtracted
+   * @return difference
+   */
+  public LazyWaveform subtract(final Value subtrahend) {
+    return this.binary(OPERATION.SUBTRACT, LazyWaveform.constant(subtrahend));
+  }
+
+  /**
+   * Multiply with a waveform
+   *
+   * @param factor waveform to be multiplied
+   * @return product
+   */
+  public LazyWaveform multiply(final Waveform factor) {
+    return this.binary(OPERATION.MULTIPLY, this.operand(factor));
+  }
+
+  /**
+   * Multiply with a lazy waveform
+   *
+   * @param factor waveform to be multiplied
+   * @return product
+   */
+  public LazyWaveform multiply(final LazyWaveform factor) {
+    return this.binary(OPERATION.MULTIPLY, this.operand(factor));
+  }
+
+  /**
+   * Multiply with a value
+   *
+   * @param factor value to be multiplied
+   * @return product
+   */
+  public LazyWaveform multiply(final double factor) {
+    return this.binary(OPERATION.MULTIPLY, new Constant(factor));
+  }
+
+  /**
+   * Multiply with a complex value
+   *
+   * @param factor value to be multiplied
+   * @return product
+   */
+  public LazyWaveform multiply(final Complex factor) {
+    return this.binary(OPERATION.MULTIPLY, new Constant(factor));
+  }
+
+  /**
+   * Multiply with a value
+   *
+   * @param factor value to be multiplied
+   * @return product
+   */
+  public LazyWaveform multiply(final Value factor) {
+    return this.binary(OPERATION.MULTIPLY, LazyWaveform.constant(factor));
+  }
+
+  /**
+   * Divide by a waveform
+   *
+   * @param divisor divisor
+   * @return quotient
+   */
+  public LazyWaveform divide(final Waveform divisor) {
+    return this.binary(OPERATION.DIVIDE, this.operand(divisor));
+  }
+
+  /**
+   * Divide by a lazy waveform
+   *
+   * @param divisor divisor
+   * @return quotient
+   */
+  public LazyWaveform divide(final LazyWaveform divisor) {
+    return this.binary(OPERATION.DIVIDE, this.operand(divisor));
+  }
+
+  /**
+   * Divide by a value
+   *
+   * @param divisor divisor
+   * @return quotient
+   */
+  public LazyWaveform divide(final double divisor) {
+    return this.binary(OPERATION.DIVIDE, new Constant(divisor));
+  }
+
+  /**
+   * Divide by a complex value
+   *
+   * @param divisor divisor
+   * @return quotient
+   */
+  public LazyWaveform divide(final Complex divisor) {
+    return this.binary(OPERATION.DIVIDE, new Constant(divisor));
+  }
+
+  /**
+   * Divide by a value
+   *
+   * @param divisor divisor
+   * @return quotient
+   */
+  public LazyWaveform divide(final Value divisor) {
+    return this.binary(OPERATION.DIVIDE, LazyWaveform.constant(divisor));
+  }
+
+  /**
+   * Negate the waveform
+   *
+   * @return waveform
+   */
+  public LazyWaveform uminus() {
+    return this.unary(OPERATION.UMINUS);
+  }
+
+  /**
+   * Get the absolute value of the waveform
+   *
+   * @return waveform
+   */
+  public LazyWaveform abs() {
+    return this.unary(OPERATION.ABS);
+  }
+
+  /**
+   * Get the waveform in dB10
+   *
+   * @return waveform
+   */
+  public LazyWaveform db10() {
+    return this.unary(OPERATION.DB10);
+  }
+
+  /**
+   * Get the waveform in dB20
+   *
+   * @return waveform
+   */
+  public LazyWaveform db20() {
+    return this.unary(OPERATION.DB20);
+  }
+
+  /**
+   * Get the phase of the waveform in degrees
+   *
+   * @return waveform
+   */
+  public LazyWaveform phaseDeg() {
+    return this.unary(OPERATION.PHASE_DEG);
+  }
+
+  /**
+   * Get the real part of the waveform
+   *
+   * @return waveform
+   */
+  public LazyWaveform real() {
+    return this.unary(OPERATION.REAL);
+  }
+
+  /**
+   * Get the imaginary part of the waveform
+   *
+   * @return waveform
+   */
+  public LazyWaveform imag() {
+    return this.unary(OPERATION.IMAG);
+  }
+
+  /**
+   * Get the complex conjugate of the waveform
+   *
+   * @return waveform
+   */
+  public LazyWaveform conjugate() {
+    return this.unary(OPERATION.CONJUGATE);
+  }
+
+  /**
+   * Evaluate the expression and create a waveform
+   *
+   * @return {@link RealWaveform} or {@link ComplexWaveform}, depending on
+   *         {@link #isComplex()}
+   */
+  public Waveform materialize() {
+
+    final int n = this.axis.x.size();
+
+    if (n == 0) {
+      if (this.node.complex) {
+        return new ComplexWaveform();
+      } else {
+        return new RealWaveform();
+      }
+    }
+
+    final Evaluator evaluator = new Evaluator(this.node);
+
+    final double[] re = new double[n];
+    final double[] im = this.node.complex ? new double[n] : null;
+
+    int length;
+
+    for (int from = 0; from < n; from += BLOCK) {
+
+      length = Math.min(BLOCK, n - from);
+
+      evaluator.evaluate(from, length);
+
+      System.arraycopy(evaluator.re(), 0, re, from, length);
+
+      if (im != null) {
+        System.arraycopy(evaluator.im(), 0, im, from, length);
+      }
+    }
+
+    if (this.node.complex) {
+      return ComplexWaveform.buildSortedComplexWaveform(this.axis.x,
+          Column.of(re), Column.of(im), this.getUnitX(), this.node.unit);
+    } else {
+      return RealWaveform.buildSortedRealWaveform(this.axis.x, Column.of(re),
+          this.getUnitX(), this.node.unit);
+    }
+  }
+
+  /**
+   * Evaluate the expression at a value. Only the two points of the segment
+   * that contains the value are evaluated.
+   *
+   * @param pos x-value where the waveform is evaluated
+   * @return {@link RealValue} or {@link ComplexValue}, depending on
+   *         {@link #isComplex()}
+   */
+  public Value getValue(final double pos) {
+
+    final int n = this.axis.x.size();
+
+    if (n == 0) {
+      if (this.node.complex) {
+        return new ComplexValue();
+      } else {
+        return new RealValue();
+      }
+    }
+
+    final Evaluator evaluator = new Evaluator(this.node);
+
+    if (n == 1) {
+
+      evaluator.evaluate(0, 1);
+
+      if (this.node.complex) {
+        return new ComplexValue(
+            new Complex(evaluator.re()[0], evaluator.im()[0]),
+            this.node.unit);
+      } else {
+        return new RealValue(evaluator.re()[0], this.node.unit);
+      }
+    }
+
+    final int i = this.axis.segment(pos);
+
+    evaluator.evaluate(i, 2);
+
+    final double x0 = this.axis.x.get(i);
+    final double x1 = this.axis.x.get(i + 1);
+    final double[] re = evaluator.re();
+
+    if (this.node.complex) {
+
+      final double[] im = evaluator.im();
+      final double t = (pos - x0) / (x1 - x0);
+
+      return new ComplexValue(new Complex(re[0] + ((re[1] - re[0]) * t),
+          im[0] + ((im[1] - im[0]) * t)), this.node.unit);
+    } else {
+
+      final double m = (re[1] - re[0]) / (x1 - x0);
+
+      return new RealValue(re[0] + (m * (pos - x0)), this.node.unit);
+    }
+  }
+
+  /**
+   * Get the minimal y-value of a real expression
+   *
+   * @return minimal y-value
+   */
+  public RealValue ymin() {
+    return this.extremum(false);
+  }
+
+  /**
+   * Get the maximal y-value of a real expression
+   *
+   * @return maximal y-value
+   */
+  public RealValue ymax() {
+    return this.extremum(true);
+  }
+
+  /**
+   * Integrate a real expression
+   *
+   * @return area under the waveform
+   */
+  public RealValue integrate() {
+
+    if (this.node.complex) {
+      System.err.println("Cannot integrate a complex waveform");
+      return new RealValue();
+    }
+
+    final int n = this.axis.x.size();
+    final Evaluator evaluator = new Evaluator(this.node);
+
+    double retval = 0;
+    double prevX = 0;
+    double prevY = 0;
+    double currX;
+    double[] y;
+    int length;
+
+    for (int from = 0; from < n; from += BLOCK) {
+
+      length = Math.min(BLOCK, n - from);
+
+      evaluator.evaluate(from, length);
+      y = evaluator.re();
+
+      for (int j = 0; j < length; j++) {
+
+        currX = this.axis.x.get(from + j);
+
+        if ((from + j) > 0) {
+          retval += ((currX - prevX) * (y[j] + prevY)) / 2.0;
+        }
+
+        prevX = currX;
+        prevY = y[j];
+      }
+    }
+
+    return new RealValue(retval, "");
+  }
+
+  /**
+   * Calculate the nth intersection of a real expression with a constant
+   * value. The evaluation stops at the intersection.
+   *
+   * @param val  y-value if the intersection
+   * @param edge Nth occurrence of the intersection
+   * @return Intersection
+   */
+  public RealValue cross(final double val, final int edge) {
+
+    if (this.node.complex) {
+      System.err.println("Cannot calculate the intersection of a complex "
+          + "waveform");
+      return new RealValue();
+    }
+
+    final int n = this.axis.x.size();
+    final Evaluator evaluator = new Evaluator(this.node);
+
+    int counter = 1;
+    double prevY = 0;
+    double currY;
+    double[] y;
+    int length;
+    int i;
+
+    for (int from = 0; from < n; from += BLOCK) {
+
+      length = Math.min(BLOCK, n - from);
+
+      evaluator.evaluate(from, length);
+      y = evaluator.re();
+
+      for (int j = 0; j < length; j++) {
+
+        i = from + j;
+        currY = y[j];
+
+        if ((i > 0) && (((prevY - val) * (currY - val)) <= 0)) {
+
+          if (counter == edge) {
+
+            final double x0 = this.axis.x.get(i - 1);
+
+            return new RealValue(x0 + (((val - prevY) / (currY - prevY))
+                * (this.axis.x.get(i) - x0)), this.getUnitX());
+          }
+
+          counter++;
+        }
+
+        prevY = currY;
+      }
+    }
+
+    return new RealValue();
+  }
+
+  /**
+   * Calculate the nth intersection of a real expression with a constant
+   * value
+   *
+   * @param val  y-value if the intersection
+   * @param edge Nth occurrence of the intersection
+   * @return Intersection
+   */
+  public RealValue cross(final RealValue val, final int edge) {
+
+    if (val.isNaN()) {
+      return new RealValue();
+    } else {
+      return this.cross(val.getValue(), edge);
+    }
+  }
+
+  /**
+   * Get the minimum or maximum of a real expression
+   *
+   * @param max <code>true</code> for the maximum, <code>false</code> for the
+   *            minimum
+   * @return extremum
+   */
+  private RealValue extremum(final boolean max) {
+
+    if (this.node.complex) {
+      System.err.println("Cannot compare the values of a complex waveform");
+      return new RealValue();
+    }
+
+    final int n = this.axis.x.size();
+
+    if (n == 0) {
+      return new RealValue();
+    }
+
+    final Evaluator evaluator = new Evaluator(this.node);
+
+    double retval = max ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    double[] y;
+    int length;
+
+    for (int from = 0; from < n; from += BLOCK) {
+
+      length = Math.min(BLOCK, n - from);
+
+      evaluator.evaluate(from, length);
+      y = evaluator.re();
+
+      for (int j = 0; j < length; j++) {
+        if (max) {
+          retval = Math.max(y[j], retval);
+        } else {
+          retval = Math.min(y[j], retval);
+        }
+      }
+    }
+
+    return new RealValue(retval, this.node.unit);
+  }
+
+  /**
+   * Create an expression for a unary operation
+   *
+   * @param operation operation
+   * @return expression
+   */
+  private LazyWaveform unary(final OPERATION operation) {
+    return new LazyWaveform(this.axis, new Operation(operation, this.node));
+  }
+
+  /**
+   * Create an expression for a binary operation
+   *
+   * @param operation operation
+   * @param operand   second operand
+   * @return expression
+   */
+  private LazyWaveform binary(final OPERATION operation,
+      final Node operand) {
+    return new LazyWaveform(this.axis,
+        new Operation(operation, this.node, operand));
+  }
+
+  /**
+   * Create an operand from a waveform. The waveform is resampled when it has
+   * a different x-axis.
+   *
+   * @param wave waveform
+   * @return operand
+   */
+  private Node operand(Waveform wave) {
+
+    if (!this.axis.sameAxis(wave)) {
+      wave = wave.resample(this.axis.x);
+    }
+
+    return LazyWaveform.leaf(wave);
+  }
+
+  /**
+   * Create an operand from a lazy waveform. The expression is evaluated and
+   * resampled when it has a different x-axis.
+   *
+   * @param wave waveform
+   * @return operand
+   */
+  private Node operand(final LazyWaveform wave) {
+
+    if ((this.axis == wave.axis) || this.axis.sameAxis(wave.axis)) {
+      return wave.node;
+    }
+
+    return this.operand(wave.materialize());
+  }
+
+  /**
+   * Create a leaf of an expression from a waveform
+   *
+   * @param wave waveform
+   * @return leaf
+   */
+  private static Node leaf(final Waveform wave) {
+
+    if (wave instanceof ComplexWaveform) {
+
+      final ComplexWaveform complex = (ComplexWaveform) wave;
+
+      return new Leaf(complex.getYRealColumn(), complex.getYImagColumn(),
+          complex.getUnitY());
+    } else {
+
+      final RealWaveform real = (RealWaveform) wave;
+
+      return new Leaf(real.getYColumn(), null, real.getUnitY());
+    }
+  }
+
+  /**
+   * Create a constant operand from a value
+   *
+   * @param value value
+   * @return constant
+   */
+  private static Node constant(final Value value) {
+
+    if (value instanceof ComplexValue) {
+      return new Constant(((ComplexValue) value).getValue());
+    } else {
+      return new Constant(((RealValue) value).getValue());
+    }
+  }
+
+  /**
+   * Operations in an expression
+   */
+  private enum OPERATION {
+    ADD, SUBTRACT, MULTIPLY, DIVIDE, UMINUS, ABS, DB10, DB20, PHASE_DEG, REAL,
+    IMAG, CONJUGATE
+  }
+
+  /**
+   * Node of an expression
+   */
+  private abstract static class Node {
+
+    final boolean complex;
+    final String unit;
+    final Node[] operands;
+
+    Node(final boolean complex, final String unit, final Node... operands) {
+      this.complex = complex;
+      this.unit = unit;
+      this.operands = operands;
+    }
+
+    /**
+     * Evaluate a block of points
+     *
+     * @param from   index of the first point
+     * @param length number of points
+     * @param argRe  real parts of the operands
+     * @param argIm  imaginary parts of the operands, zero for real operands
+     * @param re     real part of the result
+     * @param im     imaginary part of the result, <code>null</code> when the
+     *               node is not complex
+     */
+    abstract void evaluate(int from, int length, double[][] argRe,
+        double[][] argIm, double[] re, double[] im);
+  }
+
+  /**
+   * Node that references the values of a waveform
+   */
+  private static final class Leaf extends Node {
+
+    private final Column re;
+    private final Column im;
+
+    Leaf(final Column re, final Column im, final String unit) {
+      super(im != null, unit);
+      this.re = re;
+      this.im = im;
+    }
+
+    @Override
+    void evaluate(final int from, final int length, final double[][] argRe,
+        final double[][] argIm, final double[] re, final double[] im) {
+
+      this.re.copy(from, re, 0, length);
+
+      if (this.im != null) {
+        this.im.copy(from, im, 0, length);
+      }
+    }
+  }
+
+  /**
+   * Node that is constant for all points
+   */
+  private static final class Constant extends Node {
+
+    private final double re;
+    private final double im;
+
+    Constant(final double value) {
+      super(false, "");
+      this.re = value;
+      this.im = 0.0;
+    }
+
+    Constant(final Complex value) {
+      super(true, "");
+      this.re = value.getReal();
+      this.im = value.getImaginary();
+    }
+
+    @Override
+    void evaluate(final int from, final int length, final double[][] argRe,
+        final double[][] argIm, final double[] re, final double[] im) {
+
+      for (int j = 0; j < length; j++) {
+        re[j] = this.re;
+      }
+
+      if (im != null) {
+        for (int j = 0; j < length; j++) {
+          im[j] = this.im;
+        }
+      }
+    }
+  }
+
+  /**
+   * Node that applies an operation to one or two operands
+   */
+  private static final class Operation extends Node {
+
+    private final OPERATION operation;
+
+    Operation(final OPERATION operation, final Node... operands) {
+      super(Operation.isComplex(operation, operands),
+          Operation.unit(operation, operands), operands);
+      this.operation = operation;
+    }
+
+    private static boolean isComplex(final OPERATION operation,
+        final Node[] operands) {
+
+      switch (operation) {
+      case ADD:
+      case SUBTRACT:
+      case MULTIPLY:
+      case DIVIDE:
+        return operands[0].complex || operands[1].complex;
+      case UMINUS:
+      case CONJUGATE:
+        return operands[0].complex;
+      default:
+        return false;
+      }
+    }
+
+    private static String unit(final OPERATION operation,
+        final Node[] operands) {
+
+      switch (operation) {
+      case DB10:
+      case DB20:
+        return "";
+      case PHASE_DEG:
+        return operands[0].complex ? "deg" : operands[0].unit;
+      default:
+        return operands[0].unit;
+      }
+    }
+
+    @Override
+    void evaluate(final int from, final int length, final double[][] argRe,
+        final double[][] argIm, final double[] re, final double[] im) {
+
+      final double[] a = argRe[0];
+      final double[] b = argIm[0];
+      final double[] c = argRe.length > 1 ? argRe[1] : null;
+      final double[] d = argIm.length > 1 ? argIm[1] : null;
+
+      switch (this.operation) {
+      case ADD:
+        for (int j = 0; j < length; j++) {
+          re[j] = a[j] + c[j];
+        }
+        if (im != null) {
+          for (int j = 0; j < length; j++) {
+            im[j] = b[j] + d[j];
+          }
+        }
+        break;
+      case SUBTRACT:
+        for (int j = 0; j < length; j++) {
+          re[j] = a[j] - c[j];
+        }
+        if (im != null) {
+          for (int j = 0; j < length; j++) {
+            im[j] = b[j] - d[j];
+          }
+        }
+        break;
+      case MULTIPLY:
+        if (im == null) {
+          for (int j = 0; j < length; j++) {
+            re[j] = a[j] * c[j];
+          }
+        } else {
+          for (int j = 0; j < length; j++) {
+            re[j] = (a[j] * c[j]) - (b[j] * d[j]);
+            im[j] = (a[j] * d[j]) + (b[j] * c[j]);
+          }
+        }
+        break;
+      case DIVIDE:
+        if (im == null) {
+          for (int j = 0; j < length; j++) {
+            re[j] = a[j] / c[j];
+          }
+        } else if (!this.operands[1].complex) {
+          for (int j = 0; j < length; j++) {
+            ComplexMath.divide(a[j], b[j], c[j], re, im, j);
+          }
+        } else {
+          for (int j = 0; j < length; j++) {
+            ComplexMath.divide(a[j], b[j], c[j], d[j], re, im, j);
+          }
+        }
+        break;
+      case UMINUS:
+        for (int j = 0; j < length; j++) {
+          re[j] = -a[j];
+        }
+        if (im != null) {
+          for (int j = 0; j < length; j++) {
+            im[j] = -b[j];
+          }
+        }
+        break;
+      case CONJUGATE:
+        System.arraycopy(a, 0, re, 0, length);
+        if (im != null) {
+          for (int j = 0; j < length; j++) {
+            im[j] = -b[j];
+          }
+        }
+        break;
+      case ABS:
+        this.abs(length, a, b, re);
+        break;
+      case DB10:
+        this.abs(length, a, b, re);
+        for (int j = 0; j < length; j++) {
+          re[j] = 10 * Math.log10(re[j]);
+        }
+        break;
+      case DB20:
+        this.abs(length, a, b, re);
+        for (int j = 0; j < length; j++) {
+          re[j] = 20 * Math.log10(re[j]);
+        }
+        break;
+      case PHASE_DEG:
+        if (this.operands[0].complex) {
+          for (int j = 0; j < length; j++) {
+            re[j] = (ComplexMath.argument(a[j], b[j]) / Math.PI) * 180;
+          }
+        } else {
+          for (int j = 0; j < length; j++) {
+            re[j] = a[j] >= 0 ? 0.0 : 180.0;
+          }
+        }
+        break;
+      case REAL:
+        System.arraycopy(a, 0, re, 0, length);
+        break;
+      case IMAG:
+        System.arraycopy(b, 0, re, 0, length);
+        break;
+      default:
+        break;
+      }
+    }
+
+    /**
+     * Absolute value of the first operand. Real operands of the logarithmic
+     * operations are used as they are, like in {@link RealWaveform#db20()}.
+     */
+    private void abs(final int length, final double[] a, final double[] b,
+        final double[] re) {
+
+      if (this.operands[0].complex) {
+        for (int j = 0; j < length; j++) {
+          re[j] = ComplexMath.abs(a[j], b[j]);
+        }
+      } else if (this.operation == OPERATION.ABS) {
+        for (int j = 0; j < length; j++) {
+          re[j] = Math.abs(a[j]);
+        }
+      } else {
+        System.arraycopy(a, 0, re, 0, length);
+      }
+    }
+  }
+
+  /**
+   * Evaluation of an expression block by block. Every node is evaluated once
+   * per block, also when it is referenced by several other nodes.
+   */
+  private static final class Evaluator {
+
+    private final Node[] nodes;
+    private final double[][] re;
+    private final double[][] im;
+    private final double[][][] argRe;
+    private final double[][][] argIm;
+
+    Evaluator(final Node root) {
+
+      final List<Node> order = new ArrayList<>();
+      final IdentityHashMap<Node, Integer> slots = new IdentityHashMap<>();
+
+      Evaluator.sort(root, order, slots);
+
+      this.nodes = order.toArray(new Node[order.size()]);
+      this.re = new double[this.nodes.length][BLOCK];
+      this.im = new double[this.nodes.length][];
+      this.argRe = new double[this.nodes.length][][];
+      this.argIm = new double[this.nodes.length][][];
+
+      Node node;
+      int slot;
+
+      for (int k = 0; k < this.nodes.length; k++) {
+
+        node = this.nodes[k];
+
+        if (node.complex) {
+          this.im[k] = new double[BLOCK];
+        }
+
+        this.argRe[k] = new double[node.operands.length][];
+        this.argIm[k] = new double[node.operands.length][];
+
+        for (int l = 0; l < node.operands.length; l++) {
+
+          slot = slots.get(node.operands[l]);
+
+          this.argRe[k][l] = this.re[slot];
+          this.argIm[k][l] = node.operands[l].complex ? this.im[slot] : ZERO;
+        }
+      }
+    }
+
+    /**
+     * Sort the nodes such that every node is preceded by its operands
+     */
+    private static void sort(final Node node, final List<Node> order,
+        final IdentityHashMap<Node, Integer> slots) {
+
+      if (slots.containsKey(node)) {
+        return;
+      }
+
+      for (final Node operand : node.operands) {
+        Evaluator.sort(operand, order, slots);
+      }
+
+      slots.put(node, order.size());
+      order.add(node);
+    }
+
+    /**
+     * Evaluate a block of points
+     *
+     * @param from   index of the first point
+     * @param length number of points, not more than {@link LazyWaveform#BLOCK}
+     */
+    void evaluate(final int from, final int length) {
+      for (int k = 0; k < this.nodes.length; k++) {
+        this.nodes[k].evaluate(from, length, this.argRe[k], this.argIm[k],
+            this.re[k], this.im[k]);
+      }
+    }
+
+    /**
+     * Get the real part of the result of the last evaluated block
+     *
+     * @return values
+     */
+    double[] re() {
+      return this.re[this.nodes.length - 1];
+    }
+
+    /**
+     * Get the imaginary part of the result of the last evaluated block
+     *
+     * @return values
+     */
+    double[] im() {
+      return this.im[this.nodes.length - 1];
+    }
+  }
+}
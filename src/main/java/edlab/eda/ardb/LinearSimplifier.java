@@ -0,0 +1,85 @@
+package edlab.eda.ardb;
+
+/**
+ * Simplification of a piecewise-linear waveform. Points are removed as long as
+ * the line between the remaining neighbors deviates from every removed point
+ * by at most a tolerance.
+ * <p>
+ * The waveform is processed in a single pass. For the last kept point, the
+ * range of slopes that keep all skipped points within the tolerance is
+ * narrowed with every point. A point is kept when the line to the next point
+ * leaves this range, i.e. the runtime is linear in the number of points.
+ */
+final class LinearSimplifier {
+
+  private LinearSimplifier() {
+  }
+
+  /**
+   * Identify the points that are kept
+   *
+   * @param x      sorted x-values
+   * @param y      y-values
+   * @param absTol absolute tolerance of the y-values
+   * @return indices of the kept points in ascending order. The first and the
+   *         last point, points with identical x-values and NaN values are
+   *         always kept.
+   */
+  static int[] simplify(final Column x, final Column y, final double absTol) {
+
+    final int n = x.size();
+
+    final GrowableIntArray kept = new GrowableIntArray();
+
+    if (n == 0) {
+      return kept.toArray();
+    }
+
+    kept.add(0);
+
+    // last kept point and the range of admissible slopes
+    int a = 0;
+    double lo = Double.NEGATIVE_INFINITY;
+    double hi = Double.POSITIVE_INFINITY;
+
+    double dx;
+    double slope;
+
+    for (int k = 1; k < n; k++) {
+
+      dx = x.get(k) - x.get(a);
+      slope = (y.get(k) - y.get(a)) / dx;
+
+      if (!((dx > 0) && (slope >= lo) && (slope <= hi))) {
+
+        // the previous point is the last one reachable from a
+        if ((k - 1) > a) {
+          a = k - 1;
+          kept.add(a);
+        }
+
+        lo = Double.NEGATIVE_INFINITY;
+        hi = Double.POSITIVE_INFINITY;
+
+        dx = x.get(k) - x.get(a);
+        slope = (y.get(k) - y.get(a)) / dx;
+
+        // a step or a NaN, the point itself is kept
+        if (!((dx > 0) && !Double.isNaN(slope))) {
+          a = k;
+          kept.add(a);
+          continue;
+        }
+      }
+
+      lo = Math.max(lo, ((y.get(k) - absTol) - y.get(a)) / dx);
+      hi = Math.min(hi, ((y.get(k) + absTol) - y.get(a)) / dx);
+    }
+
+    if (a != (n - 1)) {
+      kept.add(n - 1);
+    }
+
+    return kept.toArray();
+  }
+}
@@ -0,0 +1,134 @@
+package edlab.eda.ardb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * {@link Column} whose values are stored in a memory-mapped file. The file is
+ * mapped in chunks, because a single mapping is limited to 2 GB. The values
+ * are read from the mapping on demand, i.e. the operating system loads and
+ * evicts the pages of the file.
+ */
+final class MappedColumn extends Column {
+
+  /**
+   * Binary logarithm of the number of values in one mapped chunk
+   */
+  static final int CHUNK_SHIFT = 27;
+
+  private final DoubleBuffer[] chunks;
+  private final int shift;
+  private final long mask;
+  private final long offset;
+  private final int size;
+
+  /**
+   * Create a column that references a range of mapped chunks
+   *
+   * @param chunks mapped chunks
+   * @param shift  binary logarithm of the number of values in one chunk
+   * @param offset index of the first value in the mapping
+   * @param size   number of values
+   */
+  MappedColumn(final DoubleBuffer[] chunks, final int shift,
+      final long offset, final int size) {
+    this.chunks = chunks;
+    this.shift = shift;
+    this.mask = (1L << shift) - 1;
+    this.offset = offset;
+    this.size = size;
+  }
+
+  /**
+   * Map a region of a file that contains little-endian doubles
+   *
+   * @param channel  file channel
+   * @param position position of the region in bytes, must be a multiple of 8
+   * @param length   length of the region in bytes
+   * @param shift    binary logarithm of the number of values in one chunk
+   * @return mapped chunks
+   * @throws IOException when the file cannot be mapped
+   */
+  static DoubleBuffer[] map(final FileChannel channel, final long position,
+      final long length, final int shift) throws IOException {
+
+    final long chunkBytes = (1L << shift) * Double.BYTES;
+    final int noOfChunks = (int) ((length + chunkBytes - 1) / chunkBytes);
+
+    final DoubleBuffer[] chunks = new DoubleBuffer[noOfChunks];
+
+    long start;
+
+    for (int i = 0; i < noOfChunks; i++) {
+
+      start = i * chunkBytes;
+
+      chunks[i] = channel
+          .map(FileChannel.MapMode.READ_ONLY, position + start,
+              Math.min(chunkBytes, length - start))
+          .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    return chunks;
+  }
+
+  @Override
+  int size() {
+    return this.size;
+  }
+
+  @Override
+  double get(final int i) {
+
+    final long index = this.offset + i;
+
+    return this.chunks[(int) (index >>> this.shift)]
+        .get((int) (index & this.mask));
+  }
+
+  @Override
+  Column slice(final int from, final int to) {
+    return new MappedColumn(this.chunks, this.shift, this.offset + from,
+        to - from);
+  }
+
+  @Override
+  void copy(final int from, final double[] dst, int dstPos, int length) {
+
+    long index = this.offset + from;
+
+    DoubleBuffer chunk;
+    int position;
+    int count;
+
+    while (length > 0) {
+
+      chunk = this.chunks[(int) (index >>> this.shift)].duplicate();
+      position = (int) (index & this.mask);
+      count = Math.min(length, chunk.limit() - position);
+
+      chunk.position(position);
+      chunk.get(dst, dstPos, count);
+
+      index += count;
+      dstPos += count;
+      length -= count;
+    }
+  }
+
+  /**
+   * The values are not cached, such that they are not kept on the heap for
+   * the lifetime of the column
+   */
+  @Override
+  double[] toArray() {
+
+    final double[] retval = new double[this.size];
+
+    this.copy(0, retval, 0, retval.length);
+
+    return retval;
+  }
+}
@@ -0,0 +1,395 @@
+package edlab.eda.ardb;
+
+/**
+ * Evaluation of several measurements of a {@link RealWaveform} in a single
+ * sweep over the points. The measurements are registered first, every
+ * registration returns the index of the result. The scanner is then applied
+ * to waveforms with {@link #scan(RealWaveform)}, which returns the results of
+ * all measurements as an array.
+ * <p>
+ * The results are identical to the corresponding methods of
+ * {@link RealWaveform}, except for the rounding of the integrals. In contrast
+ * to these methods, the waveform is read only once and no index is built,
+ * which is faster when a waveform is evaluated only once.
+ * <p>
+ * A scanner can be used for any number of waveforms. The registration is not
+ * thread-safe, a scanner that is no longer modified can be used by several
+ * threads.
+ */
+public final class MeasurementScanner {
+
+  private static final int CROSS = 0;
+  private static final int YMIN = 1;
+  private static final int YMAX = 2;
+  private static final int INTEGRAL = 3;
+  private static final int VALUE = 4;
+  private static final int SETTLING = 5;
+
+  private final GrowableIntArray types = new GrowableIntArray();
+  private final GrowableIntArray edges = new GrowableIntArray();
+  private final GrowableDoubleArray lefts = new GrowableDoubleArray();
+  private final GrowableDoubleArray rights = new GrowableDoubleArray();
+
+  /**
+   * Create a scanner without measurements
+   */
+  public MeasurementScanner() {
+  }
+
+  /**
+   * Register the nth intersection with a constant value, see
+   * {@link RealWaveform#crossAt(double, int)}
+   *
+   * @param val  y-value of the intersection
+   * @param edge Nth occurrence of the intersection
+   * @return index of the result
+   */
+  public int cross(final double val, final int edge) {
+    return this.register(CROSS, val, Double.NaN, edge);
+  }
+
+  /**
+   * Register the minimal y-value in an x-range, see
+   * {@link RealWaveform#yminAsDouble(double, double)}
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return index of the result
+   */
+  public int ymin(final double left, final double right) {
+    return this.register(YMIN, left, right, 0);
+  }
+
+  /**
+   * Register the maximal y-value in an x-range, see
+   * {@link RealWaveform#ymaxAsDouble(double, double)}
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return index of the result
+   */
+  public int ymax(final double left, final double right) {
+    return this.register(YMAX, left, right, 0);
+  }
+
+  /**
+   * Register the integral in an x-range, see
+   * {@link RealWaveform#integrate(double, double)}
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return index of the result
+   */
+  public int integrate(final double left, final double right) {
+    return this.register(INTEGRAL, left, right, 0);
+  }
+
+  /**
+   * Register the y-value at a position, see
+   * {@link RealWaveform#valueAt(double)}
+   *
+   * @param pos x-value
+   * @return index of the result
+   */
+  public int value(final double pos) {
+    return this.register(VALUE, pos, Double.NaN, 0);
+  }
+
+  /**
+   * Register the settling time. The band of the final value
+   * <code>y_end</code> spans from <code>y_end*(1-percentage/2)</code> to
+   * <code>y_end*(1+percentage/2)</code>. The settling time is the distance
+   * from the first x-value to the last entry of the waveform into the band,
+   * see {@link RealWaveform#getSettlingTime(double)}.
+   *
+   * @param percentage relative width of the band
+   * @return index of the result
+   */
+  public int settlingTime(final double percentage) {
+    return this.register(SETTLING, percentage, Double.NaN, 0);
+  }
+
+  /**
+   * Get the number of registered measurements
+   *
+   * @return number of measurements
+   */
+  public int size() {
+    return this.types.size();
+  }
+
+  /**
+   * Evaluate all measurements
+   *
+   * @param wave waveform
+   * @return results, indexed by the values returned from the registration.
+   *         <code>NaN</code> is returned for a measurement that cannot be
+   *         evaluated.
+   */
+  public double[] scan(final RealWaveform wave) {
+
+    final double[] retval = new double[this.size()];
+
+    this.scan(wave, retval);
+
+    return retval;
+  }
+
+  /**
+   * Evaluate all measurements
+   *
+   * @param wave waveform
+   * @param dst  array where the results are stored, at least as long as the
+   *             number of measurements
+   * @return <code>true</code> when the measurements are evaluated,
+   *         <code>false</code> otherwise
+   */
+  public boolean scan(final RealWaveform wave, final double[] dst) {
+
+    final int m = this.size();
+
+    if (dst.length < m) {
+      System.err.println("Cannot store " + m
+          + " results in an array of length " + dst.length);
+      return false;
+    }
+
+    final Column x = wave.x;
+    final Column y = wave.getYColumn();
+    final int n = x.size();
+
+    if (n == 0) {
+      for (int k = 0; k < m; k++) {
+        dst[k] = Double.NaN;
+      }
+      return true;
+    }
+
+    // points [from,to) that are scanned for every measurement
+    final int[] from = new int[m];
+    final int[] to = new int[m];
+    final int[] counters = new int[m];
+
+    // interpolated values at the borders of the ranges
+    final double[] leftValues = new double[m];
+    final double[] rightValues = new double[m];
+
+    final double yEnd = y.get(n - 1);
+
+    double left;
+    double right;
+
+    for (int k = 0; k < m; k++) {
+
+      left = this.lefts.get(k);
+      right = this.rights.get(k);
+
+      dst[k] = Double.NaN;
+
+      switch (this.types.get(k)) {
+
+      case CROSS:
+        from[k] = 1;
+        to[k] = this.edges.get(k) >= 1 ? n : 0;
+        counters[k] = this.edges.get(k);
+        break;
+
+      case YMIN:
+      case YMAX:
+      case INTEGRAL:
+
+        if (!(left <= right)) {
+          break;
+        }
+
+        from[k] = wave.lowerBound(left);
+        to[k] = wave.upperBound(right);
+        leftValues[k] = wave.valueAt(left);
+        rightValues[k] = wave.valueAt(right);
+
+        if (this.types.get(k) == INTEGRAL) {
+          dst[k] = MeasurementScanner.borders(x, y, left, right, from[k],
+              to[k], leftValues[k], rightValues[k]);
+          from[k]++;
+        } else if (!Double.isNaN(leftValues[k])
+            || !Double.isNaN(rightValues[k]) || (from[k] < to[k])) {
+          dst[k] = MeasurementScanner.extremum(this.types.get(k),
+              leftValues[k], rightValues[k]);
+        }
+        break;
+
+      case VALUE:
+        dst[k] = wave.valueAt(left);
+        break;
+
+      case SETTLING:
+        from[k] = 0;
+        to[k] = n;
+        counters[k] = -1;
+        leftValues[k] = Math.min(yEnd * (1 - (left / 2)),
+            yEnd * (1 + (left / 2)));
+        rightValues[k] = Math.max(yEnd * (1 - (left / 2)),
+            yEnd * (1 + (left / 2)));
+        break;
+
+      default:
+        break;
+      }
+    }
+
+    double x0 = 0;
+    double y0 = 0;
+    double x1;
+    double y1;
+
+    for (int i = 0; i < n; i++) {
+
+      x1 = x.get(i);
+      y1 = y.get(i);
+
+      for (int k = 0; k < m; k++) {
+
+        if ((i < from[k]) || (i >= to[k])) {
+          continue;
+        }
+
+        switch (this.types.get(k)) {
+
+        case CROSS:
+
+          left = this.lefts.get(k);
+
+          if ((((y0 - left) * (y1 - left)) <= 0) && (--counters[k] == 0)) {
+            dst[k] = x0 + (((left - y0) / (y1 - y0)) * (x1 - x0));
+            to[k] = 0;
+          }
+          break;
+
+        case YMIN:
+          dst[k] = Math.min(dst[k], y1);
+          break;
+
+        case YMAX:
+          dst[k] = Math.max(dst[k], y1);
+          break;
+
+        case INTEGRAL:
+          dst[k] += ((x1 - x0) * (y1 + y0)) / 2.0;
+          break;
+
+        case SETTLING:
+
+          if ((y1 < leftValues[k]) || (y1 > rightValues[k])) {
+            counters[k] = i;
+          }
+          break;
+
+        default:
+          break;
+        }
+      }
+
+      x0 = x1;
+      y0 = y1;
+    }
+
+    int i;
+    double band;
+
+    for (int k = 0; k < m; k++) {
+
+      if ((this.types.get(k) != SETTLING) || Double.isNaN(yEnd)) {
+        continue;
+      }
+
+      i = counters[k];
+
+      if (i < 0) {
+        dst[k] = 0.0;
+      } else if (i < (n - 1)) {
+
+        band = y.get(i) > rightValues[k] ? rightValues[k] : leftValues[k];
+
+        dst[k] = (x.get(i) + (((band - y.get(i)) / (y.get(i + 1) - y.get(i)))
+            * (x.get(i + 1) - x.get(i)))) - x.get(0);
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Register a measurement
+   *
+   * @param type  type of the measurement
+   * @param left  first parameter
+   * @param right second parameter
+   * @param edge  integer parameter
+   * @return index of the result
+   */
+  private int register(final int type, final double left, final double right,
+      final int edge) {
+
+    this.types.add(type);
+    this.lefts.add(left);
+    this.rights.add(right);
+    this.edges.add(edge);
+
+    return this.types.size() - 1;
+  }
+
+  /**
+   * Get the initial value of an extremum, which contains the interpolated
+   * values at the borders of the range
+   *
+   * @param type       {@link #YMIN} or {@link #YMAX}
+   * @param leftValue  value at the left border
+   * @param rightValue value at the right border
+   * @return initial value
+   */
+  private static double extremum(final int type, final double leftValue,
+      final double rightValue) {
+
+    double retval = type == YMIN ? Double.POSITIVE_INFINITY
+        : Double.NEGATIVE_INFINITY;
+
+    if (!Double.isNaN(leftValue)) {
+      retval = type == YMIN ? Math.min(retval, leftValue)
+          : Math.max(retval, leftValue);
+    }
+
+    if (!Double.isNaN(rightValue)) {
+      retval = type == YMIN ? Math.min(retval, rightValue)
+          : Math.max(retval, rightValue);
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the integral over the borders of a range, i.e. the trapezoids between
+   * the borders and the first resp. last point in the range
+   *
+   * @param x          x-values
+   * @param y          y-values
+   * @param left       left border of the range
+   * @param right      right border of the range
+   * @param first      first point in the range
+   * @param end        last point in the range plus one
+   * @param leftValue  value at the left border
+   * @param rightValue value at the right border
+   * @return integral
+   */
+  private static double borders(final Column x, final Column y,
+      final double left, final double right, final int first, final int end,
+      final double leftValue, final double rightValue) {
+
+    // no point in the range, a single trapezoid between the borders
+    if (first >= end) {
+      return ((right - left) * (leftValue + rightValue)) / 2.0;
+    }
+
+    return (((x.get(first) - left) * (leftValue + y.get(first))) / 2.0)
+        + (((right - x.get(end - 1)) * (y.get(end - 1) + rightValue)) / 2.0);
+  }
+}
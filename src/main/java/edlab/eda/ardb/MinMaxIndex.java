@@ -0,0 +1,333 @@
+package edlab.eda.ardb;
+
+/**
+ * Pyramid of the minima and maxima of the y-values of a waveform. The lowest
+ * level contains the extrema of blocks of {@link #LEAF} points, every level
+ * above contains the extrema of two nodes of the level below. The index is
+ * built in O(n) and answers range extrema in O(log n).
+ * <p>
+ * The index is also used to find the intersections with a level. A node is
+ * skipped when the level is outside of the range of its values, i.e. only the
+ * blocks that contain an intersection are scanned. A NaN propagates to all
+ * nodes above it, such that a block with a NaN is never skipped.
+ */
+final class MinMaxIndex {
+
+  /**
+   * Binary logarithm of the number of points in a block
+   */
+  static final int LEAF_SHIFT = 6;
+
+  /**
+   * Number of points in a block
+   */
+  static final int LEAF = 1 << LEAF_SHIFT;
+
+  private final Column y;
+
+  private final double[][] min;
+  private final double[][] max;
+
+  /**
+   * Build the index of a column
+   *
+   * @param y y-values
+   */
+  MinMaxIndex(final Column y) {
+
+    this.y = y;
+
+    final int n = y.size();
+
+    int levels = 1;
+
+    for (int m = (n + LEAF - 1) >>> LEAF_SHIFT; m > 1; m = (m + 1) >>> 1) {
+      levels++;
+    }
+
+    this.min = new double[levels][];
+    this.max = new double[levels][];
+
+    final double[] leafMin = new double[(n + LEAF - 1) >>> LEAF_SHIFT];
+    final double[] leafMax = new double[leafMin.length];
+
+    // the blocks of the execution policy are aligned to the leaves
+    ExecutionPolicy.forEach(n, (from, to) -> {
+      for (int i = from; i < to; i += LEAF) {
+        leafMin[i >>> LEAF_SHIFT] = Kernels.min(y, i, Math.min(to, i + LEAF));
+        leafMax[i >>> LEAF_SHIFT] = Kernels.max(y, i, Math.min(to, i + LEAF));
+      }
+    });
+
+    this.min[0] = leafMin;
+    this.max[0] = leafMax;
+
+    double[] lowerMin;
+    double[] lowerMax;
+
+    for (int k = 1; k < levels; k++) {
+
+      lowerMin = this.min[k - 1];
+      lowerMax = this.max[k - 1];
+
+      this.min[k] = new double[(lowerMin.length + 1) >>> 1];
+      this.max[k] = new double[this.min[k].length];
+
+      for (int j = 0; j < this.min[k].length; j++) {
+
+        if (((2 * j) + 1) < lowerMin.length) {
+          this.min[k][j] = Math.min(lowerMin[2 * j], lowerMin[(2 * j) + 1]);
+          this.max[k][j] = Math.max(lowerMax[2 * j], lowerMax[(2 * j) + 1]);
+        } else {
+          this.min[k][j] = lowerMin[2 * j];
+          this.max[k][j] = lowerMax[2 * j];
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the minimum of the range <code>[from,to)</code>
+   *
+   * @param from first index (inclusive)
+   * @param to   last index (exclusive)
+   * @return minimum, <code>+Infinity</code> when the range is empty
+   */
+  double min(final int from, final int to) {
+
+    int a = (from + LEAF - 1) >>> LEAF_SHIFT;
+    int b = to >>> LEAF_SHIFT;
+
+    if (a >= b) {
+      return Kernels.min(this.y, from, Math.max(from, to));
+    }
+
+    double retval = Math.min(Kernels.min(this.y, from, a << LEAF_SHIFT),
+        Kernels.min(this.y, b << LEAF_SHIFT, to));
+
+    for (int k = 0; a < b; k++) {
+
+      if ((a & 1) == 1) {
+        retval = Math.min(retval, this.min[k][a++]);
+      }
+
+      if ((b & 1) == 1) {
+        retval = Math.min(retval, this.min[k][--b]);
+      }
+
+      a >>>= 1;
+      b >>>= 1;
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the maximum of the range <code>[from,to)</code>
+   *
+   * @param from first index (inclusive)
+   * @param to   last index (exclusive)
+   * @return maximum, <code>-Infinity</code> when the range is empty
+   */
+  double max(final int from, final int to) {
+
+    int a = (from + LEAF - 1) >>> LEAF_SHIFT;
+    int b = to >>> LEAF_SHIFT;
+
+    if (a >= b) {
+      return Kernels.max(this.y, from, Math.max(from, to));
+    }
+
+    double retval = Math.max(Kernels.max(this.y, from, a << LEAF_SHIFT),
+        Kernels.max(this.y, b << LEAF_SHIFT, to));
+
+    for (int k = 0; a < b; k++) {
+
+      if ((a & 1) == 1) {
+        retval = Math.max(retval, this.max[k][a++]);
+      }
+
+      if ((b & 1) == 1) {
+        retval = Math.max(retval, this.max[k][--b]);
+      }
+
+      a >>>= 1;
+      b >>>= 1;
+    }
+
+    return retval;
+  }
+
+  /**
+   * Find the <code>edge</code>-th intersection with a level. The segment
+   * between the points <code>i</code> and <code>i+1</code> intersects the
+   * level when <code>(y[i]-val)*(y[i+1]-val) &lt;= 0</code>.
+   *
+   * @param val  level
+   * @param edge number of the intersection, starting at 1
+   * @return index of the first point of the segment, <code>-1</code> when
+   *         there is no such intersection
+   */
+  int cross(final double val, final int edge) {
+
+    if (edge < 1) {
+      return -1;
+    }
+
+    final int[] counter = { edge };
+
+    final int top = this.min.length - 1;
+
+    return this.cross(val, counter, top, 0);
+  }
+
+  /**
+   * Find all intersections with a level, see {@link #cross(double, int)}
+   *
+   * @param val level
+   * @param dst buffer where the indices of the first points of the segments
+   *            are appended in ascending order
+   */
+  void crossAll(final double val, final GrowableIntArray dst) {
+    this.crossAll(val, dst, this.min.length - 1, 0);
+  }
+
+  /**
+   * Search the intersections in a node
+   *
+   * @param val     level
+   * @param counter number of intersections that are still to be found
+   * @param level   level of the node
+   * @param node    index of the node
+   * @return index of the first point of the segment, <code>-1</code> when the
+   *         intersection is not in the node
+   */
+  private int cross(final double val, final int[] counter, final int level,
+      final int node) {
+
+    if (this.excludes(val, level, node)) {
+      return -1;
+    }
+
+    if (level == 0) {
+
+      final int from = node << LEAF_SHIFT;
+      final int to = this.end(level, node);
+
+      for (int i = from; i < to; i++) {
+        if (((this.y.get(i) - val) * (this.y.get(i + 1) - val)) <= 0) {
+          if (--counter[0] == 0) {
+            return i;
+          }
+        }
+      }
+
+      return -1;
+    }
+
+    final int retval = this.cross(val, counter, level - 1, 2 * node);
+
+    if ((retval >= 0) || (((2 * node) + 1) >= this.min[level - 1].length)) {
+      return retval;
+    }
+
+    return this.cross(val, counter, level - 1, (2 * node) + 1);
+  }
+
+  /**
+   * Collect all intersections in a node
+   *
+   * @param val   level
+   * @param dst   buffer where the indices are appended
+   * @param level level of the node
+   * @param node  index of the node
+   */
+  private void crossAll(final double val, final GrowableIntArray dst,
+      final int level, final int node) {
+
+    if (this.excludes(val, level, node)) {
+      return;
+    }
+
+    if (level == 0) {
+
+      final int from = node << LEAF_SHIFT;
+      final int to = this.end(level, node);
+
+      for (int i = from; i < to; i++) {
+        if (((this.y.get(i) - val) * (this.y.get(i + 1) - val)) <= 0) {
+          dst.add(i);
+        }
+      }
+
+      return;
+    }
+
+    this.crossAll(val, dst, level - 1, 2 * node);
+
+    if (((2 * node) + 1) < this.min[level - 1].length) {
+      this.crossAll(val, dst, level - 1, (2 * node) + 1);
+    }
+  }
+
+  /**
+   * Get the end of the segments of a node. The last segment of the node ends
+   * at the first point of the next node.
+   *
+   * @param level level of the node
+   * @param node  index of the node
+   * @return index of the first point of the last segment plus one, which is
+   *         the index of the last point of the last segment
+   */
+  private int end(final int level, final int node) {
+    return (int) Math.min(this.y.size() - 1,
+        ((long) (node + 1) << level) << LEAF_SHIFT);
+  }
+
+  /**
+   * Check if no segment of a node can intersect a level
+   *
+   * @param val   level
+   * @param level level of the node
+   * @param node  index of the node
+   * @return <code>true</code> when there is no intersection,
+   *         <code>false</code> when there might be an intersection
+   */
+  private boolean excludes(final double val, final int level,
+      final int node) {
+
+    final int n = this.y.size();
+
+    if (((node << level) << LEAF_SHIFT) >= (n - 1)) {
+      return true;
+    }
+
+    // the values of the node and the first point of the next node
+    final double end = this.y.get(this.end(level, node));
+
+    return MinMaxIndex.excludes(Math.min(this.min[level][node], end),
+        Math.max(this.max[level][node], end), val);
+  }
+
+  /**
+   * Check if no segment with values in <code>[min,max]</code> can intersect
+   * a level. The check is conservative with respect to the rounding of
+   * <code>(y[i]-val)*(y[i+1]-val)</code>, a product that underflows to zero
+   * is an intersection.
+   *
+   * @param min minimum of the values
+   * @param max maximum of the values
+   * @param val level
+   * @return <code>true</code> when there is no intersection,
+   *         <code>false</code> when there might be an intersection
+   */
+  private static boolean excludes(final double min, final double max,
+      final double val) {
+
+    final double below = min - val;
+    final double above = max - val;
+
+    return ((below > 0) && ((below * below) > 0))
+        || ((above < 0) && ((above * above) > 0));
+  }
+}
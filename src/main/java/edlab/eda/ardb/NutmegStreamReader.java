@@ -0,0 +1,510 @@
+package edlab.eda.ardb;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.math3.complex.Complex;
+import org.apache.commons.text.translate.CharSequenceTranslator;
+
+/**
+ * Reader that builds {@link ResultsDatabase}s from a nutmeg file (nutbin or
+ * nutascii) in a single pass. The points of a plot are scattered directly
+ * into one buffer of primitive doubles per variable, the buffers are handed
+ * over to the waves without copying. In contrast to
+ * {@link ResultsDatabase#buildResultDatabase(edlab.eda.reader.nutmeg.NutmegPlot)}
+ * no intermediate plot is created, i.e. the memory consumption is roughly
+ * the size of the databases.
+ * <p>
+ * The databases are built like from a plot: A plot with a single point is
+ * stored as values, the first variable of a plot with several points is the
+ * x-axis of all waves of the plot.
+ */
+public final class NutmegStreamReader {
+
+  private static final int BUFFER = 1 << 16;
+
+  private static final String PLOTNAME = "Plotname:";
+  private static final String TITLE = "Title:";
+
+  private NutmegStreamReader() {
+  }
+
+  /**
+   * Read all plots of a nutmeg file
+   *
+   * @param path path to the file
+   * @return list of {@link RealResultsDatabase}s and
+   *         {@link ComplexResultsDatabase}s in the order of the plots,
+   *         <code>null</code> when the file cannot be read
+   */
+  public static List<ResultsDatabase> read(final String path) {
+    return NutmegStreamReader.read(path, new DefaultTranslator());
+  }
+
+  /**
+   * Read all plots of a nutmeg file
+   *
+   * @param path       path to the file
+   * @param translator Translator for wave names
+   * @return list of {@link RealResultsDatabase}s and
+   *         {@link ComplexResultsDatabase}s in the order of the plots,
+   *         <code>null</code> when the file cannot be read
+   */
+  public static List<ResultsDatabase> read(final String path,
+      final CharSequenceTranslator translator) {
+
+    try (InputStream in = new BufferedInputStream(new FileInputStream(path),
+        BUFFER)) {
+      return NutmegStreamReader.read(in, translator);
+    } catch (final IOException e) {
+      System.err.println("Unable to read \"" + path + "\": " + e.getMessage());
+      return null;
+    } catch (final RuntimeException e) {
+      // a malformed file, e.g. a number that cannot be parsed
+      System.err.println("Unable to parse \"" + path + "\": " + e);
+      return null;
+    }
+  }
+
+  /**
+   * Read all plots from a stream
+   *
+   * @param in         stream that supports {@link InputStream#mark(int)}
+   * @param translator Translator for wave names
+   * @return list of databases
+   * @throws IOException when the stream cannot be read
+   */
+  static List<ResultsDatabase> read(final InputStream in,
+      final CharSequenceTranslator translator) throws IOException {
+
+    final List<ResultsDatabase> retval = new ArrayList<>();
+
+    Plot plot;
+
+    while ((plot = Plot.read(in)) != null) {
+
+      if (plot.binary) {
+        plot.readBinary(new DataInputStream(in));
+      } else {
+        plot.readAscii(in);
+      }
+
+      retval.add(plot.build(translator));
+    }
+
+    return retval;
+  }
+
+  /**
+   * Read a line of ASCII characters
+   *
+   * @param in stream
+   * @return line without the line break, <code>null</code> at the end of the
+   *         stream
+   * @throws IOException when the stream cannot be read
+   */
+  private static String line(final InputStream in) throws IOException {
+
+    final StringBuilder retval = new StringBuilder();
+
+    int c = in.read();
+
+    if (c < 0) {
+      return null;
+    }
+
+    while ((c >= 0) && (c != '\n')) {
+      if (c != '\r') {
+        retval.append((char) c);
+      }
+      c = in.read();
+    }
+
+    return retval.toString();
+  }
+
+  /**
+   * Read a token that is delimited by whitespace
+   *
+   * @param in stream
+   * @return token, <code>null</code> at the end of the stream
+   * @throws IOException when the stream cannot be read
+   */
+  private static String token(final InputStream in) throws IOException {
+
+    int c = in.read();
+
+    while ((c >= 0) && Character.isWhitespace(c)) {
+      c = in.read();
+    }
+
+    if (c < 0) {
+      return null;
+    }
+
+    final StringBuilder retval = new StringBuilder();
+
+    while ((c >= 0) && !Character.isWhitespace(c)) {
+      retval.append((char) c);
+      c = in.read();
+    }
+
+    return retval.toString();
+  }
+
+  /**
+   * Check if the stream starts with the header of the next plot
+   *
+   * @param in stream
+   * @return <code>true</code> when the stream ends or starts with a header,
+   *         <code>false</code> otherwise
+   * @throws IOException when the stream cannot be read
+   */
+  private static boolean isEndOfPlot(final InputStream in) throws IOException {
+
+    final byte[] bytes = new byte[PLOTNAME.length()];
+
+    in.mark(bytes.length);
+
+    int length = 0;
+    int count;
+
+    while ((length < bytes.length)
+        && ((count = in.read(bytes, length, bytes.length - length)) > 0)) {
+      length += count;
+    }
+
+    in.reset();
+
+    if (length == 0) {
+      return true;
+    }
+
+    final String start = new String(bytes, 0, length,
+        StandardCharsets.US_ASCII);
+
+    return start.startsWith(PLOTNAME) || start.startsWith(TITLE);
+  }
+
+  /**
+   * Check if the stream starts with the header of the next plot, leading
+   * whitespace is skipped
+   *
+   * @param in stream
+   * @return <code>true</code> when the stream ends or starts with a header,
+   *         <code>false</code> otherwise
+   * @throws IOException when the stream cannot be read
+   */
+  private static boolean isEndOfAsciiPlot(final InputStream in)
+      throws IOException {
+
+    int c;
+
+    do {
+      in.mark(1);
+      c = in.read();
+    } while ((c >= 0) && Character.isWhitespace(c));
+
+    if (c < 0) {
+      return true;
+    }
+
+    in.reset();
+
+    return NutmegStreamReader.isEndOfPlot(in);
+  }
+
+  /**
+   * Header and data of a plot
+   */
+  private static final class Plot {
+
+    private boolean complex = false;
+    private boolean binary = true;
+    private int noOfPoints = 0;
+
+    private final List<String> names = new ArrayList<>();
+    private final List<String> units = new ArrayList<>();
+
+    private GrowableDoubleArray[] re;
+    private GrowableDoubleArray[] im;
+
+    /**
+     * Read the header of a plot, up to and including the line that
+     * introduces the data
+     *
+     * @param in stream
+     * @return plot, <code>null</code> at the end of the stream
+     * @throws IOException when the stream cannot be read
+     */
+    private static Plot read(final InputStream in) throws IOException {
+
+      final Plot retval = new Plot();
+
+      int noOfVariables = 0;
+      boolean variables = false;
+      boolean header = false;
+
+      String line;
+
+      while ((line = NutmegStreamReader.line(in)) != null) {
+
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+
+        header = true;
+
+        if (variables && Character.isWhitespace(line.charAt(0))
+            && (retval.names.size() < noOfVariables)) {
+          retval.variable(line);
+        } else if (line.startsWith("Flags:")) {
+          retval.complex = line.contains("complex");
+        } else if (line.startsWith("No. Variables:")) {
+          noOfVariables = Integer.parseInt(Plot.field(line));
+        } else if (line.startsWith("No. Points:")) {
+          retval.noOfPoints = Integer.parseInt(Plot.field(line));
+        } else if (line.startsWith("Variables:")) {
+          variables = true;
+          retval.variable(Plot.field(line));
+        } else if (line.startsWith("Binary:") || line.startsWith("Values:")) {
+          retval.binary = line.startsWith("Binary:");
+          retval.allocate();
+          return retval;
+        }
+      }
+
+      if (header) {
+        throw new EOFException("Plot without data");
+      }
+
+      return null;
+    }
+
+    /**
+     * Get the content of a header line after the colon
+     */
+    private static String field(final String line) {
+      return line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    /**
+     * Parse the declaration of a variable, which consists of the index, the
+     * name and the unit separated by tabs, followed by optional attributes
+     */
+    private void variable(final String line) {
+
+      final String[] fields = line.trim().split("\t");
+
+      if ((fields.length < 2) || fields[0].isEmpty()) {
+        return;
+      }
+
+      String unit = "";
+
+      if (fields.length > 2) {
+
+        final String[] tokens = fields[2].trim().split("\\s+");
+
+        if (!tokens[0].contains("=")) {
+          unit = tokens[0];
+        }
+      }
+
+      this.names.add(fields[1].trim());
+      this.units.add(unit);
+    }
+
+    /**
+     * Create the buffers of the variables with the declared number of points
+     */
+    private void allocate() {
+
+      this.re = new GrowableDoubleArray[this.names.size()];
+      this.im = this.complex ? new GrowableDoubleArray[this.names.size()]
+          : null;
+
+      for (int i = 0; i < this.re.length; i++) {
+
+        this.re[i] = new GrowableDoubleArray(this.noOfPoints);
+
+        if (this.complex) {
+          this.im[i] = new GrowableDoubleArray(this.noOfPoints);
+        }
+      }
+    }
+
+    /**
+     * Read the points of a nutbin plot. The declared number of points is read
+     * without checks, further points are read until the next plot starts.
+     *
+     * @param in stream
+     * @throws IOException when the stream cannot be read
+     */
+    private void readBinary(final DataInputStream in) throws IOException {
+
+      int points = 0;
+
+      while ((points < this.noOfPoints)
+          || !NutmegStreamReader.isEndOfPlot(in)) {
+
+        for (int i = 0; i < this.re.length; i++) {
+
+          this.re[i].add(in.readDouble());
+
+          if (this.complex) {
+            this.im[i].add(in.readDouble());
+          }
+        }
+
+        points++;
+      }
+    }
+
+    /**
+     * Read the points of a nutascii plot. Every point starts with its index,
+     * followed by the values of all variables. A complex value is written as
+     * real and imaginary part separated by a comma.
+     *
+     * @param in stream
+     * @throws IOException when the stream cannot be read
+     */
+    private void readAscii(final InputStream in) throws IOException {
+
+      String token;
+      int comma;
+
+      while (!NutmegStreamReader.isEndOfAsciiPlot(in)) {
+
+        // index of the point
+        NutmegStreamReader.token(in);
+
+        for (int i = 0; i < this.re.length; i++) {
+
+          token = NutmegStreamReader.token(in);
+
+          if (token == null) {
+            throw new EOFException("Incomplete point");
+          }
+
+          if (this.complex) {
+            comma = token.indexOf(',');
+            this.re[i].add(Double.parseDouble(token.substring(0, comma)));
+            this.im[i].add(Double.parseDouble(token.substring(comma + 1)));
+          } else {
+            this.re[i].add(Double.parseDouble(token));
+          }
+        }
+      }
+    }
+
+    /**
+     * Build the database of the plot
+     *
+     * @param translator Translator for wave names
+     * @return database
+     */
+    private ResultsDatabase build(final CharSequenceTranslator translator) {
+
+      final int n = this.re.length > 0 ? this.re[0].size() : 0;
+
+      if (this.complex) {
+        return this.buildComplex(translator, n);
+      } else {
+        return this.buildReal(translator, n);
+      }
+    }
+
+    private RealResultsDatabase buildReal(
+        final CharSequenceTranslator translator, final int n) {
+
+      final Map<String, RealValue> values = new HashMap<>();
+      final Map<String, RealWaveform> waves = new HashMap<>();
+
+      if (n == 1) {
+
+        // the unit is not translated, like in the databases built from a
+        // real plot
+        for (int i = 0; i < this.re.length; i++) {
+          values.put(translator.translate(this.names.get(i)),
+              new RealValue(this.re[i].get(0), this.units.get(i)));
+        }
+
+      } else if (this.re.length > 0) {
+
+        final double[] x = this.re[0].toArray();
+        final double[][] ys = new double[this.re.length - 1][];
+
+        for (int i = 1; i < this.re.length; i++) {
+          ys[i - 1] = this.re[i].toArray();
+        }
+
+        // all waves of the plot share one x-axis, which is sorted only once
+        WaveformSorter.sort(x, ys);
+
+        final Column axis = AxisRegistry.intern(Column.of(x));
+
+        for (int i = 1; i < this.re.length; i++) {
+          waves.put(translator.translate(this.names.get(i)),
+              RealWaveform.buildSortedRealWaveform(axis, Column.of(ys[i - 1]),
+                  translator.translate(this.units.get(0)),
+                  translator.translate(this.units.get(i))));
+        }
+      }
+
+      return RealResultsDatabase.create(values, waves);
+    }
+
+    private ComplexResultsDatabase buildComplex(
+        final CharSequenceTranslator translator, final int n) {
+
+      final Map<String, ComplexValue> values = new HashMap<>();
+      final Map<String, ComplexWaveform> waves = new HashMap<>();
+
+      if (n == 1) {
+
+        for (int i = 0; i < this.re.length; i++) {
+          values.put(translator.translate(this.names.get(i)),
+              new ComplexValue(
+                  new Complex(this.re[i].get(0), this.im[i].get(0)),
+                  translator.translate(this.units.get(i))));
+        }
+
+      } else if (this.re.length > 0) {
+
+        final double[] x = this.re[0].toArray();
+        final double[][] ys = new double[2 * (this.re.length - 1)][];
+
+        for (int i = 1; i < this.re.length; i++) {
+          ys[2 * (i - 1)] = this.re[i].toArray();
+          ys[(2 * (i - 1)) + 1] = this.im[i].toArray();
+        }
+
+        // all waves of the plot share one x-axis, which is sorted only once
+        WaveformSorter.sort(x, ys);
+
+        final Column axis = AxisRegistry.intern(Column.of(x));
+
+        for (int i = 1; i < this.re.length; i++) {
+          waves.put(translator.translate(this.names.get(i)),
+              ComplexWaveform.buildSortedComplexWaveform(axis,
+                  Column.of(ys[2 * (i - 1)]),
+                  Column.of(ys[(2 * (i - 1)) + 1]),
+                  translator.translate(this.units.get(0)),
+                  translator.translate(this.units.get(i))));
+        }
+      }
+
+      return ComplexResultsDatabase.create(values, waves);
+    }
+  }
+}
@@ -0,0 +1,140 @@
+package edlab.eda.ardb;
+
+/**
+ * {@link Column} that extends another column by an optional value before the
+ * first and after the last value. It is used for clipped waveforms, where the
+ * interpolated values at the boundaries are added to a range of the original
+ * waveform.
+ */
+final class PaddedColumn extends Column {
+
+  private final Column base;
+
+  private final boolean hasFirst;
+  private final double first;
+  private final boolean hasLast;
+  private final double last;
+
+  private final int size;
+
+  /**
+   * Create a padded column
+   *
+   * @param base     column to be padded
+   * @param hasFirst <code>true</code> when a value is added before the first
+   *                 value of the base, <code>false</code> otherwise
+   * @param first    value added before the first value of the base
+   * @param hasLast  <code>true</code> when a value is added after the last
+   *                 value of the base, <code>false</code> otherwise
+   * @param last     value added after the last value of the base
+   */
+  private PaddedColumn(final Column base, final boolean hasFirst,
+      final double first, final boolean hasLast, final double last) {
+    this.base = base;
+    this.hasFirst = hasFirst;
+    this.first = first;
+    this.hasLast = hasLast;
+    this.last = last;
+    this.size = base.size() + (hasFirst ? 1 : 0) + (hasLast ? 1 : 0);
+  }
+
+  /**
+   * Pad a column
+   *
+   * @param base     column to be padded
+   * @param hasFirst <code>true</code> when a value is added before the first
+   *                 value of the base, <code>false</code> otherwise
+   * @param first    value added before the first value of the base
+   * @param hasLast  <code>true</code> when a value is added after the last
+   *                 value of the base, <code>false</code> otherwise
+   * @param last     value added after the last value of the base
+   * @return column
+   */
+  static Column pad(final Column base, final boolean hasFirst,
+      final double first, final boolean hasLast, final double last) {
+
+    if (!hasFirst && !hasLast) {
+      return base;
+    }
+
+    // a constant column that is padded with its value remains constant
+    if ((base instanceof ConstantColumn)
+        && (!hasFirst || (Double.compare(first,
+            ((ConstantColumn) base).getValue()) == 0))
+        && (!hasLast || (Double.compare(last,
+            ((ConstantColumn) base).getValue()) == 0))) {
+      return new ConstantColumn(((ConstantColumn) base).getValue(),
+          base.size() + (hasFirst ? 1 : 0) + (hasLast ? 1 : 0));
+    }
+
+    return new PaddedColumn(base, hasFirst, first, hasLast, last);
+  }
+
+  @Override
+  int size() {
+    return this.size;
+  }
+
+  @Override
+  double get(int i) {
+
+    if (this.hasFirst) {
+
+      if (i == 0) {
+        return this.first;
+      }
+
+      i--;
+    }
+
+    if (this.hasLast && (i == this.base.size())) {
+      return this.last;
+    }
+
+    return this.base.get(i);
+  }
+
+  @Override
+  Column slice(final int from, final int to) {
+
+    final int offset = this.hasFirst ? 1 : 0;
+    final int baseSize = this.base.size();
+
+    final boolean keepFirst = this.hasFirst && (from == 0) && (to > 0);
+    final boolean keepLast = this.hasLast && (to == this.size)
+        && (from < this.size);
+
+    final int baseFrom = Math.min(Math.max(from - offset, 0), baseSize);
+    final int baseTo = Math.max(Math.min(to - offset, baseSize), baseFrom);
+
+    return PaddedColumn.pad(this.base.slice(baseFrom, baseTo), keepFirst,
+        this.first, keepLast, this.last);
+  }
+
+  @Override
+  void copy(final int from, final double[] dst, int dstPos, final int length) {
+
+    final int offset = this.hasFirst ? 1 : 0;
+    final int baseSize = this.base.size();
+
+    int i = from;
+    final int to = from + length;
+
+    if ((i == 0) && this.hasFirst && (i < to)) {
+      dst[dstPos++] = this.first;
+      i++;
+    }
+
+    final int baseFrom = i - offset;
+    final int baseTo = Math.min(to - offset, baseSize);
+
+    if (baseTo > baseFrom) {
+      this.base.copy(baseFrom, dst, dstPos, baseTo - baseFrom);
+      dstPos += baseTo - baseFrom;
+    }
+
+    if (this.hasLast && (to == this.size) && (length > 0)) {
+      dst[dstPos] = this.last;
+    }
+  }
+}
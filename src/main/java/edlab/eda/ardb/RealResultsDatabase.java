@@ -1,7 +1,9 @@
 package edlab.eda.ardb;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,7 +35,7 @@ public final class RealResultsDatabase extends ResultsDatabase {
     final RealResultsDatabase retval = new RealResultsDatabase();
 
     retval.values = value;
-    retval.waves = waves;
+    retval.waves = RealResultsDatabase.internAxes(waves);
 
     return retval;
   }
@@ -56,6 +58,38 @@ public final class RealResultsDatabase extends ResultsDatabase {
       retval.values.put(valueNames[i], valuesKeys[i]);
     }
 
+    for (int i = 0; i < Math.min(waveNames.length, waveKeys.length); i++) {
+      retval.waves.put(waveNames[i],
+          (RealWaveform) waveKeys[i].internAxis());
+    }
+
+    return retval;
+  }
+
+  /**
+   * Replace the x-axes of waveforms by their canonical instances, such that
+   * waveforms with identical x-values share one axis
+   *
+   * @param waves map of waves
+   * @return map of waves with canonical x-axes
+   */
+  private static Map<String, RealWaveform> internAxes(
+      final Map<String, RealWaveform> waves) {
+
+    if (waves == null) {
+      return null;
+    }
+
+    final Map<String, RealWaveform> retval = new HashMap<>();
+
+    for (final Map.Entry<String, RealWaveform> entry : waves.entrySet()) {
+      if (entry.getValue() == null) {
+        retval.put(entry.getKey(), null);
+      } else {
+        retval.put(entry.getKey(), (RealWaveform) entry.getValue().internAxis());
+      }
+    }
+
     return retval;
   }
 
@@ -173,6 +207,62 @@ public final class RealResultsDatabase extends ResultsDatabase {
    */
   public static RealResultsDatabase buildResultDatabase(final NutmegRealPlot plot,
       final CharSequenceTranslator translator) {
+    return buildResultDatabase(plot, translator, false);
+  }
+
+  /**
+   * Builds a {@link RealResultsDatabase} from a {@link NutmegRealPlot}
+   *
+   * @param plot {@link NutmegRealPlot}
+   * @param lazy when <code>true</code>, a wave is created from the plot when
+   *             it is accessed for the first time
+   * @return RealResultsDatabase
+   */
+  public static RealResultsDatabase buildResultDatabase(final NutmegRealPlot plot,
+      final boolean lazy) {
+    return buildResultDatabase(plot, new DefaultTranslator(), lazy);
+  }
+
+  /**
+   * Builds a {@link RealResultsDatabase} from a {@link NutmegRealPlot}.
+   * <p>
+   * In lazy mode only the names of the waves are recorded and the x-axis is
+   * sorted. A wave is created when it is accessed for the first time, the
+   * database keeps a reference to the plot until then.
+   *
+   * @param plot       {@link NutmegRealPlot}
+   * @param translator Translator for wave names
+   * @param lazy       when <code>true</code>, a wave is created from the plot
+   *                   when it is accessed for the first time
+   * @return RealResultsDatabase
+   */
+  public static RealResultsDatabase buildResultDatabase(final NutmegRealPlot plot,
+      final CharSequenceTranslator translator, final boolean lazy) {
+    return buildResultDatabase(plot, translator, lazy, 0);
+  }
+
+  /**
+   * Builds a {@link RealResultsDatabase} from a {@link NutmegRealPlot}, see
+   * {@link #buildResultDatabase(NutmegRealPlot, CharSequenceTranslator,
+   * boolean)}. The waves are compressed with
+   * {@link RealWaveform#compress(double)} when they are created. Compressed
+   * waves do no longer share the x-axis.
+   *
+   * @param plot       {@link NutmegRealPlot}
+   * @param translator Translator for wave names
+   * @param lazy       when <code>true</code>, a wave is created from the plot
+   *                   when it is accessed for the first time
+   * @param absTol     absolute tolerance of the compression, the waves are
+   *                   not compressed when the tolerance is not positive
+   * @return RealResultsDatabase
+   */
+  public static RealResultsDatabase buildResultDatabase(final NutmegRealPlot plot,
+      final CharSequenceTranslator translator, final boolean lazy,
+      final double absTol) {
+
+    if (lazy && (plot.getNoOfPoints() != 1)) {
+      return buildLazyResultDatabase(plot, translator, absTol);
+    }
 
     final RealResultsDatabase retval = new RealResultsDatabase();
 
@@ -194,23 +284,174 @@ public final class RealResultsDatabase extends ResultsDatabase {
 
       final double x[] = plot.getWave(refWave);
 
-      for (final String wave : plot.getWaves()) {
+      final List<String> names = new ArrayList<>();
+      final List<double[]> ys = new ArrayList<>();
 
-        RealWaveform.buildRealWaveform(x, plot.getWave(wave),
-            translator.translate(refWaveUnit),
-            translator.translate(plot.getUnit(wave)));
+      double[] y;
+
+      for (final String wave : plot.getWaves()) {
 
         if (!wave.equals(refWave)) {
-          retval.waves.put(translator.translate(wave),
-              RealWaveform.buildRealWaveform(x, plot.getWave(wave),
-                  translator.translate(refWaveUnit),
-                  translator.translate(plot.getUnit(wave))));
+
+          y = plot.getWave(wave);
+
+          if (y.length == x.length) {
+            names.add(wave);
+            ys.add(y);
+          } else {
+            System.err.println("Length of arrays do not match");
+            retval.waves.put(translator.translate(wave), new RealWaveform());
+          }
         }
       }
+
+      // all waves of the plot share one x-axis, which is sorted only once
+      WaveformSorter.sort(x, ys.toArray(new double[ys.size()][]));
+
+      final Column axis = AxisRegistry.intern(Column.of(x));
+
+      RealWaveform wave;
+
+      for (int i = 0; i < names.size(); i++) {
+
+        wave = RealWaveform.buildSortedRealWaveform(axis,
+            Column.of(ys.get(i)), translator.translate(refWaveUnit),
+            translator.translate(plot.getUnit(names.get(i))));
+
+        if (absTol > 0) {
+          wave = wave.compress(absTol);
+        }
+
+        retval.waves.put(translator.translate(names.get(i)), wave);
+      }
+    }
+    return retval;
+  }
+
+  /**
+   * Builds a {@link RealResultsDatabase} whose waves are created on demand
+   *
+   * @param plot       {@link NutmegRealPlot}
+   * @param translator Translator for wave names
+   * @param absTol     absolute tolerance of the compression
+   * @return RealResultsDatabase
+   */
+  private static RealResultsDatabase buildLazyResultDatabase(
+      final NutmegRealPlot plot, final CharSequenceTranslator translator,
+      final double absTol) {
+
+    final RealResultsDatabase retval = new RealResultsDatabase();
+
+    final String refWave = plot.getRefWave();
+    final String unitX = translator.translate(plot.getUnit(refWave));
+
+    double[] x = plot.getWave(refWave);
+
+    // the plot is not modified, the waves are reordered when they are created
+    final int[] permutation = WaveformSorter.isSorted(x) ? null
+        : WaveformSorter.permutation(x);
+
+    x = WaveformSorter.reorder(x, permutation);
+
+    final int length = x.length;
+    final Column axis = AxisRegistry.intern(Column.of(x));
+
+    final Map<String, LazyWaveMap.Source> sources = new HashMap<>();
+
+    // a compressed wave has its own x-axis, which is known when it is created
+    for (final String wave : plot.getWaves()) {
+      if (!wave.equals(refWave)) {
+        sources.put(translator.translate(wave),
+            new LazyWaveMap.Source(wave, absTol > 0 ? null : axis, unitX,
+                translator.translate(plot.getUnit(wave))));
+      }
+    }
+
+    retval.waves = new LazyWaveMap<>(sources, wave -> {
+
+      final double[] y = plot.getWave(wave);
+
+      if (y.length != length) {
+        System.err.println("Length of arrays do not match");
+        return new RealWaveform();
+      }
+
+      final RealWaveform created = RealWaveform.buildSortedRealWaveform(
+          axis, Column.of(WaveformSorter.reorder(y, permutation)), unitX,
+          translator.translate(plot.getUnit(wave)));
+
+      return absTol > 0 ? created.compress(absTol) : created;
+    });
+
+    return retval;
+  }
+
+  /**
+   * Opens a {@link RealResultsDatabase} that was written with
+   * {@link #writeStore(String)}. The waves are memory-mapped, their values are
+   * read from the file when they are accessed.
+   *
+   * @param path path to the file
+   * @return database, <code>null</code> when the file cannot be read
+   */
+  public static RealResultsDatabase openStore(final String path) {
+
+    final WaveformStore store = WaveformStore.open(path);
+
+    if (store == null) {
+      return null;
     }
+
+    return RealResultsDatabase.openStore(store);
+  }
+
+  /**
+   * Create a {@link RealResultsDatabase} from the real values and waves of an
+   * opened file
+   *
+   * @param store opened file
+   * @return database
+   */
+  static RealResultsDatabase openStore(final WaveformStore store) {
+
+    final RealResultsDatabase retval = new RealResultsDatabase();
+
+    retval.values = store.getRealValues();
+    retval.waves = store.getRealWaves();
+
     return retval;
   }
 
+  /**
+   * Writes the database to a file that can be opened with
+   * {@link #openStore(String)}
+   *
+   * @param path path to the file
+   * @return <code>true</code> when the file was written, <code>false</code>
+   *         otherwise
+   */
+  public boolean writeStore(final String path) {
+    return WaveformStore.write(path, this.values, this.waves);
+  }
+
+  /**
+   * Get the map of values
+   *
+   * @return values
+   */
+  Map<String, RealValue> getValues() {
+    return this.values;
+  }
+
+  /**
+   * Get the map of waves
+   *
+   * @return waves
+   */
+  Map<String, RealWaveform> getWaves() {
+    return this.waves;
+  }
+
   @Override
   public String toString() {
 
@@ -242,7 +483,8 @@ public final class RealResultsDatabase extends ResultsDatabase {
 
       for (final String name : this.waves.keySet()) {
 
-        retval.append("\n- ").append(name).append(" ").append(this.waves.get(name).getUnitY());
+        retval.append("\n- ").append(name).append(" ")
+            .append(LazyWaveMap.getUnitY(this.waves, name));
       }
     }
 
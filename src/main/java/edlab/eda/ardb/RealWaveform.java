@@ -2,8 +2,6 @@ package edlab.eda.ardb;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
-import java.util.ArrayList;
-import java.util.LinkedList;
 
 import org.apache.commons.math3.complex.Complex;
 
@@ -13,20 +11,34 @@ import org.apache.commons.math3.complex.Complex;
  */
 public final class RealWaveform extends Waveform {
 
-  private final double[] y;
+  private final Column y;
 
-  private RealWaveform(final double[] x, final double[] y, final String unitX,
+  private volatile Statistics statistics = null;
+  private volatile MinMaxIndex index = null;
+  private volatile IntegralIndex integrals = null;
+
+  private RealWaveform(final Column x, final Column y, final String unitX,
       final String unitY) {
     super(x, unitX, unitY);
     this.y = y;
   }
 
+  private RealWaveform(final Column x, final double[] y, final String unitX,
+      final String unitY) {
+    this(x, Column.of(y), unitX, unitY);
+  }
+
+  private RealWaveform(final double[] x, final double[] y, final String unitX,
+      final String unitY) {
+    this(Column.of(x), Column.of(y), unitX, unitY);
+  }
+
   /**
    * Creating an empty waveform
    */
   RealWaveform() {
     super();
-    this.y = new double[0];
+    this.y = Column.of(new double[0]);
   }
 
   /**
@@ -35,6 +47,15 @@ public final class RealWaveform extends Waveform {
    * @return y-values of the waveform
    */
   public double[] getY() {
+    return this.y.toArray();
+  }
+
+  /**
+   * Get the column that stores the y-values
+   *
+   * @return y-values
+   */
+  Column getYColumn() {
     return this.y;
   }
 
@@ -49,15 +70,15 @@ public final class RealWaveform extends Waveform {
 
       final StringBuilder builder = new StringBuilder();
 
-      for (int i = 0; i < this.x.length; i++) {
+      for (int i = 0; i < this.x.size(); i++) {
 
         if (i > 0) {
           builder.append("\n");
         }
 
-        builder.append("(").append(Formatter.format(this.x[i])).append(" ")
+        builder.append("(").append(Formatter.format(this.x.get(i))).append(" ")
             .append(this.getUnitX()).append(" , ")
-            .append(Formatter.format(this.y[i])).append(" ")
+            .append(Formatter.format(this.y.get(i))).append(" ")
             .append(this.getUnitY()).append(")");
       }
 
@@ -73,12 +94,12 @@ public final class RealWaveform extends Waveform {
       RealWaveform second = (RealWaveform) wave;
 
       if (!this.sameAxis(wave)) {
-        second = second.resample(this.getX());
+        second = second.resample(this.x);
       }
 
-      for (int i = 0; i < this.x.length; i++) {
+      for (int i = 0; i < this.x.size(); i++) {
 
-        if (this.y[i] >= second.getY()[i]) {
+        if (this.y.get(i) >= second.y.get(i)) {
           return false;
         }
       }
@@ -101,12 +122,12 @@ public final class RealWaveform extends Waveform {
       RealWaveform second = (RealWaveform) wave;
 
       if (!this.sameAxis(wave)) {
-        second = second.resample(this.getX());
+        second = second.resample(this.x);
       }
 
-      for (int i = 0; i < this.x.length; i++) {
+      for (int i = 0; i < this.x.size(); i++) {
 
-        if (this.y[i] <= second.getY()[i]) {
+        if (this.y.get(i) <= second.y.get(i)) {
           return false;
         }
       }
@@ -129,12 +150,12 @@ public final class RealWaveform extends Waveform {
       RealWaveform second = (RealWaveform) wave;
 
       if (!this.sameAxis(wave)) {
-        second = second.resample(this.getX());
+        second = second.resample(this.x);
       }
 
-      for (int i = 0; i < this.x.length; i++) {
+      for (int i = 0; i < this.x.size(); i++) {
 
-        if (this.y[i] > second.getY()[i]) {
+        if (this.y.get(i) > second.y.get(i)) {
           return false;
         }
       }
@@ -158,12 +179,12 @@ public final class RealWaveform extends Waveform {
       RealWaveform second = (RealWaveform) wave;
 
       if (!this.sameAxis(wave)) {
-        second = second.resample(this.getX());
+        second = second.resample(this.x);
       }
 
-      for (int i = 0; i < this.x.length; i++) {
+      for (int i = 0; i < this.x.size(); i++) {
 
-        if (this.y[i] < second.getY()[i]) {
+        if (this.y.get(i) < second.y.get(i)) {
           return false;
         }
       }
@@ -182,71 +203,42 @@ public final class RealWaveform extends Waveform {
   @Override
   public RealWaveform clip(final double left, final double right) {
 
-    if (this.isEmpty()) {
+    if (this.isEmpty() || !(left <= right)) {
       return new RealWaveform();
-    } else {
-      final LinkedList<Double> newXVals = new LinkedList<>();
-      final LinkedList<Double> newYVals = new LinkedList<>();
-
-      for (int i = 0; i < this.x.length; i++) {
-        if ((left <= this.x[i]) && (this.x[i] <= right)) {
-          newXVals.addLast(this.x[i]);
-          newYVals.addLast(this.y[i]);
-        }
-      }
-
-      final RealValue leftValue = this.getValue(left);
-
-      if (!leftValue.isNaN()) {
-
-        if (newYVals.get(0) != leftValue.getValue()) {
-          newYVals.addFirst(leftValue.getValue());
-          newXVals.addFirst(left);
-        }
-      }
-
-      final RealValue rightValue = this.getValue(right);
-
-      if (!rightValue.isNaN()) {
-
-        if (newYVals.get(newXVals.size() - 1) != rightValue.getValue()) {
-          newYVals.addLast(rightValue.getValue());
-          newXVals.addLast(right);
-        }
-      }
-
-      if (newXVals.size() > 0) {
+    }
 
-        final double[] newX = new double[newXVals.size()];
-        final double[] newY = new double[newYVals.size()];
+    final int first = this.lowerBound(left);
+    final int last = this.upperBound(right);
 
-        for (int i = 0; i < newY.length; i++) {
-          newX[i] = newXVals.get(i);
-          newY[i] = newYVals.get(i);
+    final RealValue leftValue = this.getValue(left);
+    final RealValue rightValue = this.getValue(right);
 
-        }
+    final boolean addLeft = !leftValue.isNaN()
+        && ((first == last) || (this.x.get(first) != left));
+    final boolean addRight = !rightValue.isNaN() && (left < right)
+        && ((first == last) || (this.x.get(last - 1) != right));
 
-        return RealWaveform.buildRealWaveform(newX, newY, this.getUnitX(),
-            this.getUnitY());
-
-      } else {
-        return new RealWaveform();
-      }
+    if (!addLeft && !addRight && (first == last)) {
+      return new RealWaveform();
     }
+
+    return new RealWaveform(
+        PaddedColumn.pad(this.x.slice(first, last), addLeft, left, addRight,
+            right),
+        PaddedColumn.pad(this.y.slice(first, last), addLeft,
+            leftValue.getValue(), addRight, rightValue.getValue()),
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
   public RealWaveform add(final double value) {
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final double[] newY = new double[this.y.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] + value;
-    }
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.add(this.y, value, newY, from, to));
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -295,15 +287,14 @@ public final class RealWaveform extends Waveform {
       wave = wave.resample(this);
     }
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final Column other = wave.y;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] + wave.y[i];
-    }
+    final double[] newY = new double[this.y.size()];
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.add(this.y, other, newY, from, to));
+
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -318,37 +309,118 @@ public final class RealWaveform extends Waveform {
   @Override
   public RealValue getValue(final double pos) {
 
-    double m;
+    if (this.isEmpty()) {
+      return new RealValue();
+    }
 
-    if (pos <= this.x[0]) {
-      m = (this.y[1] - this.y[0]) / (this.x[1] - this.x[0]);
+    return new RealValue(this.valueAt(pos), this.getUnitY());
+  }
 
-      return new RealValue(this.y[0] + (m * (pos - this.x[0])),
-          this.getUnitY());
+  /**
+   * Evaluate a waveform at a value. In contrast to
+   * {@link #getValue(double)}, no object is created.
+   *
+   * @param pos x-value where the waveform is evaluated
+   * @return y-value, <code>NaN</code> when the waveform is empty
+   */
+  public double valueAt(final double pos) {
 
-    } else if (pos >= this.x[this.x.length - 1]) {
+    if (this.isEmpty()) {
+      return Double.NaN;
+    }
 
-      m = (this.y[this.y.length - 1] - this.y[this.y.length - 2])
-          / (this.x[this.x.length - 1] - this.x[this.x.length - 2]);
+    return this.interpolate(pos, this.segment(pos));
+  }
 
-      return new RealValue(
-          this.y[this.y.length - 1] + (m * (pos - this.x[this.x.length - 1])),
-          this.getUnitY());
-    } else {
+  /**
+   * Evaluate a waveform at a value. The segment of the waveform is searched
+   * with a cursor, which is faster than {@link #getValue(double)} when the
+   * waveform is evaluated at a monotonic sequence of positions.
+   *
+   * @param pos    x-value where the waveform is evaluated
+   * @param cursor cursor
+   * @return y-value
+   */
+  public RealValue getValue(final double pos,
+      final InterpolationCursor cursor) {
 
-      for (int i = 0; i < (this.x.length - 1); i++) {
-        if (((this.x[i] - pos) * (this.x[i + 1] - pos)) <= 0) {
+    if (this.isEmpty()) {
+      return new RealValue();
+    }
 
-          m = (this.y[i + 1] - this.y[i]) / (this.x[i + 1] - this.x[i]);
+    return new RealValue(this.valueAt(pos, cursor), this.getUnitY());
+  }
+
+  /**
+   * Evaluate a waveform at a value with a cursor, see
+   * {@link #getValue(double, InterpolationCursor)}. No object is created.
+   *
+   * @param pos    x-value where the waveform is evaluated
+   * @param cursor cursor
+   * @return y-value, <code>NaN</code> when the waveform is empty
+   */
+  public double valueAt(final double pos, final InterpolationCursor cursor) {
 
-          return new RealValue(this.y[i] + (m * (pos - this.x[i])),
-              this.getUnitY());
+    if (this.isEmpty()) {
+      return Double.NaN;
+    }
 
-        }
-      }
+    return this.interpolate(pos, cursor.locate(this, pos));
+  }
+
+  /**
+   * Evaluate a waveform at an array of positions. The positions are visited
+   * in ascending order with an {@link InterpolationCursor}, i.e. the
+   * waveform is walked once. Unsorted positions are sorted first.
+   *
+   * @param positions x-values where the waveform is evaluated
+   * @param dst       array where the y-values are stored, at least as long as
+   *                  the positions
+   * @return <code>true</code> when the waveform is evaluated,
+   *         <code>false</code> otherwise
+   */
+  public boolean valueAt(final double[] positions, final double[] dst) {
+
+    if (dst.length < positions.length) {
+      System.err.println("Cannot store " + positions.length
+          + " values in an array of length " + dst.length);
+      return false;
+    }
+
+    final int[] permutation = WaveformSorter.isSorted(positions) ? null
+        : WaveformSorter.permutation(positions);
+
+    final InterpolationCursor cursor = new InterpolationCursor(this);
+
+    int k;
+
+    for (int i = 0; i < positions.length; i++) {
+      k = permutation == null ? i : permutation[i];
+      dst[k] = this.valueAt(positions[k], cursor);
     }
 
-    return new RealValue();
+    return true;
+  }
+
+  /**
+   * Linear interpolation of the waveform in a segment
+   *
+   * @param pos x-value
+   * @param i   index of the segment
+   * @return y-value
+   */
+  private double interpolate(final double pos, final int i) {
+
+    if (this.x.size() == 1) {
+      return this.y.get(0);
+    }
+
+    final double x0 = this.x.get(i);
+    final double y0 = this.y.get(i);
+
+    final double m = (this.y.get(i + 1) - y0) / (this.x.get(i + 1) - x0);
+
+    return y0 + (m * (pos - x0));
   }
 
   /**
@@ -368,14 +440,19 @@ public final class RealWaveform extends Waveform {
 
   @Override
   public RealWaveform resample(final double[] newX) {
+    return this.resample(newX, INTERPOLATION.LINEAR);
+  }
+
+  @Override
+  public RealWaveform resample(final double[] newX,
+      final INTERPOLATION interpolation) {
 
     final double[] yNew = new double[newX.length];
 
-    for (int i = 0; i < (newX.length - 1); i++) {
-      yNew[i] = this.getValue(newX[i]).getValue();
-    }
+    final Column xNew = Resampler.resample(this.x, new Column[] { this.y },
+        Column.of(newX), new double[][] { yNew }, interpolation);
 
-    return new RealWaveform(this.x, yNew, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(xNew, yNew, this.getUnitX(), this.getUnitY());
   }
 
   /**
@@ -389,14 +466,37 @@ public final class RealWaveform extends Waveform {
   }
 
   @Override
-  public RealWaveform abs() {
+  RealWaveform withAxis(final Column axis) {
+    return new RealWaveform(axis, this.y, this.getUnitX(), this.getUnitY());
+  }
 
-    final double[] yVec = new double[this.x.length];
+  @Override
+  RealWaveform resample(final Column newX) {
 
-    for (int i = 0; i < yVec.length; i++) {
-      yVec[i] = Math.abs(this.y[i]);
+    // a constant is identical on every axis
+    if ((this.y instanceof ConstantColumn) && (this.x.size() > 0)) {
+      return new RealWaveform(newX,
+          new ConstantColumn(((ConstantColumn) this.y).getValue(),
+              newX.size()),
+          this.getUnitX(), this.getUnitY());
     }
 
+    final double[] yNew = new double[newX.size()];
+
+    final Column xNew = Resampler.resample(this.x, new Column[] { this.y },
+        newX, new double[][] { yNew }, INTERPOLATION.LINEAR);
+
+    return new RealWaveform(xNew, yNew, this.getUnitX(), this.getUnitY());
+  }
+
+  @Override
+  public RealWaveform abs() {
+
+    final double[] yVec = new double[this.x.size()];
+
+    ExecutionPolicy.forEach(yVec.length,
+        (from, to) -> Kernels.abs(this.y, yVec, from, to));
+
     return new RealWaveform(this.x, yVec, this.getUnitX(), this.getUnitY());
   }
 
@@ -408,13 +508,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform pow(final double exponent) {
 
-    final double[] pow = new double[this.y.length];
+    final double[] pow = new double[this.y.size()];
 
     for (int i = 0; i < pow.length; i++) {
-      pow[i] = 10 * Math.pow(this.y[i], exponent);
+      pow[i] = 10 * Math.pow(this.y.get(i), exponent);
     }
 
-    return new RealWaveform(this.getX(), pow, this.getUnitX(), "");
+    return new RealWaveform(this.x, pow, this.getUnitX(), "");
   }
 
   /**
@@ -424,18 +524,18 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform ln() {
 
-    final double[] ln = new double[this.y.length];
+    final double[] ln = new double[this.y.size()];
 
     for (int i = 0; i < ln.length; i++) {
 
-      if (this.y[i] > 0) {
-        ln[i] = 10 * Math.log(this.y[i]);
+      if (this.y.get(i) > 0) {
+        ln[i] = 10 * Math.log(this.y.get(i));
       } else {
         ln[i] = Double.NaN;
       }
     }
 
-    return new RealWaveform(this.getX(), ln, this.getUnitX(), "");
+    return new RealWaveform(this.x, ln, this.getUnitX(), "");
   }
 
   /**
@@ -445,32 +545,35 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform derive() {
 
-    final double y[] = new double[this.x.length];
+    final double y[] = new double[this.x.size()];
 
-    y[0] = (this.y[1] - this.y[0]) / (this.x[1] - this.x[0]);
+    y[0] = (this.y.get(1) - this.y.get(0)) / (this.x.get(1) - this.x.get(0));
 
-    if (this.x.length > 2) {
+    if (this.x.size() > 2) {
 
-      y[this.y.length
-          - 1] = (this.y[this.y.length - 1] - this.y[this.y.length - 2])
-              / (this.x[this.y.length - 1] - this.x[this.y.length - 2]);
+      y[this.y.size()
+          - 1] = (this.y.get(this.y.size() - 1) - this.y.get(this.y.size() - 2))
+              / (this.x.get(this.y.size() - 1) - this.x.get(this.y.size() - 2));
 
-      double a, b;
+      double a, b, x0, x1, x2, y0, y1, y2;
 
       for (int i = 1; i < (y.length - 1); i++) {
 
-        a = (((this.y[i - 1] - this.y[i]) * (this.x[i - 1] - this.x[i + 1]))
-            - ((this.y[i - 1] - this.y[i + 1]) * (this.x[i - 1] - this.x[i])))
-            / (((Math.pow(this.x[i - 1], 2.0) - Math.pow(this.x[i], 2.0))
-                * (this.x[i - 1] - this.x[i + 1]))
-                - ((Math.pow(this.x[i - 1], 2.0) - Math.pow(this.x[i + 1], 2.0))
-                    * (this.x[i - 1] - this.x[i])));
+        x0 = this.x.get(i - 1);
+        x1 = this.x.get(i);
+        x2 = this.x.get(i + 1);
+        y0 = this.y.get(i - 1);
+        y1 = this.y.get(i);
+        y2 = this.y.get(i + 1);
+
+        a = (((y0 - y1) * (x0 - x2)) - ((y0 - y2) * (x0 - x1)))
+            / (((Math.pow(x0, 2.0) - Math.pow(x1, 2.0)) * (x0 - x2))
+                - ((Math.pow(x0, 2.0) - Math.pow(x2, 2.0)) * (x0 - x1)));
 
-        b = ((this.y[i - 1] - this.y[i]) / (this.x[i - 1] - this.x[i]))
-            - ((a * (Math.pow(this.x[i - 1], 2.0) - Math.pow(this.x[i], 2.0)))
-                / (this.x[i - 1] - this.x[i]));
+        b = ((y0 - y1) / (x0 - x1))
+            - ((a * (Math.pow(x0, 2.0) - Math.pow(x1, 2.0))) / (x0 - x1));
 
-        y[i] = (2 * a * this.x[i]) + b;
+        y[i] = (2 * a * x1) + b;
       }
     }
 
@@ -483,39 +586,343 @@ public final class RealWaveform extends Waveform {
    * @return area under the waveform
    */
   public RealValue integrate() {
+    return this.getStatistics().integral();
+  }
 
-    double retval = 0;
+  /**
+   * Integrate a waveform in an x-range. The result is identical to
+   * <code>clip(left, right).integrate()</code>, except for rounding, but no
+   * waveform is created.
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return area under the waveform
+   */
+  public RealValue integrate(final double left, final double right) {
+
+    final double[] integrals = this.integrals(left, right);
+
+    if (integrals == null) {
+      return new RealValue();
+    }
+
+    return new RealValue(integrals[0], "");
+  }
+
+  /**
+   * Get the mean value of a waveform in an x-range, i.e. the integral
+   * divided by the length of the range
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return mean value
+   */
+  public RealValue average(final double left, final double right) {
+
+    final double[] integrals = this.integrals(left, right);
+
+    if (integrals == null) {
+      return new RealValue();
+    }
+
+    if (left == right) {
+      return this.getValue(left);
+    }
+
+    return new RealValue(integrals[0] / (right - left), this.getUnitY());
+  }
+
+  /**
+   * Get the root mean square value of a waveform in an x-range
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return RMS value
+   */
+  public RealValue rms(final double left, final double right) {
+
+    final double[] integrals = this.integrals(left, right);
+
+    if (integrals == null) {
+      return new RealValue();
+    }
+
+    if (left == right) {
+      return new RealValue(Math.abs(this.getValue(left).getValue()),
+          this.getUnitY());
+    }
+
+    return new RealValue(Math.sqrt(integrals[1] / (right - left)),
+        this.getUnitY());
+  }
+
+  /**
+   * Calculate the running integral of a waveform, i.e. the area under the
+   * waveform from the first point to every point
+   *
+   * @return Waveform
+   */
+  public RealWaveform cumulativeIntegral() {
+
+    if (this.isEmpty()) {
+      return new RealWaveform();
+    }
+
+    return new RealWaveform(this.x, this.getIntegrals().getIntegral().clone(),
+        this.getUnitX(), "");
+  }
+
+  /**
+   * Decimate a waveform for plotting. The x-range is divided in buckets of
+   * equal width and the minimum and the maximum of every bucket are kept,
+   * such that the envelope of the waveform is preserved.
+   *
+   * @param buckets number of buckets, e.g. the width of the plot in pixels
+   * @param logX    <code>true</code> when the buckets have an equal width on a
+   *                logarithmic x-axis, <code>false</code> otherwise
+   * @return Waveform with at most <code>2*buckets</code> points
+   */
+  public RealWaveform decimateMinMax(final int buckets, final boolean logX) {
+
+    if (!this.isDecimatable(buckets, 1, logX)) {
+      return new RealWaveform();
+    }
+
+    if (this.y.size() <= (2 * buckets)) {
+      return this;
+    }
 
-    for (int i = 1; i < this.x.length; i++) {
-      retval += ((this.x[i] - this.x[i - 1]) * (this.y[i] + this.y[i - 1]))
-          / 2.0;
+    final double[][] decimated = Decimator.minMax(this.x, this.y, buckets,
+        logX);
+
+    return new RealWaveform(decimated[0], decimated[1], this.getUnitX(),
+        this.getUnitY());
+  }
+
+  /**
+   * Decimate a waveform in an x-range for plotting, see
+   * {@link #decimateMinMax(int, boolean)}
+   *
+   * @param buckets number of buckets, e.g. the width of the plot in pixels
+   * @param left    left border of the range
+   * @param right   right border of the range
+   * @param logX    <code>true</code> when the buckets have an equal width on a
+   *                logarithmic x-axis, <code>false</code> otherwise
+   * @return Waveform with at most <code>2*buckets</code> points
+   */
+  public RealWaveform decimateMinMax(final int buckets, final double left,
+      final double right, final boolean logX) {
+    return this.clip(left, right).decimateMinMax(buckets, logX);
+  }
+
+  /**
+   * Decimate a waveform for plotting with the Largest-Triangle-Three-Buckets
+   * algorithm. The first and the last point are kept and one point is
+   * selected from every bucket in between, such that the shape of the
+   * waveform is preserved.
+   *
+   * @param points number of points, at least 3
+   * @param logX   <code>true</code> when the buckets have an equal width on a
+   *               logarithmic x-axis, <code>false</code> otherwise
+   * @return Waveform with at most <code>points</code> points
+   */
+  public RealWaveform decimateLttb(final int points, final boolean logX) {
+
+    if (!this.isDecimatable(points, 3, logX)) {
+      return new RealWaveform();
+    }
+
+    if (this.y.size() <= points) {
+      return this;
     }
 
-    return new RealValue(retval, "");
+    final double[][] decimated = Decimator.lttb(this.x, this.y, points, logX);
+
+    return new RealWaveform(decimated[0], decimated[1], this.getUnitX(),
+        this.getUnitY());
+  }
+
+  /**
+   * Decimate a waveform in an x-range for plotting, see
+   * {@link #decimateLttb(int, boolean)}
+   *
+   * @param points number of points, at least 3
+   * @param left   left border of the range
+   * @param right  right border of the range
+   * @param logX   <code>true</code> when the buckets have an equal width on a
+   *               logarithmic x-axis, <code>false</code> otherwise
+   * @return Waveform with at most <code>points</code> points
+   */
+  public RealWaveform decimateLttb(final int points, final double left,
+      final double right, final boolean logX) {
+    return this.clip(left, right).decimateLttb(points, logX);
+  }
+
+  /**
+   * Compress a waveform by removing points. A point is removed when the
+   * linear interpolation between the remaining points deviates from it by at
+   * most a tolerance, i.e. the compressed waveform deviates from every point
+   * of the original waveform by at most the tolerance. The waveform is
+   * processed in a single pass.
+   *
+   * @param absTol absolute tolerance of the y-values
+   * @return compressed waveform, this waveform when no point is removed
+   */
+  public RealWaveform compress(final double absTol) {
+
+    if (!(absTol >= 0)) {
+      System.err.println("Cannot compress with a tolerance of " + absTol);
+      return this;
+    }
+
+    final int[] kept = LinearSimplifier.simplify(this.x, this.y, absTol);
+
+    if (kept.length == this.x.size()) {
+      return this;
+    }
+
+    final double[] newX = new double[kept.length];
+    final double[] newY = new double[kept.length];
+
+    for (int i = 0; i < kept.length; i++) {
+      newX[i] = this.x.get(kept[i]);
+      newY[i] = this.y.get(kept[i]);
+    }
+
+    return new RealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+  }
+
+  /**
+   * Get a waveform with the same values that stores its values compressed.
+   * The x-values are stored as differences of their differences, the
+   * y-values as XOR of consecutive values. The compression is lossless, the
+   * values are decoded in blocks on access, i.e. all methods return the same
+   * results as for this waveform.
+   *
+   * @return compressed waveform
+   */
+  public RealWaveform compact() {
+    return new RealWaveform(
+        AxisRegistry.intern(CompressedColumn.axis(this.x)),
+        CompressedColumn.values(this.y), this.getUnitX(), this.getUnitY());
+  }
+
+  /**
+   * Check if a waveform can be decimated
+   *
+   * @param count   number of buckets or points
+   * @param minimum minimal number of buckets or points
+   * @param logX    <code>true</code> for a logarithmic x-axis,
+   *                <code>false</code> otherwise
+   * @return <code>true</code> when the waveform can be decimated,
+   *         <code>false</code> otherwise
+   */
+  private boolean isDecimatable(final int count, final int minimum,
+      final boolean logX) {
+
+    if (count < minimum) {
+      System.err.println("Cannot decimate to less than " + minimum
+          + " buckets or points, " + count + " requested");
+      return false;
+    }
+
+    if (this.isEmpty()) {
+      return false;
+    }
+
+    if (logX && !(this.x.get(0) > 0)) {
+      System.err.println(
+          "Cannot decimate on a logarithmic axis, x-values must be positive");
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Get the integrals of <code>y</code> and <code>y^2</code> in an x-range
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return array with both integrals, <code>null</code> when the range
+   *         contains no values
+   */
+  private double[] integrals(final double left, final double right) {
+
+    if (this.isEmpty() || !(left <= right)) {
+      return null;
+    }
+
+    final int first = this.lowerBound(left);
+    final int last = this.upperBound(right) - 1;
+
+    final double leftValue = this.getValue(left).getValue();
+    final double rightValue = this.getValue(right).getValue();
+
+    // no point in the range, a single trapezoid between the borders
+    if (first > last) {
+      return new double[] {
+          ((right - left) * (leftValue + rightValue)) / 2.0,
+          ((right - left)
+              * ((leftValue * leftValue) + (rightValue * rightValue)))
+              / 2.0 };
+    }
+
+    final IntegralIndex integrals = this.getIntegrals();
+
+    final double x0 = this.x.get(first);
+    final double y0 = this.y.get(first);
+    final double x1 = this.x.get(last);
+    final double y1 = this.y.get(last);
+
+    return new double[] {
+        (((x0 - left) * (leftValue + y0)) / 2.0)
+            + integrals.integral(first, last)
+            + (((right - x1) * (y1 + rightValue)) / 2.0),
+        (((x0 - left) * ((leftValue * leftValue) + (y0 * y0))) / 2.0)
+            + integrals.square(first, last)
+            + (((right - x1) * ((y1 * y1) + (rightValue * rightValue)))
+                / 2.0) };
+  }
+
+  /**
+   * Get the cumulative integrals of the waveform. The integrals are computed
+   * on the first call and cached afterwards.
+   *
+   * @return integrals
+   */
+  IntegralIndex getIntegrals() {
+
+    IntegralIndex integrals = this.integrals;
+
+    if (integrals == null) {
+      integrals = new IntegralIndex(this.x, this.y);
+      this.integrals = integrals;
+    }
+
+    return integrals;
   }
 
   @Override
   public RealWaveform db10() {
 
-    final double[] db10 = new double[this.y.length];
+    final double[] db10 = new double[this.y.size()];
 
-    for (int i = 0; i < db10.length; i++) {
-      db10[i] = 10 * Math.log10(this.y[i]);
-    }
+    ExecutionPolicy.forEach(db10.length,
+        (from, to) -> Kernels.log10(this.y, 10, db10, from, to));
 
-    return new RealWaveform(this.getX(), db10, this.getUnitX(), "");
+    return new RealWaveform(this.x, db10, this.getUnitX(), "");
   }
 
   @Override
   public RealWaveform db20() {
 
-    final double[] db20 = new double[this.y.length];
+    final double[] db20 = new double[this.y.size()];
 
-    for (int i = 0; i < db20.length; i++) {
-      db20[i] = 20 * Math.log10(this.y[i]);
-    }
+    ExecutionPolicy.forEach(db20.length,
+        (from, to) -> Kernels.log10(this.y, 20, db20, from, to));
 
-    return new RealWaveform(this.getX(), db20, this.getUnitX(), "");
+    return new RealWaveform(this.x, db20, this.getUnitX(), "");
   }
 
   /**
@@ -525,13 +932,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform sin() {
 
-    final double[] sin = new double[this.y.length];
+    final double[] sin = new double[this.y.size()];
 
     for (int i = 0; i < sin.length; i++) {
-      sin[i] = 10 * Math.sin(this.y[i]);
+      sin[i] = 10 * Math.sin(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), sin, this.getUnitX(), "");
+    return new RealWaveform(this.x, sin, this.getUnitX(), "");
   }
 
   /**
@@ -541,13 +948,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform asin() {
 
-    final double[] asin = new double[this.y.length];
+    final double[] asin = new double[this.y.size()];
 
     for (int i = 0; i < asin.length; i++) {
-      asin[i] = 10 * Math.asin(this.y[i]);
+      asin[i] = 10 * Math.asin(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), asin, this.getUnitX(), "");
+    return new RealWaveform(this.x, asin, this.getUnitX(), "");
   }
 
   /**
@@ -557,13 +964,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform cos() {
 
-    final double[] cos = new double[this.y.length];
+    final double[] cos = new double[this.y.size()];
 
     for (int i = 0; i < cos.length; i++) {
-      cos[i] = 10 * Math.sin(this.y[i]);
+      cos[i] = 10 * Math.sin(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), cos, this.getUnitX(), "");
+    return new RealWaveform(this.x, cos, this.getUnitX(), "");
   }
 
   /**
@@ -573,13 +980,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform acos() {
 
-    final double[] acos = new double[this.y.length];
+    final double[] acos = new double[this.y.size()];
 
     for (int i = 0; i < acos.length; i++) {
-      acos[i] = 10 * Math.acos(this.y[i]);
+      acos[i] = 10 * Math.acos(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), acos, this.getUnitX(), "");
+    return new RealWaveform(this.x, acos, this.getUnitX(), "");
   }
 
   /**
@@ -589,13 +996,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform tan() {
 
-    final double[] tan = new double[this.y.length];
+    final double[] tan = new double[this.y.size()];
 
     for (int i = 0; i < tan.length; i++) {
-      tan[i] = 10 * Math.tan(this.y[i]);
+      tan[i] = 10 * Math.tan(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), tan, this.getUnitX(), "");
+    return new RealWaveform(this.x, tan, this.getUnitX(), "");
   }
 
   /**
@@ -605,13 +1012,13 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform atan() {
 
-    final double[] atan = new double[this.y.length];
+    final double[] atan = new double[this.y.size()];
 
     for (int i = 0; i < atan.length; i++) {
-      atan[i] = 10 * Math.atan(this.y[i]);
+      atan[i] = 10 * Math.atan(this.y.get(i));
     }
 
-    return new RealWaveform(this.getX(), atan, this.getUnitX(), "");
+    return new RealWaveform(this.x, atan, this.getUnitX(), "");
   }
 
   /**
@@ -623,25 +1030,137 @@ public final class RealWaveform extends Waveform {
    */
   public RealValue cross(final double val, final int edge) {
 
+    final double x = this.crossAt(val, edge);
+
+    if (Double.isNaN(x)) {
+      return new RealValue();
+    }
+
+    return new RealValue(x, this.getUnitX());
+  }
+
+  /**
+   * Calculate the nth intersection of the waveform with a constant value. In
+   * contrast to {@link #cross(double, int)}, no object is created.
+   *
+   * @param val  y-value if the intersection
+   * @param edge Nth occurrence of the intersection
+   * @return x-value of the intersection, <code>NaN</code> when there is no
+   *         such intersection
+   */
+  public double crossAt(final double val, final int edge) {
+
+    final MinMaxIndex index = this.getIndex();
+
+    if (index != null) {
+
+      final int i = index.cross(val, edge);
+
+      if (i < 0) {
+        return Double.NaN;
+      }
+
+      return this.intersection(i, val);
+    }
+
     int counter = 1;
 
-    for (int i = 0; i < (this.x.length - 1); i++) {
+    for (int i = 0; i < (this.x.size() - 1); i++) {
 
-      if (((this.y[i] - val) * (this.y[i + 1] - val)) <= 0) {
+      if (((this.y.get(i) - val) * (this.y.get(i + 1) - val)) <= 0) {
 
         if (counter == edge) {
-
-          return new RealValue(
-              this.x[i] + (((val - this.y[i]) / (this.y[i + 1] - this.y[i]))
-                  * (this.x[i + 1] - this.x[i])),
-              this.getUnitX());
+          return this.intersection(i, val);
         }
 
         counter++;
       }
     }
 
-    return new RealValue();
+    return Double.NaN;
+  }
+
+  /**
+   * Calculate the nth intersection of the waveform with an array of levels.
+   * For a waveform with a {@link MinMaxIndex}, every level is searched in the
+   * index, otherwise all levels are searched in one pass over the waveform.
+   *
+   * @param levels y-values of the intersections
+   * @param edge   Nth occurrence of the intersection
+   * @param dst    array where the x-values of the intersections are stored,
+   *               at least as long as the levels. <code>NaN</code> is stored
+   *               for a level without such an intersection.
+   * @return <code>true</code> when the intersections are calculated,
+   *         <code>false</code> otherwise
+   */
+  public boolean crossAll(final double[] levels, final int edge,
+      final double[] dst) {
+
+    if (dst.length < levels.length) {
+      System.err.println("Cannot store " + levels.length
+          + " values in an array of length " + dst.length);
+      return false;
+    }
+
+    final MinMaxIndex index = this.getIndex();
+
+    if (index != null) {
+
+      for (int k = 0; k < levels.length; k++) {
+        dst[k] = this.crossAt(levels[k], edge);
+      }
+
+      return true;
+    }
+
+    // number of intersections that are still to be found for every level
+    final int[] counters = new int[levels.length];
+
+    int open = 0;
+
+    for (int k = 0; k < levels.length; k++) {
+
+      dst[k] = Double.NaN;
+
+      if (edge >= 1) {
+        counters[k] = edge;
+        open++;
+      }
+    }
+
+    double y0;
+    double y1;
+
+    for (int i = 0; (i < (this.x.size() - 1)) && (open > 0); i++) {
+
+      y0 = this.y.get(i);
+      y1 = this.y.get(i + 1);
+
+      for (int k = 0; k < levels.length; k++) {
+
+        if ((counters[k] > 0) && (((y0 - levels[k]) * (y1 - levels[k])) <= 0)
+            && (--counters[k] == 0)) {
+          dst[k] = this.intersection(i, levels[k]);
+          open--;
+        }
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Get the x-value where the segment between the points <code>i</code> and
+   * <code>i+1</code> intersects a level
+   *
+   * @param i   index of the first point of the segment
+   * @param val level
+   * @return x-value of the intersection
+   */
+  private double intersection(final int i, final double val) {
+    return this.x.get(i)
+        + (((val - this.y.get(i)) / (this.y.get(i + 1) - this.y.get(i)))
+            * (this.x.get(i + 1) - this.x.get(i)));
   }
 
   /**
@@ -668,24 +1187,26 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform cross(final double val) {
 
-    final ArrayList<Double> newXVals = new ArrayList<>();
-    final ArrayList<Double> newYVals = new ArrayList<>();
+    final GrowableIntArray segments = new GrowableIntArray();
+
+    final MinMaxIndex index = this.getIndex();
 
-    for (int i = 0; i < (this.x.length - 1); i++) {
-      if (((this.y[i] - val) * (this.y[i + 1] - val)) <= 0) {
-        newXVals
-            .add(this.x[i] + (((val - this.y[i]) / (this.y[i + 1] - this.y[i]))
-                * (this.x[i + 1] - this.x[i])));
-        newYVals.add(val);
+    if (index != null) {
+      index.crossAll(val, segments);
+    } else {
+      for (int i = 0; i < (this.x.size() - 1); i++) {
+        if (((this.y.get(i) - val) * (this.y.get(i + 1) - val)) <= 0) {
+          segments.add(i);
+        }
       }
     }
 
-    final double[] newX = new double[newXVals.size()];
-    final double[] newY = new double[newYVals.size()];
+    final double[] newX = new double[segments.size()];
+    final double[] newY = new double[segments.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = newXVals.get(i);
-      newY[i] = newYVals.get(i);
+    for (int k = 0; k < newX.length; k++) {
+      newX[k] = this.intersection(segments.get(k), val);
+      newY[k] = val;
     }
 
     return new RealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
@@ -706,27 +1227,56 @@ public final class RealWaveform extends Waveform {
     }
   }
 
+  /**
+   * Get the settling time. The band of the final value <code>y_end</code>
+   * spans from <code>y_end*(1-percentage/2)</code> to
+   * <code>y_end*(1+percentage/2)</code>. The settling time is the distance
+   * from the first x-value to the last entry of the waveform into the band,
+   * which is interpolated linearly. This is the same definition as in
+   * {@link MeasurementScanner#settlingTime(double)}.
+   *
+   * @param percentage relative width of the band
+   * @return settling time, <code>0</code> when the waveform never leaves the
+   *         band
+   */
   public RealValue getSettlingTime(final double percentage) {
 
-    final RealValue stopValue = this.getValue(this.xmax());
+    final int n = this.x.size();
 
-    final RealWaveform crossLower = this
-        .cross(stopValue.getValue() * (1 - (percentage / 2)));
-    final RealWaveform crossUpper = this
-        .cross(stopValue.getValue() * (1 + (percentage / 2)));
+    if (n == 0) {
+      return new RealValue();
+    }
 
-    double retval = Double.NaN;
+    final double yEnd = this.y.get(n - 1);
 
-    for (int i = 0; i < crossLower.getX().length; i++) {
-      retval = Math.max(retval, i);
+    if (Double.isNaN(yEnd)) {
+      return new RealValue();
     }
 
-    for (int i = 0; i < crossUpper.getX().length; i++) {
-      retval = Math.max(retval, i);
+    final double lower = Math.min(yEnd * (1 - (percentage / 2)),
+        yEnd * (1 + (percentage / 2)));
+    final double upper = Math.max(yEnd * (1 - (percentage / 2)),
+        yEnd * (1 + (percentage / 2)));
+
+    // last point outside of the band
+    int i = n - 1;
+
+    while ((i >= 0) && !((this.y.get(i) < lower) || (this.y.get(i) > upper))) {
+      i--;
     }
 
-    return new RealValue(retval - this.xmin().getValue(), "s");
+    if (i < 0) {
+      return new RealValue(0.0, this.getUnitX());
+    } else if (i == (n - 1)) {
+      return new RealValue();
+    }
 
+    final double band = this.y.get(i) > upper ? upper : lower;
+
+    return new RealValue((this.x.get(i) + (((band - this.y.get(i))
+        / (this.y.get(i + 1) - this.y.get(i)))
+        * (this.x.get(i + 1) - this.x.get(i)))) - this.x.get(0),
+        this.getUnitX());
   }
 
   /**
@@ -751,32 +1301,191 @@ public final class RealWaveform extends Waveform {
    * @return minimal y-value
    */
   public RealValue ymin() {
+    return this.getStatistics().min();
+  }
+
+  /**
+   * Get the minimal y-value of a waveform as primitive
+   *
+   * @return minimal y-value
+   */
+  public double yminAsDouble() {
+    return this.getStatistics().minAsDouble();
+  }
+
+  /**
+   * Get the maximal y-value of a waveform
+   *
+   * @return maximal y-value
+   */
+  public RealValue ymax() {
+    return this.getStatistics().max();
+  }
+
+  /**
+   * Get the maximal y-value of a waveform as primitive
+   *
+   * @return maximal y-value
+   */
+  public double ymaxAsDouble() {
+    return this.getStatistics().maxAsDouble();
+  }
+
+  /**
+   * Get the minimal y-value in an x-range. The result is identical to
+   * <code>clip(left, right).ymin()</code>, but no waveform is created.
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return minimal y-value
+   */
+  public RealValue ymin(final double left, final double right) {
 
-    double min = Double.MAX_VALUE;
+    final double min = this.yminAsDouble(left, right);
 
-    for (final double element : this.y) {
-      min = Math.min(element, min);
+    if (Double.isNaN(min)) {
+      return new RealValue();
     }
 
     return new RealValue(min, this.getUnitY());
   }
 
   /**
-   * Get the maximal y-value of a waveform
+   * Get the minimal y-value in an x-range as primitive, see
+   * {@link #ymin(double, double)}
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return minimal y-value, <code>NaN</code> when the range is empty
+   */
+  public double yminAsDouble(final double left, final double right) {
+    return this.extremum(left, right, false);
+  }
+
+  /**
+   * Get the maximal y-value in an x-range. The result is identical to
+   * <code>clip(left, right).ymax()</code>, but no waveform is created.
    *
+   * @param left  left border of the range
+   * @param right right border of the range
    * @return maximal y-value
    */
-  public RealValue ymax() {
+  public RealValue ymax(final double left, final double right) {
 
-    double max = Double.MIN_VALUE;
+    final double max = this.ymaxAsDouble(left, right);
 
-    for (final double element : this.y) {
-      max = Math.max(element, max);
+    if (Double.isNaN(max)) {
+      return new RealValue();
     }
 
     return new RealValue(max, this.getUnitY());
   }
 
+  /**
+   * Get the maximal y-value in an x-range as primitive, see
+   * {@link #ymax(double, double)}
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @return maximal y-value, <code>NaN</code> when the range is empty
+   */
+  public double ymaxAsDouble(final double left, final double right) {
+    return this.extremum(left, right, true);
+  }
+
+  /**
+   * Get the minimum or the maximum of the y-values in an x-range, including
+   * the interpolated values at the borders
+   *
+   * @param left  left border of the range
+   * @param right right border of the range
+   * @param max   <code>true</code> for the maximum, <code>false</code> for
+   *              the minimum
+   * @return extremum, <code>NaN</code> when the range contains no values
+   */
+  private double extremum(final double left, final double right,
+      final boolean max) {
+
+    if (this.isEmpty() || !(left <= right)) {
+      return Double.NaN;
+    }
+
+    final int first = this.lowerBound(left);
+    final int last = this.upperBound(right);
+
+    final double leftValue = this.valueAt(left);
+    final double rightValue = this.valueAt(right);
+
+    if (Double.isNaN(leftValue) && Double.isNaN(rightValue)
+        && (first == last)) {
+      return Double.NaN;
+    }
+
+    final MinMaxIndex index = this.getIndex();
+
+    double retval;
+
+    if (index != null) {
+      retval = max ? index.max(first, last) : index.min(first, last);
+    } else {
+      retval = max ? Kernels.max(this.y, first, last)
+          : Kernels.min(this.y, first, last);
+    }
+
+    if (!Double.isNaN(leftValue)) {
+      retval = max ? Math.max(retval, leftValue) : Math.min(retval, leftValue);
+    }
+
+    if (!Double.isNaN(rightValue)) {
+      retval = max ? Math.max(retval, rightValue)
+          : Math.min(retval, rightValue);
+    }
+
+    return retval;
+  }
+
+  /**
+   * Get the min/max index of the y-values. The index is built on the first
+   * call and cached afterwards.
+   *
+   * @return index, <code>null</code> when the waveform is too short for an
+   *         index
+   */
+  MinMaxIndex getIndex() {
+
+    if (this.y.size() < (4 * MinMaxIndex.LEAF)) {
+      return null;
+    }
+
+    MinMaxIndex index = this.index;
+
+    if (index == null) {
+      index = new MinMaxIndex(this.y);
+      this.index = index;
+    }
+
+    return index;
+  }
+
+  /**
+   * Get the summary statistics of the waveform. The statistics are computed
+   * in one pass on the first call and cached afterwards.
+   *
+   * @return statistics
+   */
+  public Statistics getStatistics() {
+
+    Statistics statistics = this.statistics;
+
+    if (statistics == null) {
+      statistics = Statistics.of(this.x, this.y, this.getUnitX(),
+          this.getUnitY());
+      this.statistics = statistics;
+    }
+
+    return statistics;
+  }
+
   /**
    * Concatenate waveform
    *
@@ -785,20 +1494,20 @@ public final class RealWaveform extends Waveform {
    */
   public RealWaveform concat(final RealWaveform wave) {
 
-    final double[] newX = new double[this.x.length + wave.x.length];
-    final double[] newY = new double[this.y.length + wave.y.length];
+    final double[] newX = new double[this.x.size() + wave.x.size()];
+    final double[] newY = new double[this.y.size() + wave.y.size()];
 
-    for (int i = 0; i < this.x.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i];
+    for (int i = 0; i < this.x.size(); i++) {
+      newX[i] = this.x.get(i);
+      newY[i] = this.y.get(i);
     }
 
-    for (int i = 0; i < wave.x.length; i++) {
-      newX[i + this.x.length] = wave.x[i];
-      newY[i + this.y.length] = wave.y[i];
+    for (int i = 0; i < wave.x.size(); i++) {
+      newX[i + this.x.size()] = wave.x.get(i);
+      newY[i + this.y.size()] = wave.y.get(i);
     }
 
-    sortWaveElements(newX, newY);
+    WaveformSorter.sort(newX, newY);
 
     return new RealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
   }
@@ -816,8 +1525,8 @@ public final class RealWaveform extends Waveform {
       wave = wave.resample(this.x);
     }
 
-    for (int i = 0; i < this.x.length; i++) {
-      if (this.y[i] > wave.y[i]) {
+    for (int i = 0; i < this.x.size(); i++) {
+      if (this.y.get(i) > wave.y.get(i)) {
         return false;
       }
     }
@@ -838,8 +1547,8 @@ public final class RealWaveform extends Waveform {
       wave = wave.resample(this.x);
     }
 
-    for (int i = 0; i < this.x.length; i++) {
-      if (this.y[i] >= wave.y[i]) {
+    for (int i = 0; i < this.x.size(); i++) {
+      if (this.y.get(i) >= wave.y.get(i)) {
         return false;
       }
     }
@@ -860,8 +1569,8 @@ public final class RealWaveform extends Waveform {
       wave = wave.resample(this.x);
     }
 
-    for (int i = 0; i < this.x.length; i++) {
-      if (this.y[i] < wave.y[i]) {
+    for (int i = 0; i < this.x.size(); i++) {
+      if (this.y.get(i) < wave.y.get(i)) {
         return false;
       }
     }
@@ -882,8 +1591,8 @@ public final class RealWaveform extends Waveform {
       wave = wave.resample(this.x);
     }
 
-    for (int i = 0; i < this.x.length; i++) {
-      if (this.y[i] <= wave.y[i]) {
+    for (int i = 0; i < this.x.size(); i++) {
+      if (this.y.get(i) <= wave.y.get(i)) {
         return false;
       }
     }
@@ -892,7 +1601,9 @@ public final class RealWaveform extends Waveform {
   }
 
   /**
-   * Create a new {@link RealWaveform}
+   * Create a new {@link RealWaveform}. The arrays <code>x</code> and
+   * <code>y</code> are sorted in place when <code>x</code> is not in ascending
+   * order.
    *
    * @param x     x-values
    * @param y     y-values
@@ -905,7 +1616,7 @@ public final class RealWaveform extends Waveform {
 
     if (x.length == y.length) {
 
-      sortWaveElements(x, y);
+      WaveformSorter.sort(x, y);
 
       return new RealWaveform(x, y, unitX, unitY);
 
@@ -916,36 +1627,18 @@ public final class RealWaveform extends Waveform {
   }
 
   /**
-   * Sort both <code>x</code> and <code>y</code> that <code>x</code> is sorted
-   * in ascending order
+   * Create a new {@link RealWaveform} from columns whose x-values are already
+   * sorted in ascending order. The order is not checked.
    *
-   * @param x x-values
-   * @param y y-values
+   * @param x     sorted x-values
+   * @param y     y-values
+   * @param unitX unit of x-values
+   * @param unitY unit of y-values
+   * @return {@link RealWaveform}
    */
-  private static void sortWaveElements(final double[] x, final double[] y) {
-
-    double swap;
-    boolean swapPerformed = true;
-
-    while (swapPerformed) {
-
-      swapPerformed = false;
-
-      for (int i = 0; i < (x.length - 1); i++) {
-
-        if (x[i] > x[i + 1]) {
-
-          swap = x[i + 1];
-          x[i + 1] = x[i];
-          x[i] = swap;
-
-          swap = y[i + 1];
-          y[i + 1] = y[i];
-          y[i] = swap;
-          swapPerformed = true;
-        }
-      }
-    }
+  static RealWaveform buildSortedRealWaveform(final Column x, final Column y,
+      final String unitX, final String unitY) {
+    return new RealWaveform(x, y, unitX, unitY);
   }
 
   @Override
@@ -955,63 +1648,44 @@ public final class RealWaveform extends Waveform {
 
   @Override
   public RealWaveform imag() {
-
-    final double[] x = new double[this.x.length];
-    final double[] y = new double[this.y.length];
-
-    for (int i = 0; i < this.x.length; i++) {
-      x[i] = this.x[i];
-      y[i] = 0.0;
-    }
-
-    return buildRealWaveform(x, y, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, new ConstantColumn(0.0, this.x.size()),
+        this.getUnitX(), this.getUnitY());
   }
 
   @Override
   public RealWaveform phaseDeg() {
 
-    final double[] x = new double[this.x.length];
-    final double[] y = new double[this.y.length];
+    final double[] y = new double[this.y.size()];
 
-    for (int i = 0; i < this.x.length; i++) {
-      x[i] = this.x[i];
+    ExecutionPolicy.forEach(y.length, (from, to) -> {
+      for (int i = from; i < to; i++) {
 
-      if (y[i] >= 0) {
-        y[i] = 0.0;
-      } else {
-        y[i] = 180.0;
+        if (this.y.get(i) >= 0) {
+          y[i] = 0.0;
+        } else {
+          y[i] = 180.0;
+        }
       }
-    }
+    });
 
-    return buildRealWaveform(x, y, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, y, this.getUnitX(), this.getUnitY());
   }
 
   @Override
   public RealWaveform conjugate() {
-
-    final double[] x = new double[this.x.length];
-    final double[] y = new double[this.y.length];
-
-    for (int i = 0; i < this.x.length; i++) {
-      x[i] = this.x[i];
-      y[i] = this.y[i];
-    }
-
-    return buildRealWaveform(x, y, this.getUnitX(), this.getUnitY());
+    return this;
   }
 
   @Override
   public Waveform uminus() {
 
-    final double[] x = new double[this.x.length];
-    final double[] y = new double[this.y.length];
+    final double[] y = new double[this.y.size()];
 
-    for (int i = 0; i < this.x.length; i++) {
-      x[i] = this.x[i];
-      y[i] = -this.y[i];
+    for (int i = 0; i < y.length; i++) {
+      y[i] = -this.y.get(i);
     }
 
-    return buildRealWaveform(x, y, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, y, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1041,15 +1715,14 @@ public final class RealWaveform extends Waveform {
       subtrahend = subtrahend.resample(this);
     }
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final Column other = subtrahend.y;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] - subtrahend.y[i];
-    }
+    final double[] newY = new double[this.y.size()];
+
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.subtract(this.y, other, newY, from, to));
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   /**
@@ -1065,15 +1738,12 @@ public final class RealWaveform extends Waveform {
   @Override
   public RealWaveform subtract(final double value) {
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final double[] newY = new double[this.y.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] - value;
-    }
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.add(this.y, -value, newY, from, to));
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1116,15 +1786,12 @@ public final class RealWaveform extends Waveform {
   @Override
   public RealWaveform multiply(final double factor) {
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final double[] newY = new double[this.y.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] * factor;
-    }
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.multiply(this.y, factor, newY, from, to));
 
-    return new RealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1170,18 +1837,17 @@ public final class RealWaveform extends Waveform {
   public RealWaveform multiply(RealWaveform wave) {
 
     if (!this.sameAxis(wave)) {
-      wave = wave.resample(this.getX());
+      wave = wave.resample(this.x);
     }
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final Column other = wave.y;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] * wave.y[i];
-    }
+    final double[] newY = new double[this.y.size()];
 
-    return new RealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.multiply(this.y, other, newY, from, to));
+
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1197,15 +1863,12 @@ public final class RealWaveform extends Waveform {
   @Override
   public RealWaveform divide(final double value) {
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final double[] newY = new double[this.y.size()];
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] / value;
-    }
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.divide(this.y, value, newY, from, to));
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1232,18 +1895,17 @@ public final class RealWaveform extends Waveform {
   public RealWaveform divide(RealWaveform wave) {
 
     if (!this.sameAxis(wave)) {
-      wave = wave.resample(this.getX());
+      wave = wave.resample(this.x);
     }
 
-    final double[] newX = new double[this.x.length];
-    final double[] newY = new double[this.y.length];
+    final Column other = wave.y;
 
-    for (int i = 0; i < newY.length; i++) {
-      newX[i] = this.x[i];
-      newY[i] = this.y[i] / wave.y[i];
-    }
+    final double[] newY = new double[this.y.size()];
+
+    ExecutionPolicy.forEach(newY.length,
+        (from, to) -> Kernels.divide(this.y, other, newY, from, to));
 
-    return buildRealWaveform(newX, newY, this.getUnitX(), this.getUnitY());
+    return new RealWaveform(this.x, newY, this.getUnitX(), this.getUnitY());
   }
 
   @Override
@@ -1282,8 +1944,8 @@ public final class RealWaveform extends Waveform {
 
   @Override
   public boolean isEmpty() {
-    return (this.x == null) || (this.y == null) || (this.x.length == 0)
-        || (this.y.length == 0);
+    return (this.x == null) || (this.y == null) || (this.x.size() == 0)
+        || (this.y.size() == 0);
   }
 
   /**
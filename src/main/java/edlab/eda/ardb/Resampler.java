@@ -0,0 +1,224 @@
+package edlab.eda.ardb;
+
+/**
+ * Resampling of waveform data. The source and the target x-values are walked
+ * simultaneously, i.e. resampling <code>n</code> points to <code>m</code>
+ * points requires <code>O(n+m)</code> operations for a sorted target.
+ */
+final class Resampler {
+
+  private Resampler() {
+  }
+
+  /**
+   * Resample waveform data
+   *
+   * @param x             sorted x-values of the waveform
+   * @param ys            y-values of the waveform, more than one column can be
+   *                      provided for waveforms that share the x-values
+   * @param newX          x-values where the waveform is evaluated
+   * @param out           arrays for the resampled y-values, one array with the
+   *                      length of <code>newX</code> for every column in
+   *                      <code>ys</code>
+   * @param interpolation interpolation method
+   * @return x-values of the resampled waveform, this is <code>newX</code>
+   *         itself when it is sorted in ascending order and a sorted copy
+   *         otherwise. The arrays in <code>out</code> are ordered accordingly.
+   */
+  static Column resample(final Column x, final Column[] ys, final Column newX,
+      final double[][] out, final Waveform.INTERPOLATION interpolation) {
+
+    if (Resampler.isSorted(newX)) {
+      Resampler.walk(x, ys, newX, out, interpolation);
+      return newX;
+    }
+
+    // an unsorted target is copied, the column does not cache its values
+    final double[] values = new double[newX.size()];
+
+    newX.copy(0, values, 0, values.length);
+
+    final int[] permutation = WaveformSorter.permutation(values);
+
+    final double[] sortedX = new double[values.length];
+
+    for (int i = 0; i < sortedX.length; i++) {
+      sortedX[i] = values[permutation[i]];
+    }
+
+    final Column retval = Column.of(sortedX);
+
+    Resampler.walk(x, ys, retval, out, interpolation);
+
+    return retval;
+  }
+
+  /**
+   * Check if values are sorted in ascending order
+   *
+   * @param values values
+   * @return <code>true</code> when the values are sorted, <code>false</code>
+   *         otherwise
+   */
+  private static boolean isSorted(final Column values) {
+
+    for (int i = 1; i < values.size(); i++) {
+      if (values.get(i) < values.get(i - 1)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Resample waveform data to sorted x-values
+   *
+   * @param x             sorted x-values of the waveform
+   * @param ys            y-values of the waveform
+   * @param newX          sorted x-values where the waveform is evaluated
+   * @param out           arrays for the resampled y-values
+   * @param interpolation interpolation method
+   */
+  private static void walk(final Column x, final Column[] ys,
+      final Column newX, final double[][] out,
+      final Waveform.INTERPOLATION interpolation) {
+
+    final int n = x.size();
+
+    if (n < 2) {
+
+      for (int k = 0; k < ys.length; k++) {
+        for (int j = 0; j < newX.size(); j++) {
+          out[k][j] = n == 0 ? Double.NaN : ys[k].get(0);
+        }
+      }
+
+      return;
+    }
+
+    switch (interpolation) {
+    case NEAREST:
+      Resampler.nearest(x, ys, newX, out);
+      break;
+    case HOLD:
+      Resampler.hold(x, ys, newX, out);
+      break;
+    default:
+      Resampler.linear(x, ys, newX, out);
+      break;
+    }
+  }
+
+  /**
+   * Linear interpolation between the neighboring points. Positions outside of
+   * the x-range are extrapolated linearly.
+   *
+   * @param x    sorted x-values of the waveform
+   * @param ys   y-values of the waveform
+   * @param newX sorted x-values where the waveform is evaluated
+   * @param out  arrays for the resampled y-values
+   */
+  private static void linear(final Column x, final Column[] ys,
+      final Column newX, final double[][] out) {
+
+    final int last = x.size() - 2;
+
+    int i = 0;
+    double pos;
+    double x0 = x.get(0);
+    double x1 = x.get(1);
+    double y0;
+
+    for (int j = 0; j < newX.size(); j++) {
+
+      pos = newX.get(j);
+
+      // first segment whose right point is not smaller than pos
+      while ((i < last) && (x1 < pos)) {
+        i++;
+        x0 = x1;
+        x1 = x.get(i + 1);
+      }
+
+      for (int k = 0; k < ys.length; k++) {
+        y0 = ys[k].get(i);
+        out[k][j] = y0
+            + (((ys[k].get(i + 1) - y0) / (x1 - x0)) * (pos - x0));
+      }
+    }
+  }
+
+  /**
+   * Use the value of the nearest point. Ties are resolved to the left point.
+   *
+   * @param x    sorted x-values of the waveform
+   * @param ys   y-values of the waveform
+   * @param newX sorted x-values where the waveform is evaluated
+   * @param out  arrays for the resampled y-values
+   */
+  private static void nearest(final Column x, final Column[] ys,
+      final Column newX, final double[][] out) {
+
+    final int last = x.size() - 2;
+
+    int i = 0;
+    int nearest;
+    double pos;
+    double x0 = x.get(0);
+    double x1 = x.get(1);
+
+    for (int j = 0; j < newX.size(); j++) {
+
+      pos = newX.get(j);
+
+      while ((i < last) && (x1 < pos)) {
+        i++;
+        x0 = x1;
+        x1 = x.get(i + 1);
+      }
+
+      if ((pos - x0) <= (x1 - pos)) {
+        nearest = i;
+      } else {
+        nearest = i + 1;
+      }
+
+      for (int k = 0; k < ys.length; k++) {
+        out[k][j] = ys[k].get(nearest);
+      }
+    }
+  }
+
+  /**
+   * Hold the value of the last point that is not right of the position.
+   * Positions left of the first point get the value of the first point.
+   *
+   * @param x    sorted x-values of the waveform
+   * @param ys   y-values of the waveform
+   * @param newX sorted x-values where the waveform is evaluated
+   * @param out  arrays for the resampled y-values
+   */
+  private static void hold(final Column x, final Column[] ys,
+      final Column newX, final double[][] out) {
+
+    final int last = x.size() - 1;
+
+    int i = 0;
+    double pos;
+
+    for (int j = 0; j < newX.size(); j++) {
+
+      pos = newX.get(j);
+
+      // last point that is not right of pos
+      while ((i < last) && (x.get(i + 1) <= pos)) {
+        i++;
+      }
+
+      for (int k = 0; k < ys.length; k++) {
+        out[k][j] = ys[k].get(i);
+      }
+    }
+  }
+}
@@ -30,6 +30,28 @@ public abstract class ResultsDatabase {
     return null;
   }
 
+  /**
+   * Builds a {@link ResultsDatabase} from a {@link NutmegPlot}
+   *
+   * @param plot {@link NutmegPlot}
+   * @param lazy when <code>true</code>, a wave is created from the plot when
+   *             it is accessed for the first time
+   * @return ResultsDatabse
+   */
+  public static ResultsDatabase buildResultDatabase(final NutmegPlot plot,
+      final boolean lazy) {
+
+    if (plot instanceof NutmegRealPlot) {
+      return RealResultsDatabase.buildResultDatabase((NutmegRealPlot) plot,
+          lazy);
+    } else if (plot instanceof NutmegComplexPlot) {
+      return ComplexResultsDatabase
+          .buildResultDatabase((NutmegComplexPlot) plot, lazy);
+    }
+
+    return null;
+  }
+
   /**
    * Returns a set of all value names in the container
    *
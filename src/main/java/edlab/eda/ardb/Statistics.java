@@ -0,0 +1,310 @@
+package edlab.eda.ardb;
+
+/**
+ * Summary statistics of a {@link RealWaveform}. All statistics are computed
+ * once with the block reductions of the {@link ExecutionPolicy}, see
+ * {@link RealWaveform#getStatistics()}.
+ * <p>
+ * The mean and the RMS value are averages over the x-range, i.e. the integral
+ * of <code>y</code> resp. <code>y^2</code> divided by the x-range. The
+ * integrals are calculated with the trapezoidal rule. When the waveform
+ * contains a NaN, the extrema are NaN and their position is the position of
+ * the first NaN.
+ */
+public final class Statistics {
+
+  private final double min;
+  private final double max;
+  private final double argmin;
+  private final double argmax;
+  private final double mean;
+  private final double rms;
+  private final double integral;
+
+  private final String unitX;
+  private final String unitY;
+
+  private Statistics(final double min, final double max, final double argmin,
+      final double argmax, final double mean, final double rms,
+      final double integral, final String unitX, final String unitY) {
+    this.min = min;
+    this.max = max;
+    this.argmin = argmin;
+    this.argmax = argmax;
+    this.mean = mean;
+    this.rms = rms;
+    this.integral = integral;
+    this.unitX = unitX;
+    this.unitY = unitY;
+  }
+
+  /**
+   * Compute the statistics of a waveform
+   *
+   * @param x     x-values
+   * @param y     y-values
+   * @param unitX unit of the x-values
+   * @param unitY unit of the y-values
+   * @return statistics
+   */
+  static Statistics of(final Column x, final Column y, final String unitX,
+      final String unitY) {
+
+    final int n = y.size();
+
+    if (n == 0) {
+      return new Statistics(Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+          Double.NaN, Double.NaN, Double.NaN, unitX, unitY);
+    }
+
+    // the extrema and integrals of the blocks are evaluated by the kernels
+    final double[] mins = ExecutionPolicy.blocks(n,
+        (from, to) -> Kernels.min(y, from, to));
+    final double[] maxs = ExecutionPolicy.blocks(n,
+        (from, to) -> Kernels.max(y, from, to));
+
+    final double[] squares = new double[n];
+
+    ExecutionPolicy.forEach(n,
+        (from, to) -> Kernels.multiply(y, y, squares, from, to));
+
+    final Column ySquare = Column.of(squares);
+
+    // the block [from,to) contains the segments that end in the block
+    final double[] integrals = ExecutionPolicy.blocks(n,
+        (from, to) -> Kernels.trapezoid(x, y, Math.max(from - 1, 0), to));
+    final double[] squareIntegrals = ExecutionPolicy.blocks(n,
+        (from, to) -> Kernels.trapezoid(x, ySquare, Math.max(from - 1, 0),
+            to));
+
+    double min = mins[0];
+    double max = maxs[0];
+    double integral = 0;
+    double square = 0;
+
+    // the blocks are combined in ascending order, a NaN is propagated
+    for (int b = 0; b < mins.length; b++) {
+      min = Math.min(min, mins[b]);
+      max = Math.max(max, maxs[b]);
+      integral += integrals[b];
+      square += squareIntegrals[b];
+    }
+
+    final int argmin = Statistics.first(y, mins, min);
+    final int argmax = Statistics.first(y, maxs, max);
+
+    final double range = x.get(n - 1) - x.get(0);
+
+    double mean;
+    double rms;
+
+    if (n == 1) {
+      mean = y.get(0);
+      rms = Math.abs(mean);
+    } else {
+      mean = integral / range;
+      rms = Math.sqrt(square / range);
+    }
+
+    return new Statistics(min, max, x.get(argmin), x.get(argmax), mean, rms,
+        integral, unitX, unitY);
+  }
+
+  /**
+   * Check if a value replaces the current minimum. A NaN replaces every
+   * number, such that the first NaN becomes the minimum.
+   *
+   * @param value   value
+   * @param minimum current minimum
+   * @return <code>true</code> when the value is the new minimum,
+   *         <code>false</code> otherwise
+   */
+  static boolean isLess(final double value, final double minimum) {
+    return (value < minimum)
+        || (Double.isNaN(value) && !Double.isNaN(minimum));
+  }
+
+  /**
+   * Check if a value replaces the current maximum. A NaN replaces every
+   * number, such that the first NaN becomes the maximum.
+   *
+   * @param value   value
+   * @param maximum current maximum
+   * @return <code>true</code> when the value is the new maximum,
+   *         <code>false</code> otherwise
+   */
+  static boolean isGreater(final double value, final double maximum) {
+    return (value > maximum)
+        || (Double.isNaN(value) && !Double.isNaN(maximum));
+  }
+
+  /**
+   * Get the index of the first occurrence of an extremum. Only the first
+   * block whose extremum equals the extremum of the waveform is searched.
+   *
+   * @param y        y-values
+   * @param blocks   extremum of every block
+   * @param extremum extremum of the waveform, NaN when the waveform contains
+   *                 a NaN
+   * @return index
+   */
+  private static int first(final Column y, final double[] blocks,
+      final double extremum) {
+
+    int b = 0;
+
+    while (!Statistics.matches(blocks[b], extremum)) {
+      b++;
+    }
+
+    int i = b * ExecutionPolicy.BLOCK;
+
+    while (!Statistics.matches(y.get(i), extremum)) {
+      i++;
+    }
+
+    return i;
+  }
+
+  /**
+   * Check if a value is an extremum, a NaN matches a NaN
+   */
+  private static boolean matches(final double value, final double extremum) {
+    return Double.isNaN(extremum) ? Double.isNaN(value) : value == extremum;
+  }
+
+  /**
+   * Get the minimal y-value
+   *
+   * @return minimal y-value
+   */
+  public RealValue min() {
+    return new RealValue(this.min, this.unitY);
+  }
+
+  /**
+   * Get the minimal y-value as primitive
+   *
+   * @return minimal y-value
+   */
+  public double minAsDouble() {
+    return this.min;
+  }
+
+  /**
+   * Get the maximal y-value
+   *
+   * @return maximal y-value
+   */
+  public RealValue max() {
+    return new RealValue(this.max, this.unitY);
+  }
+
+  /**
+   * Get the maximal y-value as primitive
+   *
+   * @return maximal y-value
+   */
+  public double maxAsDouble() {
+    return this.max;
+  }
+
+  /**
+   * Get the x-value of the first occurrence of the minimal y-value
+   *
+   * @return x-value
+   */
+  public RealValue argmin() {
+    return new RealValue(this.argmin, this.unitX);
+  }
+
+  /**
+   * Get the x-value of the first occurrence of the minimal y-value as
+   * primitive
+   *
+   * @return x-value
+   */
+  public double argminAsDouble() {
+    return this.argmin;
+  }
+
+  /**
+   * Get the x-value of the first occurrence of the maximal y-value
+   *
+   * @return x-value
+   */
+  public RealValue argmax() {
+    return new RealValue(this.argmax, this.unitX);
+  }
+
+  /**
+   * Get the x-value of the first occurrence of the maximal y-value as
+   * primitive
+   *
+   * @return x-value
+   */
+  public double argmaxAsDouble() {
+    return this.argmax;
+  }
+
+  /**
+   * Get the mean value over the x-range
+   *
+   * @return mean value
+   */
+  public RealValue mean() {
+    return new RealValue(this.mean, this.unitY);
+  }
+
+  /**
+   * Get the mean value over the x-range as primitive
+   *
+   * @return mean value
+   */
+  public double meanAsDouble() {
+    return this.mean;
+  }
+
+  /**
+   * Get the root mean square value over the x-range
+   *
+   * @return RMS value
+   */
+  public RealValue rms() {
+    return new RealValue(this.rms, this.unitY);
+  }
+
+  /**
+   * Get the root mean square value over the x-range as primitive
+   *
+   * @return RMS value
+   */
+  public double rmsAsDouble() {
+    return this.rms;
+  }
+
+  /**
+   * Get the area under the waveform
+   *
+   * @return integral
+   */
+  public RealValue integral() {
+    return new RealValue(this.integral, "");
+  }
+
+  /**
+   * Get the area under the waveform as primitive
+   *
+   * @return integral
+   */
+  public double integralAsDouble() {
+    return this.integral;
+  }
+
+  @Override
+  public String toString() {
+    return "min=" + this.min + ", max=" + this.max + ", argmin=" + this.argmin
+        + ", argmax=" + this.argmax + ", mean=" + this.mean + ", rms="
+        + this.rms + ", integral=" + this.integral;
+  }
+}
@@ -9,13 +9,40 @@ import org.apache.commons.math3.complex.Complex;
  */
 public abstract class Waveform {
 
+  /**
+   * Interpolation method that is used when a waveform is resampled
+   */
+  public enum INTERPOLATION {
+    /**
+     * Linear interpolation between the neighboring points
+     */
+    LINEAR,
+    /**
+     * Value of the nearest point
+     */
+    NEAREST,
+    /**
+     * Value of the last point that is not right of the position
+     */
+    HOLD
+  }
+
   private String name = "";
   private final String unitX;
   private final String unitY;
 
-  protected final double[] x;
+  final Column x;
+
+  /**
+   * Number of segments a cursor walks before it falls back to a binary search
+   */
+  private static final int CURSOR_WALK = 8;
 
   protected Waveform(final double[] x, final String unitX, final String unitY) {
+    this(Column.of(x), unitX, unitY);
+  }
+
+  Waveform(final Column x, final String unitX, final String unitY) {
     this.name = "";
     this.x = x;
     this.unitX = unitX;
@@ -26,7 +53,7 @@ public abstract class Waveform {
    * Create an empty waveform
    */
   public Waveform() {
-    this.x = new double[0];
+    this.x = Column.of(new double[0]);
     this.unitX = "";
     this.unitY = "";
   }
@@ -64,7 +91,7 @@ public abstract class Waveform {
    * @return x-values
    */
   public double[] getX() {
-    return this.x;
+    return this.x.toArray();
   }
 
   /**
@@ -73,7 +100,16 @@ public abstract class Waveform {
    * @return minimal x-value
    */
   public RealValue xmin() {
-    return new RealValue(this.x[0], this.getUnitX());
+    return new RealValue(this.xminAsDouble(), this.getUnitX());
+  }
+
+  /**
+   * Get the minimal x-value as primitive
+   *
+   * @return minimal x-value, <code>NaN</code> when the waveform is empty
+   */
+  public double xminAsDouble() {
+    return this.x.size() > 0 ? this.x.get(0) : Double.NaN;
   }
 
   /**
@@ -82,7 +118,16 @@ public abstract class Waveform {
    * @return maximal x-value
    */
   public RealValue xmax() {
-    return new RealValue(this.x[this.x.length - 1], this.getUnitX());
+    return new RealValue(this.xmaxAsDouble(), this.getUnitX());
+  }
+
+  /**
+   * Get the maximal x-value as primitive
+   *
+   * @return maximal x-value, <code>NaN</code> when the waveform is empty
+   */
+  public double xmaxAsDouble() {
+    return this.x.size() > 0 ? this.x.get(this.x.size() - 1) : Double.NaN;
   }
 
   /**
@@ -91,7 +136,7 @@ public abstract class Waveform {
    * @return number of points
    */
   public int noOfVals() {
-    return this.x.length;
+    return this.x.size();
   }
 
   /**
@@ -112,10 +157,14 @@ public abstract class Waveform {
    */
   public boolean sameAxis(final Waveform wave) {
 
-    if (this.x.length == wave.x.length) {
+    if (this.x == wave.x) {
+      return true;
+    }
 
-      for (int i = 0; i < this.x.length; i++) {
-        if (this.x[i] != wave.x[i]) {
+    if (this.x.size() == wave.x.size()) {
+
+      for (int i = 0; i < this.x.size(); i++) {
+        if (this.x.get(i) != wave.x.get(i)) {
           return false;
         }
       }
@@ -127,6 +176,200 @@ public abstract class Waveform {
     return false;
   }
 
+  /**
+   * Identify the segment <code>[x[i],x[i+1]]</code> that is used for
+   * interpolating the waveform at a position. This is the first segment that
+   * contains the position. Positions outside of the x-range are mapped to the
+   * first or last segment, respectively.
+   *
+   * @param pos x-value
+   * @return index <code>i</code> of the segment, <code>0</code> when the
+   *         waveform consists of less than two points
+   */
+  final int segment(final double pos) {
+
+    final int n = this.x.size();
+
+    if (n < 3) {
+      return 0;
+    }
+
+    // the segment on a uniform grid is the start of a bounded walk, which
+    // falls back to a binary search on other axes
+    final double step = (this.x.get(n - 1) - this.x.get(0)) / (n - 1);
+    final double guess = (pos - this.x.get(0)) / step;
+
+    return this.segment(pos, guess > 0 ? (int) Math.min(guess, n - 2) : 0);
+  }
+
+  /**
+   * Identify the segment that is used for interpolating the waveform at a
+   * position, see {@link #segment(double)}. The search starts at a segment
+   * that was identified in a previous call, which results in an amortized
+   * constant runtime for a monotonic sequence of positions.
+   *
+   * @param pos  x-value
+   * @param hint index of the segment where the search is started
+   * @return index of the segment
+   */
+  final int segment(final double pos, final int hint) {
+
+    final int n = this.x.size();
+
+    if (n < 3) {
+      return 0;
+    }
+
+    int i = Math.max(0, Math.min(hint, n - 2));
+
+    int steps = 0;
+
+    while ((i < (n - 2)) && (this.x.get(i + 1) < pos)) {
+
+      if (++steps > CURSOR_WALK) {
+        return this.search(pos, i + 1, n - 2);
+      }
+
+      i++;
+    }
+
+    while ((i > 0) && (this.x.get(i) >= pos)) {
+
+      if (++steps > CURSOR_WALK) {
+        return this.search(pos, 0, i - 1);
+      }
+
+      i--;
+    }
+
+    return i;
+  }
+
+  /**
+   * Binary search of the segment that is used for interpolating the waveform
+   * at a position
+   *
+   * @param pos x-value
+   * @param lo  index of first segment that is considered
+   * @param hi  index of last segment that is considered
+   * @return index of the segment
+   */
+  private int search(final double pos, int lo, int hi) {
+
+    int mid;
+
+    // first segment whose right point is not smaller than pos
+    while (lo < hi) {
+
+      mid = (lo + hi) >>> 1;
+
+      if (this.x.get(mid + 1) < pos) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    return lo;
+  }
+
+  /**
+   * Get the index of the first point whose x-value is not smaller than a
+   * position
+   *
+   * @param pos x-value
+   * @return index, the number of points when all x-values are smaller
+   */
+  final int lowerBound(final double pos) {
+
+    int lo = 0;
+    int hi = this.x.size();
+    int mid;
+
+    while (lo < hi) {
+
+      mid = (lo + hi) >>> 1;
+
+      if (this.x.get(mid) < pos) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    return lo;
+  }
+
+  /**
+   * Get the index of the first point whose x-value is greater than a position
+   *
+   * @param pos x-value
+   * @return index, the number of points when no x-value is greater
+   */
+  final int upperBound(final double pos) {
+
+    int lo = 0;
+    int hi = this.x.size();
+    int mid;
+
+    while (lo < hi) {
+
+      mid = (lo + hi) >>> 1;
+
+      if (this.x.get(mid) <= pos) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    return lo;
+  }
+
+  /**
+   * Get a waveform with the same values that references the canonical
+   * instance of its x-axis, see {@link AxisRegistry}
+   *
+   * @return waveform
+   */
+  Waveform internAxis() {
+
+    final Column axis = AxisRegistry.intern(this.x);
+
+    if (axis == this.x) {
+      return this;
+    }
+
+    return this.withAxis(axis);
+  }
+
+  /**
+   * Create a waveform with the same y-values and another x-axis
+   *
+   * @param axis x-axis with the same number of values
+   * @return waveform
+   */
+  abstract Waveform withAxis(final Column axis);
+
+  /**
+   * Create a cursor for evaluating the waveform at a sequence of positions
+   *
+   * @return cursor
+   */
+  public InterpolationCursor cursor() {
+    return new InterpolationCursor(this);
+  }
+
+  /**
+   * Create a lazy waveform. Operations on the lazy waveform are recorded and
+   * evaluated in a single pass when a result is requested.
+   *
+   * @return lazy waveform
+   */
+  public LazyWaveform lazy() {
+    return LazyWaveform.of(this);
+  }
+
   /**
    * Check if the waveform in valid
    * 
@@ -151,13 +394,33 @@ public abstract class Waveform {
   public abstract Value getValue(double pos);
 
   /**
-   * Resample a waveform
+   * Resample a waveform with linear interpolation
    *
    * @param newX New x-values to be used
    * @return resampled waveform
    */
   public abstract Waveform resample(final double[] newX);
 
+  /**
+   * Resample a waveform
+   *
+   * @param newX          New x-values to be used
+   * @param interpolation interpolation method
+   * @return resampled waveform
+   */
+  public abstract Waveform resample(final double[] newX,
+      final INTERPOLATION interpolation);
+
+  /**
+   * Resample a waveform to the x-values of another waveform. The resampled
+   * waveform shares the x-values, the values must be sorted in ascending
+   * order.
+   *
+   * @param newX sorted x-values
+   * @return resampled waveform
+   */
+  abstract Waveform resample(final Column newX);
+
   /**
    * Extract the real-part of a waveform
    *
@@ -470,16 +733,9 @@ public abstract class Waveform {
    * @return wave
    */
   public Waveform createConstantWave(final RealValue value) {
-
-    final double[] x = this.getX();
-
-    final double[] y = new double[x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = value.getValue();
-    }
-
-    return RealWaveform.buildRealWaveform(x, y, this.unitX, value.getUnit());
+    return RealWaveform.buildSortedRealWaveform(this.x,
+        new ConstantColumn(value.getValue(), this.x.size()), this.unitX,
+        value.getUnit());
   }
 
   /**
@@ -490,16 +746,7 @@ public abstract class Waveform {
    */
   public Waveform createConstantWave(final ComplexValue value) {
 
-    final double[] x = this.getX();
-
-    final Complex[] y = new Complex[x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = value.getValue();
-    }
-
-    return ComplexWaveform.buildComplexWaveform(x, y, this.unitX,
-        value.getUnit());
+    return this.createConstantWave(value.getValue(), value.getUnit());
   }
 
   /**
@@ -509,16 +756,7 @@ public abstract class Waveform {
    * @return wave
    */
   public Waveform createConstantWave(final BigDecimal value) {
-
-    final double[] x = this.getX();
-
-    final double[] y = new double[x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = value.doubleValue();
-    }
-
-    return RealWaveform.buildRealWaveform(x, y, this.unitX, "");
+    return this.createConstantWave(value.doubleValue());
   }
 
   /**
@@ -528,15 +766,8 @@ public abstract class Waveform {
    * @return wave
    */
   public Waveform createConstantWave(final double value) {
-    final double[] x = this.getX();
-
-    final double[] y = new double[x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = value;
-    }
-
-    return RealWaveform.buildRealWaveform(x, y, this.unitX, "");
+    return RealWaveform.buildSortedRealWaveform(this.x,
+        new ConstantColumn(value, this.x.size()), this.unitX, "");
   }
 
   /**
@@ -546,16 +777,23 @@ public abstract class Waveform {
    * @return wave
    */
   public Waveform createConstantWave(final Complex value) {
+    return this.createConstantWave(value, "");
+  }
 
-    final double[] x = this.getX();
-
-    final Complex[] y = new Complex[x.length];
-
-    for (int i = 0; i < y.length; i++) {
-      y[i] = value;
-    }
+  /**
+   * Create a waveform with the same x-axis but a constant y value
+   *
+   * @param value y value
+   * @param unitY unit of the y value
+   * @return wave
+   */
+  private Waveform createConstantWave(final Complex value,
+      final String unitY) {
 
-    return ComplexWaveform.buildComplexWaveform(x, y, this.unitX, "");
+    return ComplexWaveform.buildSortedComplexWaveform(this.x,
+        new ConstantColumn(value.getReal(), this.x.size()),
+        new ConstantColumn(value.getImaginary(), this.x.size()), this.unitX,
+        unitY);
   }
 
   /**
@@ -0,0 +1,180 @@
+package edlab.eda.ardb;
+
+/**
+ * Sorting of waveform data. The x-values are sorted in ascending order and the
+ * corresponding y-values are reordered with the same permutation.
+ */
+final class WaveformSorter {
+
+  private WaveformSorter() {
+  }
+
+  /**
+   * Check if an array is sorted in ascending order
+   *
+   * @param x array
+   * @return <code>true</code> when the array is sorted, <code>false</code>
+   *         otherwise
+   */
+  static boolean isSorted(final double[] x) {
+
+    for (int i = 1; i < x.length; i++) {
+      if (x[i - 1] > x[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Sort <code>x</code> in ascending order and reorder all arrays in
+   * <code>ys</code> accordingly. Nothing is done when <code>x</code> is
+   * already sorted.
+   *
+   * @param x  x-values
+   * @param ys y-values, every array must have the same length as
+   *           <code>x</code>
+   */
+  static void sort(final double[] x, final double[]... ys) {
+
+    if (WaveformSorter.isSorted(x)) {
+      return;
+    }
+
+    final int[] permutation = WaveformSorter.permutation(x);
+
+    WaveformSorter.apply(x, permutation);
+
+    for (final double[] y : ys) {
+      WaveformSorter.apply(y, permutation);
+    }
+  }
+
+  /**
+   * Get the permutation that sorts an array in ascending order. The sort is
+   * stable and merges the ascending runs that are already present in the
+   * array, i.e. the concatenation of a few sorted segments is sorted in
+   * linear time.
+   *
+   * @param x array
+   * @return permutation, i.e. the element <code>x[permutation[i]]</code> is
+   *         the i-th element of the sorted array
+   */
+  static int[] permutation(final double[] x) {
+
+    final int n = x.length;
+
+    int[] src = new int[n];
+    int[] dst = new int[n];
+
+    for (int i = 0; i < n; i++) {
+      src[i] = i;
+    }
+
+    // start indices of the ascending runs, terminated by n
+    int[] runs = new int[n + 1];
+    int noOfRuns = 0;
+
+    for (int i = 0; i < n; i++) {
+      if ((i == 0) || (x[i - 1] > x[i])) {
+        runs[noOfRuns++] = i;
+      }
+    }
+
+    runs[noOfRuns] = n;
+
+    int[] swap;
+
+    while (noOfRuns > 1) {
+
+      int merged = 0;
+
+      for (int r = 0; r < noOfRuns; r += 2) {
+
+        final int lo = runs[r];
+        final int mid = runs[Math.min(r + 1, noOfRuns)];
+        final int hi = runs[Math.min(r + 2, noOfRuns)];
+
+        WaveformSorter.merge(x, src, dst, lo, mid, hi);
+
+        runs[merged++] = lo;
+      }
+
+      runs[merged] = n;
+      noOfRuns = merged;
+
+      swap = src;
+      src = dst;
+      dst = swap;
+    }
+
+    return src;
+  }
+
+  /**
+   * Merge the two sorted index ranges <code>[lo,mid)</code> and
+   * <code>[mid,hi)</code> of <code>src</code> into <code>dst</code>
+   *
+   * @param x   values referenced by the indices
+   * @param src source indices
+   * @param dst destination indices
+   * @param lo  start of the first range
+   * @param mid start of the second range
+   * @param hi  end of the second range
+   */
+  private static void merge(final double[] x, final int[] src,
+      final int[] dst, final int lo, final int mid, final int hi) {
+
+    int i = lo;
+    int j = mid;
+
+    for (int k = lo; k < hi; k++) {
+
+      if ((j >= hi) || ((i < mid) && (x[src[i]] <= x[src[j]]))) {
+        dst[k] = src[i++];
+      } else {
+        dst[k] = src[j++];
+      }
+    }
+  }
+
+  /**
+   * Create a reordered copy of an array
+   *
+   * @param values      array, is not modified
+   * @param permutation permutation, <code>null</code> when the array is
+   *                    already in order
+   * @return reordered copy, or <code>values</code> when no permutation is
+   *         given
+   */
+  static double[] reorder(final double[] values, final int[] permutation) {
+
+    if (permutation == null) {
+      return values;
+    }
+
+    final double[] retval = new double[values.length];
+
+    for (int i = 0; i < values.length; i++) {
+      retval[i] = values[permutation[i]];
+    }
+
+    return retval;
+  }
+
+  /**
+   * Reorder an array in place with a permutation
+   *
+   * @param values      array to be reordered
+   * @param permutation permutation
+   */
+  private static void apply(final double[] values, final int[] permutation) {
+
+    final double[] copy = values.clone();
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = copy[permutation[i]];
+    }
+  }
+}
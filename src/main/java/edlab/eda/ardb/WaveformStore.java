@@ -0,0 +1,670 @@
+package edlab.eda.ardb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.math3.complex.Complex;
+
+/**
+ * File format for storing the waves and values of a results database. The
+ * waves are stored as columns of little-endian doubles and are memory-mapped
+ * when the file is opened, i.e. the values are not loaded to the heap.
+ * <p>
+ * The file starts with a header that contains the values, the positions of
+ * the x-axes and the positions of the columns of every wave. Waves that share
+ * their x-axis in the database also share it in the file. The columns follow
+ * the header, the first column starts at a multiple of 8 bytes. Only the
+ * header is read when the file is opened, a wave is created when it is
+ * accessed for the first time.
+ * <p>
+ * Version 1 of the format contains only real values and waves. Version 2
+ * appends the complex values and waves to the header of version 1, i.e. both
+ * versions can be read.
+ */
+final class WaveformStore {
+
+  private static final int MAGIC = 0x42445241;
+  private static final int VERSION = 2;
+
+  private static final int BUFFER = 8192;
+
+  private final Map<String, RealValue> realValues = new HashMap<>();
+  private final Map<String, ComplexValue> complexValues = new HashMap<>();
+
+  private final Map<String, Entry> realEntries = new HashMap<>();
+  private final Map<String, Entry> complexEntries = new HashMap<>();
+
+  private final LazyWaveMap<RealWaveform> realWaves;
+  private final LazyWaveMap<ComplexWaveform> complexWaves;
+
+  private WaveformStore(final ByteBuffer header, final int version,
+      final DoubleBuffer[] chunks, final int shift) {
+
+    final int noOfRealValues = header.getInt();
+
+    String name;
+    String unit;
+
+    for (int i = 0; i < noOfRealValues; i++) {
+      name = WaveformStore.getString(header);
+      unit = WaveformStore.getString(header);
+      this.realValues.put(name, new RealValue(header.getDouble(), unit));
+    }
+
+    final Column[] axes = new Column[header.getInt()];
+
+    for (int i = 0; i < axes.length; i++) {
+      axes[i] = WaveformStore.column(header, chunks, shift);
+    }
+
+    WaveformStore.entries(header, axes, 1, this.realEntries);
+
+    if (version >= 2) {
+
+      final int noOfComplexValues = header.getInt();
+
+      for (int i = 0; i < noOfComplexValues; i++) {
+        name = WaveformStore.getString(header);
+        unit = WaveformStore.getString(header);
+        this.complexValues.put(name, new ComplexValue(
+            new Complex(header.getDouble(), header.getDouble()), unit));
+      }
+
+      WaveformStore.entries(header, axes, 2, this.complexEntries);
+    }
+
+    this.realWaves = new LazyWaveMap<>(
+        WaveformStore.sources(this.realEntries), wave -> {
+          final Entry entry = this.realEntries.get(wave);
+          return RealWaveform.buildSortedRealWaveform(entry.axis,
+              entry.column(0, chunks, shift), entry.unitX, entry.unitY);
+        });
+
+    this.complexWaves = new LazyWaveMap<>(
+        WaveformStore.sources(this.complexEntries), wave -> {
+          final Entry entry = this.complexEntries.get(wave);
+          return ComplexWaveform.buildSortedComplexWaveform(entry.axis,
+              entry.column(0, chunks, shift), entry.column(1, chunks, shift),
+              entry.unitX, entry.unitY);
+        });
+  }
+
+  /**
+   * Get the real values
+   *
+   * @return map of values
+   */
+  Map<String, RealValue> getRealValues() {
+    return this.realValues;
+  }
+
+  /**
+   * Get the complex values
+   *
+   * @return map of values
+   */
+  Map<String, ComplexValue> getComplexValues() {
+    return this.complexValues;
+  }
+
+  /**
+   * Get the real waves, which are created when they are accessed
+   *
+   * @return map of waves
+   */
+  Map<String, RealWaveform> getRealWaves() {
+    return this.realWaves;
+  }
+
+  /**
+   * Get the complex waves, which are created when they are accessed
+   *
+   * @return map of waves
+   */
+  Map<String, ComplexWaveform> getComplexWaves() {
+    return this.complexWaves;
+  }
+
+  /**
+   * Write real values and waves to a file
+   *
+   * @param path   path to the file
+   * @param values values, can be <code>null</code>
+   * @param waves  waves, can be <code>null</code>
+   * @return <code>true</code> when the file was written, <code>false</code>
+   *         otherwise
+   */
+  static boolean write(final String path, final Map<String, RealValue> values,
+      final Map<String, RealWaveform> waves) {
+    return WaveformStore.write(path, values, waves, null, null);
+  }
+
+  /**
+   * Write values and waves to a file
+   *
+   * @param path          path to the file
+   * @param realValues    real values, can be <code>null</code>
+   * @param realWaves     real waves, can be <code>null</code>
+   * @param complexValues complex values, can be <code>null</code>
+   * @param complexWaves  complex waves, can be <code>null</code>
+   * @return <code>true</code> when the file was written, <code>false</code>
+   *         otherwise
+   */
+  static boolean write(final String path,
+      final Map<String, RealValue> realValues,
+      final Map<String, RealWaveform> realWaves,
+      final Map<String, ComplexValue> complexValues,
+      final Map<String, ComplexWaveform> complexWaves) {
+
+    final Map<String, RealValue> sortedRealValues = new TreeMap<>();
+    final Map<String, ComplexValue> sortedComplexValues = new TreeMap<>();
+
+    if (realValues != null) {
+      sortedRealValues.putAll(realValues);
+    }
+
+    if (complexValues != null) {
+      sortedComplexValues.putAll(complexValues);
+    }
+
+    // only the names of the waves are sorted, a wave of a lazy map is created
+    // when its columns are written and is not kept afterwards
+    final Map<String, RealWaveform> real = realWaves == null
+        ? Collections.emptyMap()
+        : realWaves;
+    final Map<String, ComplexWaveform> complex = complexWaves == null
+        ? Collections.emptyMap()
+        : complexWaves;
+
+    final List<String> realNames = new ArrayList<>(real.keySet());
+    final List<String> complexNames = new ArrayList<>(complex.keySet());
+
+    Collections.sort(realNames);
+    Collections.sort(complexNames);
+
+    // axes with identical values are stored once
+    final IdentityHashMap<Column, Integer> axisIds = new IdentityHashMap<>();
+    final List<Column> axes = new ArrayList<>();
+
+    final Column[] realAxes = WaveformStore.axes(real, realNames, axisIds,
+        axes);
+    final Column[] complexAxes = WaveformStore.axes(complex, complexNames,
+        axisIds, axes);
+
+    // the columns of a wave have the size of its x-axis
+    final int[] size = new int[axes.size() + realAxes.length
+        + (2 * complexAxes.length)];
+
+    int i = 0;
+
+    for (final Column axis : axes) {
+      size[i++] = axis.size();
+    }
+
+    for (final Column axis : realAxes) {
+      size[i++] = axis.size();
+    }
+
+    for (final Column axis : complexAxes) {
+      size[i++] = axis.size();
+      size[i++] = axis.size();
+    }
+
+    final long[] index = new long[size.length];
+
+    for (i = 1; i < index.length; i++) {
+      index[i] = index[i - 1] + size[i - 1];
+    }
+
+    final byte[] header = WaveformStore.header(sortedRealValues, real,
+        realNames, realAxes, sortedComplexValues, complex, complexNames,
+        complexAxes, axisIds, index, size, axes.size());
+
+    try (FileChannel channel = FileChannel.open(Paths.get(path),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+
+      WaveformStore.write(channel, ByteBuffer.wrap(header));
+
+      final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER * Double.BYTES)
+          .order(ByteOrder.LITTLE_ENDIAN);
+      final DoubleBuffer doubles = buffer.asDoubleBuffer();
+      final double[] block = new double[BUFFER];
+
+      for (final Column axis : axes) {
+        WaveformStore.write(channel, axis, buffer, doubles, block);
+      }
+
+      RealWaveform realWave;
+
+      for (i = 0; i < realAxes.length; i++) {
+
+        realWave = LazyWaveMap.load(real, realNames.get(i));
+
+        if (realWave.getYColumn().size() != realAxes[i].size()) {
+          System.err.println("Unable to write \"" + path + "\": wave \""
+              + realNames.get(i) + "\" does not match its x-axis");
+          return false;
+        }
+
+        WaveformStore.write(channel, realWave.getYColumn(), buffer, doubles,
+            block);
+      }
+
+      ComplexWaveform complexWave;
+
+      for (i = 0; i < complexAxes.length; i++) {
+
+        complexWave = LazyWaveMap.load(complex, complexNames.get(i));
+
+        if (complexWave.getYRealColumn().size() != complexAxes[i].size()) {
+          System.err.println("Unable to write \"" + path + "\": wave \""
+              + complexNames.get(i) + "\" does not match its x-axis");
+          return false;
+        }
+
+        WaveformStore.write(channel, complexWave.getYRealColumn(), buffer,
+            doubles, block);
+        WaveformStore.write(channel, complexWave.getYImagColumn(), buffer,
+            doubles, block);
+      }
+
+      return true;
+
+    } catch (final IOException e) {
+      System.err.println("Unable to write \"" + path + "\": " + e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Get the x-axes of waves and assign an id to every new x-axis
+   *
+   * @param waves   waves
+   * @param names   names of the waves
+   * @param axisIds map where the ids of new x-axes are added
+   * @param axes    list where new x-axes are added
+   * @return x-axis of every wave
+   */
+  private static Column[] axes(final Map<String, ? extends Waveform> waves,
+      final List<String> names, final IdentityHashMap<Column, Integer> axisIds,
+      final List<Column> axes) {
+
+    final Column[] retval = new Column[names.size()];
+
+    for (int i = 0; i < retval.length; i++) {
+
+      retval[i] = AxisRegistry.intern(LazyWaveMap.getAxis(waves, names.get(i)));
+
+      if (!axisIds.containsKey(retval[i])) {
+        axisIds.put(retval[i], axisIds.size());
+        axes.add(retval[i]);
+      }
+    }
+
+    return retval;
+  }
+
+  /**
+   * Write the values of a column to a file
+   */
+  private static void write(final FileChannel channel, final Column column,
+      final ByteBuffer buffer, final DoubleBuffer doubles, final double[] block)
+      throws IOException {
+
+    int length;
+
+    for (int from = 0; from < column.size(); from += BUFFER) {
+
+      length = Math.min(BUFFER, column.size() - from);
+
+      column.copy(from, block, 0, length);
+
+      doubles.clear();
+      doubles.put(block, 0, length);
+
+      buffer.clear();
+      buffer.limit(length * Double.BYTES);
+
+      WaveformStore.write(channel, buffer);
+    }
+  }
+
+  /**
+   * Open a file and memory-map the waves
+   *
+   * @param path path to the file
+   * @return store, <code>null</code> when the file cannot be read
+   */
+  static WaveformStore open(final String path) {
+    return WaveformStore.open(path, MappedColumn.CHUNK_SHIFT);
+  }
+
+  /**
+   * Open a file and memory-map the waves
+   *
+   * @param path  path to the file
+   * @param shift binary logarithm of the number of values in one mapped chunk
+   * @return store, <code>null</code> when the file cannot be read
+   */
+  static WaveformStore open(final String path, final int shift) {
+
+    try (FileChannel channel = FileChannel.open(Paths.get(path),
+        StandardOpenOption.READ)) {
+
+      final ByteBuffer start = ByteBuffer.allocate(16)
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      WaveformStore.read(channel, start, 0);
+
+      final int magic = start.getInt();
+      final int version = start.getInt();
+
+      if ((magic != MAGIC) || (version < 1) || (version > VERSION)) {
+        System.err.println("\"" + path + "\" is not a waveform store");
+        return null;
+      }
+
+      final long dataOffset = start.getLong();
+
+      final ByteBuffer header = ByteBuffer.allocate((int) dataOffset - 16)
+          .order(ByteOrder.LITTLE_ENDIAN);
+
+      WaveformStore.read(channel, header, 16);
+
+      final DoubleBuffer[] chunks = MappedColumn.map(channel, dataOffset,
+          channel.size() - dataOffset, shift);
+
+      return new WaveformStore(header, version, chunks, shift);
+
+    } catch (final IOException | RuntimeException e) {
+      System.err.println("Unable to read \"" + path + "\": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Open a file and memory-map the real waves
+   *
+   * @param path   path to the file
+   * @param values map where the values are added
+   * @param waves  map where the waves are added
+   * @param shift  binary logarithm of the number of values in one mapped
+   *               chunk
+   * @return <code>true</code> when the file was opened, <code>false</code>
+   *         otherwise
+   */
+  static boolean read(final String path, final Map<String, RealValue> values,
+      final Map<String, RealWaveform> waves, final int shift) {
+
+    final WaveformStore store = WaveformStore.open(path, shift);
+
+    if (store == null) {
+      return false;
+    }
+
+    values.putAll(store.getRealValues());
+    waves.putAll(store.getRealWaves());
+
+    return true;
+  }
+
+  /**
+   * Create the header of a file
+   */
+  private static byte[] header(final Map<String, RealValue> realValues,
+      final Map<String, RealWaveform> realWaves, final List<String> realNames,
+      final Column[] realAxes, final Map<String, ComplexValue> complexValues,
+      final Map<String, ComplexWaveform> complexWaves,
+      final List<String> complexNames, final Column[] complexAxes,
+      final IdentityHashMap<Column, Integer> axisIds, final long[] index,
+      final int[] size, final int noOfAxes) {
+
+    final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+    WaveformStore.putInt(stream, realValues.size());
+
+    for (final Map.Entry<String, RealValue> entry : realValues.entrySet()) {
+      WaveformStore.putString(stream, entry.getKey());
+      WaveformStore.putString(stream, entry.getValue().getUnit());
+      WaveformStore.putLong(stream,
+          Double.doubleToRawLongBits(entry.getValue().getValue()));
+    }
+
+    WaveformStore.putInt(stream, noOfAxes);
+
+    for (int i = 0; i < noOfAxes; i++) {
+      WaveformStore.putLong(stream, index[i]);
+      WaveformStore.putInt(stream, size[i]);
+    }
+
+    int i = noOfAxes;
+
+    WaveformStore.putInt(stream, realNames.size());
+
+    for (int k = 0; k < realNames.size(); k++) {
+      WaveformStore.putWave(stream, realNames.get(k), realWaves,
+          axisIds.get(realAxes[k]));
+      WaveformStore.putLong(stream, index[i]);
+      WaveformStore.putInt(stream, size[i]);
+      i++;
+    }
+
+    WaveformStore.putInt(stream, complexValues.size());
+
+    for (final Map.Entry<String, ComplexValue> entry : complexValues
+        .entrySet()) {
+      WaveformStore.putString(stream, entry.getKey());
+      WaveformStore.putString(stream, entry.getValue().getUnit());
+      WaveformStore.putLong(stream,
+          Double.doubleToRawLongBits(entry.getValue().getValue().getReal()));
+      WaveformStore.putLong(stream, Double
+          .doubleToRawLongBits(entry.getValue().getValue().getImaginary()));
+    }
+
+    WaveformStore.putInt(stream, complexNames.size());
+
+    for (int k = 0; k < complexNames.size(); k++) {
+      WaveformStore.putWave(stream, complexNames.get(k), complexWaves,
+          axisIds.get(complexAxes[k]));
+      for (int j = 0; j < 2; j++) {
+        WaveformStore.putLong(stream, index[i]);
+        WaveformStore.putInt(stream, size[i]);
+        i++;
+      }
+    }
+
+    // the columns start at a multiple of 8 bytes
+    final int length = 16 + stream.size();
+    final long dataOffset = (length + 7) & ~7L;
+
+    final ByteArrayOutputStream retval = new ByteArrayOutputStream();
+
+    WaveformStore.putInt(retval, MAGIC);
+    WaveformStore.putInt(retval, VERSION);
+    WaveformStore.putLong(retval, dataOffset);
+
+    retval.write(stream.toByteArray(), 0, stream.size());
+
+    while (retval.size() < dataOffset) {
+      retval.write(0);
+    }
+
+    return retval.toByteArray();
+  }
+
+  /**
+   * Write the name, the units and the x-axis of a wave to the header. The
+   * units of a wave of a lazy map are written without creating the wave.
+   */
+  private static void putWave(final ByteArrayOutputStream stream,
+      final String name, final Map<String, ? extends Waveform> waves,
+      final int axisId) {
+    WaveformStore.putString(stream, name);
+    WaveformStore.putString(stream, LazyWaveMap.getUnitX(waves, name));
+    WaveformStore.putString(stream, LazyWaveMap.getUnitY(waves, name));
+    WaveformStore.putInt(stream, axisId);
+  }
+
+  /**
+   * Read the waves of one type from the header
+   *
+   * @param header    header
+   * @param axes      x-axes
+   * @param noOfYCols number of columns with y-values of every wave
+   * @param entries   map where the waves are added
+   */
+  private static void entries(final ByteBuffer header, final Column[] axes,
+      final int noOfYCols, final Map<String, Entry> entries) {
+
+    final int noOfWaves = header.getInt();
+
+    String name;
+    Entry entry;
+
+    for (int i = 0; i < noOfWaves; i++) {
+
+      name = WaveformStore.getString(header);
+
+      entry = new Entry(WaveformStore.getString(header),
+          WaveformStore.getString(header), axes[header.getInt()], noOfYCols);
+
+      for (int j = 0; j < noOfYCols; j++) {
+        entry.index[j] = header.getLong();
+        entry.size[j] = header.getInt();
+      }
+
+      entries.put(name, entry);
+    }
+  }
+
+  /**
+   * Get the sources of waves, the name of a wave is passed to the loader
+   */
+  private static Map<String, LazyWaveMap.Source> sources(
+      final Map<String, Entry> entries) {
+
+    final Map<String, LazyWaveMap.Source> retval = new HashMap<>();
+
+    Entry entry;
+
+    for (final String name : entries.keySet()) {
+      entry = entries.get(name);
+      retval.put(name,
+          new LazyWaveMap.Source(name, entry.axis, entry.unitX, entry.unitY));
+    }
+
+    return retval;
+  }
+
+  /**
+   * Read the position of a column from the header and create the column
+   */
+  private static Column column(final ByteBuffer header,
+      final DoubleBuffer[] chunks, final int shift) {
+
+    final long index = header.getLong();
+    final int size = header.getInt();
+
+    return new MappedColumn(chunks, shift, index, size);
+  }
+
+  /**
+   * Position of a wave in the file
+   */
+  private static final class Entry {
+
+    private final String unitX;
+    private final String unitY;
+    private final Column axis;
+    private final long[] index;
+    private final int[] size;
+
+    private Entry(final String unitX, final String unitY, final Column axis,
+        final int noOfYCols) {
+      this.unitX = unitX;
+      this.unitY = unitY;
+      this.axis = axis;
+      this.index = new long[noOfYCols];
+      this.size = new int[noOfYCols];
+    }
+
+    private Column column(final int i, final DoubleBuffer[] chunks,
+        final int shift) {
+      return new MappedColumn(chunks, shift, this.index[i], this.size[i]);
+    }
+  }
+
+  private static void putInt(final ByteArrayOutputStream stream,
+      final int value) {
+    for (int i = 0; i < 4; i++) {
+      stream.write(value >>> (8 * i));
+    }
+  }
+
+  private static void putLong(final ByteArrayOutputStream stream,
+      final long value) {
+    for (int i = 0; i < 8; i++) {
+      stream.write((int) (value >>> (8 * i)));
+    }
+  }
+
+  private static void putString(final ByteArrayOutputStream stream,
+      final String value) {
+
+    final byte[] bytes = value == null ? new byte[0]
+        : value.getBytes(StandardCharsets.UTF_8);
+
+    WaveformStore.putInt(stream, bytes.length);
+    stream.write(bytes, 0, bytes.length);
+  }
+
+  private static String getString(final ByteBuffer buffer) {
+
+    final byte[] bytes = new byte[buffer.getInt()];
+
+    buffer.get(bytes);
+
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void write(final FileChannel channel,
+      final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static void read(final FileChannel channel, final ByteBuffer buffer,
+      long position) throws IOException {
+
+    int count;
+
+    while (buffer.hasRemaining()) {
+
+      count = channel.read(buffer, position);
+
+      if (count < 0) {
+        throw new IOException("Unexpected end of file");
+      }
+
+      position += count;
+    }
+
+    buffer.flip();
+  }
+}
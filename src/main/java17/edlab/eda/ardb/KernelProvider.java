@@ -0,0 +1,32 @@
+package edlab.eda.ardb;
+
+/**
+ * Provides the implementation of the {@link ArrayKernels}. This is the
+ * Java 17 variant, which provides the {@link VectorKernels} when the module
+ * <code>jdk.incubator.vector</code> is available, i.e. when the JVM is
+ * started with <code>--add-modules jdk.incubator.vector</code>. The Vector API
+ * is not used when the system property <code>edlab.eda.ardb.vector</code> is
+ * <code>false</code>.
+ */
+final class KernelProvider {
+
+  private KernelProvider() {
+  }
+
+  /**
+   * Get the kernels
+   *
+   * @return kernels
+   */
+  static ArrayKernels get() {
+
+    if (Boolean
+        .parseBoolean(System.getProperty("edlab.eda.ardb.vector", "true"))
+        && ModuleLayer.boot().findModule("jdk.incubator.vector")
+            .isPresent()) {
+      return new VectorKernels();
+    }
+
+    return new ArrayKernels();
+  }
+}
@@ -0,0 +1,303 @@
+package edlab.eda.ardb;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ArrayKernels} based on the Vector API. The element-wise arithmetic,
+ * the absolute values and the extrema are bitwise identical to the scalar
+ * kernels. The logarithms deviate by at most one ulp and the integral differs
+ * in the order of the summation.
+ */
+final class VectorKernels extends ArrayKernels {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector
+      .SPECIES_PREFERRED;
+
+  @Override
+  void add(final double[] a, final int aPos, final double[] b, final int bPos,
+      final double[] dst, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i)
+          .add(DoubleVector.fromArray(SPECIES, b, bPos + i))
+          .intoArray(dst, dstPos + i);
+    }
+
+    super.add(a, aPos + i, b, bPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void subtract(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i)
+          .sub(DoubleVector.fromArray(SPECIES, b, bPos + i))
+          .intoArray(dst, dstPos + i);
+    }
+
+    super.subtract(a, aPos + i, b, bPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void multiply(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i)
+          .mul(DoubleVector.fromArray(SPECIES, b, bPos + i))
+          .intoArray(dst, dstPos + i);
+    }
+
+    super.multiply(a, aPos + i, b, bPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void divide(final double[] a, final int aPos, final double[] b,
+      final int bPos, final double[] dst, final int dstPos,
+      final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i)
+          .div(DoubleVector.fromArray(SPECIES, b, bPos + i))
+          .intoArray(dst, dstPos + i);
+    }
+
+    super.divide(a, aPos + i, b, bPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void add(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i).add(b).intoArray(dst,
+          dstPos + i);
+    }
+
+    super.add(a, aPos + i, b, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void multiply(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i).mul(b).intoArray(dst,
+          dstPos + i);
+    }
+
+    super.multiply(a, aPos + i, b, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void divide(final double[] a, final int aPos, final double b,
+      final double[] dst, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i).div(b).intoArray(dst,
+          dstPos + i);
+    }
+
+    super.divide(a, aPos + i, b, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void abs(final double[] a, final int aPos, final double[] dst,
+      final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i).abs().intoArray(dst,
+          dstPos + i);
+    }
+
+    super.abs(a, aPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void log10(final double[] a, final int aPos, final double factor,
+      final double[] dst, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      DoubleVector.fromArray(SPECIES, a, aPos + i)
+          .lanewise(VectorOperators.LOG10).mul(factor)
+          .intoArray(dst, dstPos + i);
+    }
+
+    super.log10(a, aPos + i, factor, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void abs(final double[] re, final int rePos, final double[] im,
+      final int imPos, final double[] dst, final int dstPos,
+      final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    DoubleVector vRe;
+    DoubleVector vIm;
+    DoubleVector big;
+    DoubleVector q;
+    DoubleVector abs;
+    VectorMask<Double> infinite;
+
+    int i = 0;
+
+    // same scaling as ComplexMath.abs, the special cases are blended in
+    for (; i < bound; i += SPECIES.length()) {
+
+      vRe = DoubleVector.fromArray(SPECIES, re, rePos + i).abs();
+      vIm = DoubleVector.fromArray(SPECIES, im, imPos + i).abs();
+
+      big = vRe.max(vIm);
+      q = vRe.min(vIm).div(big);
+
+      abs = q.mul(q).add(1.0).sqrt().mul(big);
+
+      abs = abs.blend(0.0, big.compare(VectorOperators.EQ, 0.0));
+
+      infinite = vRe.test(VectorOperators.IS_INFINITE)
+          .or(vIm.test(VectorOperators.IS_INFINITE));
+
+      abs = abs.blend(Double.POSITIVE_INFINITY, infinite);
+
+      abs = abs.blend(Double.NaN, vRe.test(VectorOperators.IS_NAN)
+          .or(vIm.test(VectorOperators.IS_NAN)));
+
+      abs.intoArray(dst, dstPos + i);
+    }
+
+    super.abs(re, rePos + i, im, imPos + i, dst, dstPos + i, length - i);
+  }
+
+  @Override
+  void multiply(final double[] aRe, final int aRePos, final double[] aIm,
+      final int aImPos, final double[] bRe, final int bRePos,
+      final double[] bIm, final int bImPos, final double[] dstRe,
+      final double[] dstIm, final int dstPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    DoubleVector vaRe;
+    DoubleVector vaIm;
+    DoubleVector vbRe;
+    DoubleVector vbIm;
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+
+      vaRe = DoubleVector.fromArray(SPECIES, aRe, aRePos + i);
+      vaIm = DoubleVector.fromArray(SPECIES, aIm, aImPos + i);
+      vbRe = DoubleVector.fromArray(SPECIES, bRe, bRePos + i);
+      vbIm = DoubleVector.fromArray(SPECIES, bIm, bImPos + i);
+
+      vaRe.mul(vbRe).sub(vaIm.mul(vbIm)).intoArray(dstRe, dstPos + i);
+      vaRe.mul(vbIm).add(vaIm.mul(vbRe)).intoArray(dstIm, dstPos + i);
+    }
+
+    super.multiply(aRe, aRePos + i, aIm, aImPos + i, bRe, bRePos + i, bIm,
+        bImPos + i, dstRe, dstIm, dstPos + i, length - i);
+  }
+
+  @Override
+  double min(final double[] a, final int aPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    DoubleVector min = DoubleVector.broadcast(SPECIES,
+        Double.POSITIVE_INFINITY);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      min = min.min(DoubleVector.fromArray(SPECIES, a, aPos + i));
+    }
+
+    return Math.min(min.reduceLanes(VectorOperators.MIN),
+        super.min(a, aPos + i, length - i));
+  }
+
+  @Override
+  double max(final double[] a, final int aPos, final int length) {
+
+    final int bound = SPECIES.loopBound(length);
+
+    DoubleVector max = DoubleVector.broadcast(SPECIES,
+        Double.NEGATIVE_INFINITY);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      max = max.max(DoubleVector.fromArray(SPECIES, a, aPos + i));
+    }
+
+    return Math.max(max.reduceLanes(VectorOperators.MAX),
+        super.max(a, aPos + i, length - i));
+  }
+
+  @Override
+  double trapezoid(final double[] x, final int xPos, final double[] y,
+      final int yPos, final int length) {
+
+    // segments between the points i and i+1
+    final int segments = Math.max(length - 1, 0);
+    final int bound = SPECIES.loopBound(segments);
+
+    DoubleVector sum = DoubleVector.zero(SPECIES);
+
+    int i = 0;
+
+    for (; i < bound; i += SPECIES.length()) {
+      sum = DoubleVector.fromArray(SPECIES, x, xPos + i + 1)
+          .sub(DoubleVector.fromArray(SPECIES, x, xPos + i))
+          .mul(DoubleVector.fromArray(SPECIES, y, yPos + i + 1)
+              .add(DoubleVector.fromArray(SPECIES, y, yPos + i)))
+          .div(2.0).add(sum);
+    }
+
+    return sum.reduceLanes(VectorOperators.ADD)
+        + super.trapezoid(x, xPos + i, y, yPos + i, length - i);
+  }
+}
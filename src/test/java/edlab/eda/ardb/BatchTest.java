@@ -0,0 +1,98 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BatchTest {
+
+  private static double[] axis(final int points) {
+
+    final double[] x = new double[points];
+
+    for (int i = 0; i < points; i++) {
+      x[i] = i * 0.1;
+    }
+
+    return x;
+  }
+
+  private static double[] noise(final int points, final Random random) {
+
+    final double[] y = new double[points];
+
+    for (int i = 0; i < points; i++) {
+      y[i] = Math.sin(i * 0.01) + (0.2 * random.nextGaussian());
+    }
+
+    return y;
+  }
+
+  @Test
+  void valueAt() {
+
+    final Random random = new Random(1);
+
+    final double[] x = axis(1000);
+    final RealWaveform real = RealWaveform.buildRealWaveform(x,
+        noise(1000, random), "s", "V");
+    final ComplexWaveform complex = ComplexWaveform.buildComplexWaveform(x,
+        noise(1000, random), noise(1000, random), "Hz", "V");
+
+    final double[] positions = new double[500];
+
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = (random.nextDouble() * 110) - 5;
+    }
+
+    final double[] values = new double[positions.length];
+    final double[] re = new double[positions.length];
+    final double[] im = new double[positions.length];
+
+    assertTrue(real.valueAt(positions, values));
+    assertTrue(complex.valueAt(positions, re, im));
+
+    for (int i = 0; i < positions.length; i++) {
+      assertEquals(real.valueAt(positions[i]), values[i]);
+      assertEquals(complex.getValue(positions[i]).getValue().getReal(), re[i]);
+      assertEquals(complex.getValue(positions[i]).getValue().getImaginary(),
+          im[i]);
+    }
+
+    assertFalse(real.valueAt(positions, new double[1]));
+  }
+
+  @Test
+  void crossAll() {
+
+    final Random random = new Random(2);
+
+    final double[] levels = new double[40];
+
+    for (int k = 0; k < levels.length; k++) {
+      levels[k] = (random.nextDouble() * 3) - 1.5;
+    }
+
+    final double[] dst = new double[levels.length];
+
+    // without and with a min/max index
+    for (final int points : new int[] { 200, 5000 }) {
+
+      final RealWaveform wave = RealWaveform.buildRealWaveform(axis(points),
+          noise(points, random), "s", "V");
+
+      for (final int edge : new int[] { 0, 1, 3, 50 }) {
+
+        assertTrue(wave.crossAll(levels, edge, dst));
+
+        for (int k = 0; k < levels.length; k++) {
+          assertEquals(wave.crossAt(levels[k], edge), dst[k]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+class ClipTest {
+
+  public static final double COMP = 1e-12;
+
+  private static RealWaveform wave() {
+    return RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 1.0, 2.0, 3.0, 4.0 },
+        new double[] { 0.0, 2.0, 4.0, 2.0, 0.0 }, "s", "V");
+  }
+
+  @Test
+  void interpolatedEdges() {
+
+    final RealWaveform clip = wave().clip(0.5, 3.5);
+
+    assertArrayEquals(new double[] { 0.5, 1.0, 2.0, 3.0, 3.5 }, clip.getX(),
+        COMP);
+    assertArrayEquals(new double[] { 1.0, 2.0, 4.0, 2.0, 1.0 }, clip.getY(),
+        COMP);
+  }
+
+  @Test
+  void exactEdges() {
+
+    final RealWaveform clip = wave().clip(1.0, 3.0);
+
+    assertArrayEquals(new double[] { 1.0, 2.0, 3.0 }, clip.getX(), COMP);
+    assertArrayEquals(new double[] { 2.0, 4.0, 2.0 }, clip.getY(), COMP);
+  }
+
+  @Test
+  void nested() {
+
+    final RealWaveform clip = wave().clip(0.5, 3.5).clip(0.75, 3.0);
+
+    assertArrayEquals(new double[] { 0.75, 1.0, 2.0, 3.0 }, clip.getX(),
+        COMP);
+    assertArrayEquals(new double[] { 1.5, 2.0, 4.0, 2.0 }, clip.getY(), COMP);
+    assertEquals(3.0, clip.getValue(2.5).getValue(), COMP);
+  }
+
+  @Test
+  void betweenPoints() {
+
+    final RealWaveform clip = wave().clip(1.25, 1.75);
+
+    assertArrayEquals(new double[] { 1.25, 1.75 }, clip.getX(), COMP);
+    assertArrayEquals(new double[] { 2.5, 3.5 }, clip.getY(), COMP);
+
+    assertTrue(wave().clip(3.0, 1.0).isEmpty());
+  }
+
+  @Test
+  void complex() {
+
+    final ComplexWaveform wave = ComplexWaveform.buildComplexWaveform(
+        new double[] { 0.0, 1.0, 2.0 },
+        new Complex[] { new Complex(0.0, 2.0), new Complex(2.0, 0.0),
+            new Complex(4.0, -2.0) },
+        "Hz", "V");
+
+    final ComplexWaveform clip = (ComplexWaveform) wave.clip(0.5, 1.0);
+
+    assertArrayEquals(new double[] { 0.5, 1.0 }, clip.getX(), COMP);
+    assertArrayEquals(new double[] { 1.0, 2.0 }, clip.getYReal(), COMP);
+    assertArrayEquals(new double[] { 1.0, 0.0 }, clip.getYImag(), COMP);
+  }
+}
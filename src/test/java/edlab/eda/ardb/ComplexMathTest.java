@@ -0,0 +1,105 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+class ComplexMathTest {
+
+  private static final double[] SPECIAL = { 0.0, -0.0, 1.0, -1.0,
+      Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+      Double.MIN_VALUE, Double.MAX_VALUE };
+
+  /**
+   * Random values with a large range of magnitudes and all special values
+   */
+  private static double[] values(final int n) {
+
+    final Random random = new Random(1234);
+    final double[] retval = new double[n + SPECIAL.length];
+
+    for (int i = 0; i < n; i++) {
+      retval[i] = random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10);
+    }
+
+    System.arraycopy(SPECIAL, 0, retval, n, SPECIAL.length);
+
+    return retval;
+  }
+
+  @Test
+  void scalar() {
+
+    final double[] re = values(200);
+    final double[] im = values(200);
+
+    final double[] outRe = new double[1];
+    final double[] outIm = new double[1];
+
+    Complex a;
+    Complex b;
+
+    for (int i = 0; i < re.length; i++) {
+      for (int j = 0; j < im.length; j += 7) {
+
+        a = new Complex(re[i], im[j]);
+        b = new Complex(im[i], re[j]);
+
+        assertEquals(a.abs(), ComplexMath.abs(re[i], im[j]));
+        assertEquals(a.getArgument(), ComplexMath.argument(re[i], im[j]));
+
+        ComplexMath.divide(re[i], im[j], im[i], re[j], outRe, outIm, 0);
+
+        assertEquals(a.divide(b).getReal(), outRe[0]);
+        assertEquals(a.divide(b).getImaginary(), outIm[0]);
+
+        ComplexMath.divide(re[i], im[j], re[j], outRe, outIm, 0);
+
+        assertEquals(a.divide(re[j]).getReal(), outRe[0]);
+        assertEquals(a.divide(re[j]).getImaginary(), outIm[0]);
+      }
+    }
+  }
+
+  @Test
+  void waveform() {
+
+    final int n = 500;
+
+    final double[] x = new double[n];
+    final double[] re = values(n - SPECIAL.length);
+    final double[] im = values(n - SPECIAL.length);
+    final Complex[] y = new Complex[n];
+    final double[] divisor = new double[n];
+
+    for (int i = 0; i < n; i++) {
+      x[i] = i;
+      im[i] = -im[i] * 3;
+      y[i] = new Complex(re[i], im[i]);
+      divisor[i] = re[(i * 31) % n];
+    }
+
+    final ComplexWaveform split = ComplexWaveform.buildComplexWaveform(x, re,
+        im, "Hz", "V");
+    final ComplexWaveform boxed = ComplexWaveform.buildComplexWaveform(x, y,
+        "Hz", "V");
+    final RealWaveform real = RealWaveform.buildRealWaveform(x, divisor, "Hz",
+        "V");
+
+    final double[] phase = split.phaseDeg().getY();
+    final double[] quotient = split.divide(real).real().getY();
+    final double[] complexQuotient = split.divide(boxed.conjugate()).imag()
+        .getY();
+
+    for (int i = 0; i < n; i++) {
+      assertEquals((y[i].getArgument() / Math.PI) * 180, phase[i]);
+      assertEquals(y[i].divide(divisor[i]).getReal(), quotient[i]);
+      assertEquals(y[i].divide(y[i].conjugate()).getImaginary(),
+          complexQuotient[i]);
+      assertEquals(y[i], boxed.getY()[i]);
+    }
+  }
+}
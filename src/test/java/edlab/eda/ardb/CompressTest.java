@@ -0,0 +1,64 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CompressTest {
+
+  public static final double TOL = 1e-3;
+
+  /**
+   * Clock-like waveform with smooth edges and noise on the flat regions
+   */
+  private static RealWaveform clock(final int points) {
+    return TestWaves.wave(points, 1e-9,
+        (i, x) -> (0.9 * Math.tanh(20 * Math.sin(i * 2e-3))) + 0.9
+            + (1e-4 * Math.sin(i * 0.7)));
+  }
+
+  @Test
+  void bound() {
+
+    final RealWaveform wave = clock(100000);
+    final RealWaveform compressed = wave.compress(TOL);
+
+    final double[] x = wave.getX();
+    final double[] y = wave.getY();
+
+    assertTrue(compressed.getX().length < (x.length / 10));
+    assertEquals(wave.xmin().getValue(), compressed.xmin().getValue());
+    assertEquals(wave.xmax().getValue(), compressed.xmax().getValue());
+
+    for (int i = 0; i < x.length; i++) {
+      assertTrue(
+          Math.abs(compressed.valueAt(x[i]) - y[i]) <= (TOL * 1.000001));
+    }
+
+    assertEquals(wave.integrate().getValue(),
+        compressed.integrate().getValue(), TOL * wave.xmax().getValue());
+  }
+
+  @Test
+  void special() {
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(
+        new double[] { 0, 1, 2, 2, 3, 4, 5, 6, 7 },
+        new double[] { 0, 0, 0, 1, 1, 1, Double.NaN, 1, 1 }, "s", "V");
+
+    final RealWaveform compressed = wave.compress(0.1);
+
+    // the step, the NaN and its neighbors are kept
+    assertEquals(7, compressed.getX().length);
+    assertTrue(Double.isNaN(compressed.valueAt(5.5)));
+    assertEquals(1.0, compressed.valueAt(3.5));
+
+    final RealWaveform line = RealWaveform.buildRealWaveform(
+        new double[] { 0, 1 }, new double[] { 0, 1 }, "s", "V");
+
+    assertSame(line, line.compress(0.1));
+    assertSame(line, line.compress(-1));
+  }
+}
@@ -0,0 +1,150 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class CompressedColumnTest {
+
+  /**
+   * Transient with a settling oscillation on a uniform time axis
+   */
+  private static RealWaveform settling(final int points) {
+    return TestWaves.wave(points, 1e-9,
+        (i, x) -> 1.2 * (1 - (Math.exp(-i * 1e-4) * Math.cos(i * 1e-3))));
+  }
+
+  @Test
+  void lossless() {
+
+    final Random random = new Random(4711);
+
+    final double[] values = new double[3000];
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = random.nextGaussian() * Math.pow(10, random.nextInt(40) - 20);
+    }
+
+    values[17] = Double.NaN;
+    values[18] = Double.POSITIVE_INFINITY;
+    values[19] = -0.0;
+    values[1024] = Double.NEGATIVE_INFINITY;
+    values[1025] = values[1024];
+
+    final Column axis = CompressedColumn.axis(Column.of(values));
+    final Column y = CompressedColumn.values(Column.of(values));
+
+    assertArrayEquals(values, axis.toArray());
+    assertArrayEquals(values, y.toArray());
+
+    for (int i = values.length - 1; i >= 0; i -= 7) {
+      assertEquals(Double.doubleToRawLongBits(values[i]),
+          Double.doubleToRawLongBits(y.get(i)));
+      assertEquals(Double.doubleToRawLongBits(values[i]),
+          Double.doubleToRawLongBits(axis.get(i)));
+    }
+
+    final Column slice = y.slice(1000, 2100);
+
+    assertEquals(1100, slice.size());
+    assertEquals(values[1000], slice.get(0));
+    assertEquals(values[2099], slice.get(1099));
+    assertArrayEquals(Arrays.copyOfRange(values, 1000, 2100),
+        slice.toArray());
+  }
+
+  @Test
+  void measurements() {
+
+    final RealWaveform wave = settling(50000);
+    final RealWaveform compact = wave.compact();
+
+    assertArrayEquals(wave.getX(), compact.getX());
+    assertArrayEquals(wave.getY(), compact.getY());
+
+    assertEquals(wave.getValue(12345.6e-9).getValue(),
+        compact.getValue(12345.6e-9).getValue());
+    assertEquals(wave.crossAt(1.2, 2), compact.crossAt(1.2, 2));
+    assertEquals(wave.ymaxAsDouble(), compact.ymaxAsDouble());
+    assertEquals(wave.ymaxAsDouble(1e-5, 3e-5),
+        compact.ymaxAsDouble(1e-5, 3e-5));
+    assertEquals(wave.integrate().getValue(),
+        compact.integrate().getValue());
+  }
+
+  @Test
+  void comparisons() {
+
+    final RealWaveform wave = settling(40000);
+    final RealWaveform compact = wave.compact();
+    final RealWaveform lower = wave.add(-1.0);
+
+    assertTrue(wave.lessThanOrEqualTo(compact));
+    assertTrue(wave.greaterThanOrEqualTo(compact));
+    assertTrue(lower.lessThan(compact));
+    assertTrue(compact.greaterThan(lower));
+    assertFalse(wave.lessThan(compact));
+    assertFalse(compact.greaterThan(wave));
+  }
+
+  @Test
+  void bytes() {
+
+    final RealWaveform wave = settling(1 << 16);
+    final int n = wave.getX().length;
+
+    final CompressedColumn x = (CompressedColumn) CompressedColumn
+        .axis(Column.of(wave.getX()));
+    final CompressedColumn y = (CompressedColumn) CompressedColumn
+        .values(Column.of(wave.getY()));
+
+    // a uniform axis takes less than a byte per point
+    assertTrue(x.bytes() < n);
+    assertTrue(y.bytes() < (8L * n));
+  }
+
+  /**
+   * Report the bytes per point and the decode throughput. The benchmark is
+   * excluded from the regular build, run it with
+   * <code>mvn test -Dgroups=benchmark -DexcludedGroups=none</code>.
+   */
+  @Test
+  @Tag("benchmark")
+  void benchmark() {
+
+    final RealWaveform wave = settling(1 << 20);
+    final int n = wave.getX().length;
+
+    final CompressedColumn x = (CompressedColumn) CompressedColumn
+        .axis(Column.of(wave.getX()));
+    final CompressedColumn y = (CompressedColumn) CompressedColumn
+        .values(Column.of(wave.getY()));
+
+    final double[] dst = new double[n];
+
+    // warm-up
+    x.copy(0, dst, 0, n);
+    y.copy(0, dst, 0, n);
+
+    long time = System.nanoTime();
+
+    for (int k = 0; k < 10; k++) {
+      x.copy(0, dst, 0, n);
+      y.copy(0, dst, 0, n);
+    }
+
+    time = System.nanoTime() - time;
+
+    System.out.printf(
+        "x: %.3f bytes/point, y: %.3f bytes/point, decode: %.1f Mpoints/s%n",
+        (double) x.bytes() / n, (double) y.bytes() / n,
+        (20.0 * n * 1e3) / time);
+  }
+}
@@ -0,0 +1,130 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+class ConstantColumnTest {
+
+  private static final int POINTS = 1000;
+
+  private static RealWaveform sine() {
+
+    final double[] x = new double[POINTS];
+    final double[] y = new double[POINTS];
+
+    for (int i = 0; i < POINTS; i++) {
+      x[i] = i * 1e-3;
+      y[i] = Math.sin(x[i] * 20);
+    }
+
+    return RealWaveform.buildRealWaveform(x, y, "s", "V");
+  }
+
+  @Test
+  void arithmetic() {
+
+    final RealWaveform wave = sine();
+    final RealWaveform constant = (RealWaveform) wave.createConstantWave(0.25);
+
+    assertTrue(constant.getYColumn() instanceof ConstantColumn);
+
+    final double[] values = new double[POINTS];
+
+    Arrays.fill(values, 0.25);
+
+    final RealWaveform materialized = RealWaveform.buildRealWaveform(
+        wave.getX(), values, "s", "");
+
+    assertArrayEquals(materialized.add(wave).getY(),
+        constant.add(wave).getY());
+    assertArrayEquals(wave.subtract(materialized).getY(),
+        wave.subtract(constant).getY());
+    assertArrayEquals(materialized.subtract(wave).getY(),
+        constant.subtract(wave).getY());
+    assertArrayEquals(wave.multiply(materialized).getY(),
+        wave.multiply(constant).getY());
+    assertArrayEquals(wave.divide(materialized).getY(),
+        wave.divide(constant).getY());
+    assertArrayEquals(materialized.divide(wave).getY(),
+        constant.divide(wave).getY());
+
+    assertEquals(0.25, constant.ymax().getValue());
+    assertEquals(0.25, constant.ymin(0.1, 0.2).getValue());
+    assertEquals(materialized.integrate().getValue(),
+        constant.integrate().getValue());
+    assertEquals(values.length, constant.getY().length);
+  }
+
+  @Test
+  void broadcast() {
+
+    final RealWaveform wave = sine();
+    final RealWaveform limit = (RealWaveform) wave.createConstantWave(1.5);
+
+    assertTrue(wave.leq(limit));
+    assertFalse(wave.geq(limit));
+
+    // the constant stays constant on other axes and in clipped ranges
+    final RealWaveform resampled = limit
+        .resample(new double[] { -1.0, 0.5, 7.0 });
+    final RealWaveform clipped = limit.clip(0.1234, 0.5678);
+
+    assertArrayEquals(new double[] { 1.5, 1.5, 1.5 }, resampled.getY());
+    assertTrue(clipped.getYColumn() instanceof ConstantColumn);
+    assertEquals(1.5, clipped.valueAt(0.3));
+
+    final ComplexWaveform complex = (ComplexWaveform) wave
+        .createConstantWave(new Complex(1.0, -2.0));
+
+    assertEquals(-2.0, complex.getValue(0.5).getValue().getImaginary());
+    assertArrayEquals(wave.add(1.0).getY(), complex.add(wave).real().getY());
+  }
+
+  @Test
+  void comparisons() {
+
+    final RealWaveform wave = sine();
+    final RealWaveform upper = (RealWaveform) wave.createConstantWave(1.5);
+    final RealWaveform lower = (RealWaveform) wave.createConstantWave(-1.5);
+
+    assertTrue(wave.lessThan(upper));
+    assertTrue(wave.lessThanOrEqualTo(upper));
+    assertTrue(wave.greaterThan(lower));
+    assertTrue(wave.greaterThanOrEqualTo(lower));
+    assertFalse(wave.greaterThan(upper));
+    assertFalse(upper.lessThanOrEqualTo(wave));
+    assertTrue(lower.lessThan(upper));
+  }
+
+  @Test
+  void complexDivide() {
+
+    final RealWaveform wave = sine();
+    final ComplexWaveform complex = (ComplexWaveform) wave
+        .createConstantWave(new Complex(1.0, -2.0)).add(wave);
+    final RealWaveform constant = (RealWaveform) wave.createConstantWave(4.0);
+
+    final double[] values = new double[POINTS];
+
+    Arrays.fill(values, 4.0);
+
+    final RealWaveform materialized = RealWaveform.buildRealWaveform(
+        wave.getX(), values, "s", "");
+
+    assertArrayEquals(complex.divide(materialized).real().getY(),
+        complex.divide(constant).real().getY());
+    assertArrayEquals(complex.divide(materialized).imag().getY(),
+        complex.divide(constant).imag().getY());
+
+    // the imaginary part of a real wave is a constant zero
+    assertTrue(wave.imag().getYColumn() instanceof ConstantColumn);
+    assertArrayEquals(new double[POINTS], wave.imag().getY());
+  }
+}
@@ -0,0 +1,112 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DecimatorTest {
+
+  private static RealWaveform noise(final int points, final long seed) {
+
+    final Random random = new Random(seed);
+
+    return TestWaves.wave(points, 1e-6,
+        (i, x) -> Math.sin(x * 100) + (0.1 * random.nextGaussian()));
+  }
+
+  @Test
+  void minMax() {
+
+    final RealWaveform wave = noise(100000, 1);
+    final RealWaveform decimated = wave.decimateMinMax(100, false);
+
+    assertTrue(decimated.getX().length <= 200);
+    assertTrue(decimated.getX().length > 100);
+    assertEquals(wave.ymax().getValue(), decimated.ymax().getValue());
+    assertEquals(wave.ymin().getValue(), decimated.ymin().getValue());
+    assertEquals("V", decimated.getUnitY());
+
+    final double[] x = decimated.getX();
+
+    for (int i = 1; i < x.length; i++) {
+      assertTrue(x[i - 1] < x[i]);
+    }
+
+    // every bucket of 1000 points contributes its extrema
+    assertEquals(wave.ymax(0.05, 0.05 + 999e-6).getValue(),
+        decimated.ymax(0.05, 0.05 + 999e-6).getValue());
+
+    final RealWaveform clipped = wave.decimateMinMax(10, 0.02, 0.03, false);
+
+    assertEquals(wave.ymax(0.02, 0.03).getValue(),
+        clipped.ymax().getValue());
+    assertTrue(clipped.xmin().getValue() >= 0.02);
+    assertTrue(clipped.xmax().getValue() <= 0.03);
+  }
+
+  @Test
+  void lttb() {
+
+    final double[] x = new double[10000];
+    final double[] y = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i;
+      y[i] = Math.sin(i / 1000.0);
+    }
+
+    y[4321] = 10.0;
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(x, y, "s", "V");
+    final RealWaveform decimated = wave.decimateLttb(50, false);
+
+    assertEquals(50, decimated.getX().length);
+    assertEquals(0.0, decimated.xmin().getValue());
+    assertEquals(9999.0, decimated.xmax().getValue());
+    assertEquals(10.0, decimated.ymax().getValue());
+    assertTrue(Arrays.binarySearch(decimated.getX(), 4321.0) >= 0);
+
+    assertSame(wave, wave.decimateLttb(20000, false));
+    assertTrue(wave.decimateLttb(2, false).isEmpty());
+  }
+
+  @Test
+  void logX() {
+
+    final double[] x = new double[60001];
+    final double[] y = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = Math.pow(10, i / 10000.0);
+      y[i] = -20 * Math.log10(1 + (x[i] / 1000));
+    }
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(x, y, "Hz", "dB");
+
+    // every decade contains 10 buckets
+    final RealWaveform minMax = wave.decimateMinMax(60, true);
+    final RealWaveform lttb = wave.decimateLttb(62, true);
+
+    int decade = 0;
+
+    for (final double value : lttb.getX()) {
+      if (value < 10) {
+        decade++;
+      }
+    }
+
+    assertEquals(120, minMax.getX().length);
+    assertEquals(62, lttb.getX().length);
+    assertTrue(decade >= 10);
+
+    final RealWaveform linear = RealWaveform.buildRealWaveform(
+        new double[] { 0, 1, 2, 3 }, new double[] { 0, 1, 2, 3 }, "s", "V");
+
+    assertTrue(linear.decimateMinMax(1, true).isEmpty());
+  }
+}
@@ -0,0 +1,64 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ExecutionPolicyTest {
+
+  private static final int POINTS = 100000;
+
+  private static RealWaveform sine(final double frequency) {
+    return TestWaves.wave(POINTS, 1e-6,
+        (i, x) -> Math.sin(2 * Math.PI * frequency * x));
+  }
+
+  private static Object[] evaluate(final RealWaveform a,
+      final RealWaveform b) {
+
+    final ComplexWaveform c = a.multiply(new Complex(1.0, -2.0));
+
+    return new Object[] { a.add(b).getY(), a.multiply(b).abs().getY(),
+        a.divide(b).db20().getY(), c.multiply(c).getYReal(),
+        c.phaseDeg().getY(), a.integrate().getValue(), a.ymin().getValue(),
+        a.ymax().getValue(), a.cross(0.1, 7).getValue(),
+        a.cross(0.1, 150).getValue() };
+  }
+
+  @AfterEach
+  void reset() {
+    ExecutionPolicy.setThreshold(ExecutionPolicy.DEFAULT_THRESHOLD);
+  }
+
+  @Test
+  void deterministic() {
+
+    final RealWaveform a = sine(1e3);
+    final RealWaveform b = sine(7e2);
+
+    ExecutionPolicy.setThreshold(Integer.MAX_VALUE);
+    final Object[] serial = evaluate(a, b);
+
+    ExecutionPolicy.setThreshold(1);
+    final Object[] parallel = evaluate(a, b);
+
+    for (int i = 0; i < serial.length; i++) {
+      if (serial[i] instanceof double[]) {
+        assertArrayEquals((double[]) serial[i], (double[]) parallel[i]);
+      } else {
+        assertEquals(serial[i], parallel[i]);
+      }
+    }
+  }
+
+  @Test
+  void threshold() {
+    assertFalse(ExecutionPolicy.setThreshold(0));
+    assertEquals(ExecutionPolicy.DEFAULT_THRESHOLD,
+        ExecutionPolicy.getThreshold());
+  }
+}
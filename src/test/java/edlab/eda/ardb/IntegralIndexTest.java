@@ -0,0 +1,97 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class IntegralIndexTest {
+
+  public static final double COMP = 1e-9;
+
+  private static RealWaveform noise(final int points, final long seed) {
+
+    final Random random = new Random(seed);
+
+    // random distances between the x-values
+    final double[] x = new double[points];
+
+    for (int i = 0; i < points; i++) {
+      x[i] = (i > 0 ? x[i - 1] : 0) + random.nextDouble();
+    }
+
+    return TestWaves.wave(x,
+        (i, pos) -> Math.sin(pos / 10) + random.nextGaussian());
+  }
+
+  @Test
+  void windows() {
+
+    final RealWaveform wave = noise(5000, 1);
+    final Random random = new Random(2);
+
+    assertSame(wave.getIntegrals(), wave.getIntegrals());
+
+    double left;
+    double right;
+    RealWaveform clipped;
+
+    for (int k = 0; k < 200; k++) {
+
+      // the windows also exceed the x-range of the waveform
+      left = (random.nextDouble() * 2600) - 50;
+      right = left + (random.nextDouble() * 100);
+
+      clipped = wave.clip(left, right);
+
+      assertEquals(clipped.integrate().getValue(),
+          wave.integrate(left, right).getValue(), COMP);
+      assertEquals(clipped.getStatistics().mean().getValue(),
+          wave.average(left, right).getValue(), COMP);
+      assertEquals(clipped.getStatistics().rms().getValue(),
+          wave.rms(left, right).getValue(), COMP);
+    }
+
+    assertEquals(wave.getValue(100.0).getValue(),
+        wave.average(100.0, 100.0).getValue());
+    // the sign of the empty integral depends on the value at the border
+    assertTrue(wave.integrate(100.0, 100.0).getValue() == 0.0);
+    assertTrue(wave.integrate(2.0, 1.0).isNaN());
+  }
+
+  @Test
+  void cumulative() {
+
+    final RealWaveform wave = noise(1000, 3);
+    final RealWaveform cumulative = wave.cumulativeIntegral();
+
+    assertArrayEquals(wave.getX(), cumulative.getX());
+    assertEquals(0.0, cumulative.getY()[0]);
+    assertEquals(wave.integrate().getValue(),
+        cumulative.getY()[999], COMP);
+    assertEquals(wave.integrate(wave.getX()[10], wave.getX()[500])
+        .getValue(), cumulative.getY()[500] - cumulative.getY()[10], COMP);
+  }
+
+  @Test
+  void parallel() {
+
+    final RealWaveform serial = noise(100000, 4);
+    final RealWaveform parallel = noise(100000, 4);
+
+    final double[] expected = serial.cumulativeIntegral().getY();
+
+    final int threshold = ExecutionPolicy.getThreshold();
+
+    try {
+      ExecutionPolicy.setThreshold(1);
+      assertArrayEquals(expected, parallel.cumulativeIntegral().getY());
+    } finally {
+      ExecutionPolicy.setThreshold(threshold);
+    }
+  }
+}
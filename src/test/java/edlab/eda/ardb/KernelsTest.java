@@ -0,0 +1,171 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the kernels that are used at runtime with the scalar kernels. The
+ * kernels are identical on Java 8, the Vector API kernels are compared when
+ * the tests run against the multi-release JAR on Java 17 with
+ * <code>--add-modules jdk.incubator.vector</code>.
+ */
+class KernelsTest {
+
+  public static final double COMP = 1e-12;
+
+  private static final int LENGTH = 1003;
+  private static final int POS = 5;
+
+  private static final ArrayKernels SCALAR = new ArrayKernels();
+
+  private static double[] values(final long seed) {
+
+    final Random random = new Random(seed);
+    final double[] retval = new double[LENGTH + POS];
+
+    for (int i = 0; i < retval.length; i++) {
+      retval[i] = (random.nextDouble() - 0.5) * Math.pow(10,
+          random.nextInt(20) - 10);
+    }
+
+    retval[POS + 3] = 0.0;
+    retval[POS + 7] = -0.0;
+    retval[POS + 11] = Double.NaN;
+    retval[POS + 13] = Double.POSITIVE_INFINITY;
+    retval[POS + 17] = Double.NEGATIVE_INFINITY;
+    retval[POS + 19] = Double.MIN_VALUE;
+    retval[POS + 23] = Double.MAX_VALUE;
+
+    return retval;
+  }
+
+  private static void assertRelativeEquals(final double[] expected,
+      final double[] actual) {
+    for (int i = 0; i < expected.length; i++) {
+      if (Double.isFinite(expected[i])) {
+        assertEquals(expected[i], actual[i],
+            COMP * Math.max(1.0, Math.abs(expected[i])));
+      } else {
+        assertEquals(expected[i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  void elementwise() {
+
+    final ArrayKernels kernels = Kernels.get();
+
+    final double[] a = values(1);
+    final double[] b = values(2);
+
+    double[] expected = new double[LENGTH];
+    double[] actual = new double[LENGTH];
+
+    SCALAR.add(a, POS, b, 3, expected, 0, LENGTH);
+    kernels.add(a, POS, b, 3, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.subtract(a, 1, b, POS, expected, 0, LENGTH);
+    kernels.subtract(a, 1, b, POS, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.multiply(a, POS, b, POS, expected, 0, LENGTH);
+    kernels.multiply(a, POS, b, POS, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.divide(a, POS, b, 2, expected, 0, LENGTH);
+    kernels.divide(a, POS, b, 2, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.add(a, POS, -1.5, expected, 0, LENGTH);
+    kernels.add(a, POS, -1.5, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.multiply(a, POS, 3.0, expected, 0, LENGTH);
+    kernels.multiply(a, POS, 3.0, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.divide(a, POS, 7.0, expected, 0, LENGTH);
+    kernels.divide(a, POS, 7.0, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.abs(a, POS, expected, 0, LENGTH);
+    kernels.abs(a, POS, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.abs(a, POS, b, 4, expected, 0, LENGTH);
+    kernels.abs(a, POS, b, 4, actual, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+
+    SCALAR.log10(b, POS, 20.0, expected, 0, LENGTH);
+    kernels.log10(b, POS, 20.0, actual, 0, LENGTH);
+    assertRelativeEquals(expected, actual);
+
+    final double[] expectedIm = new double[LENGTH];
+    final double[] actualIm = new double[LENGTH];
+
+    SCALAR.multiply(a, POS, b, 0, b, POS, a, 1, expected, expectedIm, 0,
+        LENGTH);
+    kernels.multiply(a, POS, b, 0, b, POS, a, 1, actual, actualIm, 0, LENGTH);
+    assertArrayEquals(expected, actual);
+    assertArrayEquals(expectedIm, actualIm);
+  }
+
+  @Test
+  void reductions() {
+
+    final ArrayKernels kernels = Kernels.get();
+
+    final double[] x = new double[LENGTH + POS];
+    final double[] y = values(3);
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * 1e-3;
+    }
+
+    for (int length = 0; length < 40; length++) {
+      assertEquals(SCALAR.min(y, POS + 20, length),
+          kernels.min(y, POS + 20, length));
+      assertEquals(SCALAR.max(y, POS + 20, length),
+          kernels.max(y, POS + 20, length));
+    }
+
+    assertEquals(SCALAR.min(y, 0, LENGTH), kernels.min(y, 0, LENGTH));
+    assertEquals(SCALAR.max(y, 0, LENGTH), kernels.max(y, 0, LENGTH));
+
+    final double[] finite = values(4);
+
+    for (int i = 0; i < finite.length; i++) {
+      finite[i] = Math.sin(i);
+    }
+
+    assertEquals(SCALAR.trapezoid(x, POS, finite, 2, LENGTH),
+        kernels.trapezoid(x, POS, finite, 2, LENGTH), COMP);
+    assertEquals(0.0, kernels.trapezoid(x, 0, finite, 0, 1));
+  }
+
+  @Test
+  void columns() {
+
+    final double[] a = values(5);
+
+    final Column array = Column.of(a).slice(POS, POS + LENGTH);
+    final Column padded = PaddedColumn.pad(array.slice(1, LENGTH - 1), true,
+        a[POS], true, a[(POS + LENGTH) - 1]);
+
+    final double[] expected = new double[LENGTH];
+    final double[] actual = new double[LENGTH];
+
+    Kernels.abs(array, expected, 0, LENGTH);
+    Kernels.abs(padded, actual, 0, 100);
+    Kernels.abs(padded, actual, 100, LENGTH);
+
+    assertArrayEquals(expected, actual);
+    assertEquals(Kernels.max(array, 10, 500), Kernels.max(padded, 10, 500));
+  }
+}
@@ -0,0 +1,88 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class LazyWaveMapTest {
+
+  private static final Column AXIS = Column.of(new double[] { 0.0, 1.0 });
+
+  private static LazyWaveMap<RealWaveform> waves(final AtomicInteger loads) {
+
+    final Map<String, LazyWaveMap.Source> sources = new HashMap<>();
+    sources.put("OUT", new LazyWaveMap.Source("out", AXIS, "s", "V"));
+    sources.put("IN", new LazyWaveMap.Source("in", null, "s", "A"));
+
+    return new LazyWaveMap<>(sources, name -> {
+      loads.incrementAndGet();
+      return RealWaveform.buildSortedRealWaveform(AXIS,
+          Column.of(new double[] { 0.0, name.length() }), "s",
+          name.equals("out") ? "V" : "A");
+    });
+  }
+
+  @Test
+  void onDemand() {
+
+    final AtomicInteger loads = new AtomicInteger();
+    final LazyWaveMap<RealWaveform> waves = waves(loads);
+
+    assertEquals(2, waves.size());
+    assertTrue(waves.containsKey("OUT"));
+    assertTrue(waves.keySet().contains("IN"));
+    assertNull(waves.get("VDD"));
+    assertEquals(0, loads.get());
+
+    final RealWaveform out = waves.get("OUT");
+
+    assertEquals(3.0, out.getY()[1]);
+    assertSame(out, waves.get("OUT"));
+    assertEquals(1, loads.get());
+    assertEquals(1, waves.noOfLoadedWaves());
+
+    assertEquals(2, waves.entrySet().size());
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void sources() {
+
+    final AtomicInteger loads = new AtomicInteger();
+    final LazyWaveMap<RealWaveform> waves = waves(loads);
+
+    assertEquals("s", LazyWaveMap.getUnitX(waves, "IN"));
+    assertEquals("A", LazyWaveMap.getUnitY(waves, "IN"));
+    assertSame(AXIS, LazyWaveMap.getAxis(waves, "OUT"));
+    assertNull(LazyWaveMap.getUnitY(waves, "VDD"));
+    assertEquals(0, loads.get());
+
+    // an unknown x-axis is taken from a wave that is not cached
+    assertSame(AXIS, LazyWaveMap.getAxis(waves, "IN"));
+    assertEquals(1, loads.get());
+
+    final RealWaveform in = LazyWaveMap.load(waves, "IN");
+
+    assertEquals(2.0, in.getY()[1]);
+    assertNotSame(in, LazyWaveMap.load(waves, "IN"));
+    assertEquals(0, waves.noOfLoadedWaves());
+
+    // a cached wave is reused
+    assertSame(waves.get("IN"), LazyWaveMap.load(waves, "IN"));
+
+    final Map<String, RealWaveform> eager = new HashMap<>();
+    eager.put("IN", in);
+
+    assertEquals("A", LazyWaveMap.getUnitY(eager, "IN"));
+    assertSame(in.x, LazyWaveMap.getAxis(eager, "IN"));
+    assertSame(in, LazyWaveMap.load(eager, "IN"));
+  }
+}
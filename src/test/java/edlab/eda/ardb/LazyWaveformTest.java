@@ -0,0 +1,104 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+class LazyWaveformTest {
+
+  public static final double COMP = 1e-12;
+
+  private static final int POINTS = 1000;
+
+  private static RealWaveform sine(final double amplitude,
+      final double offset) {
+    return TestWaves.wave(POINTS, 1e-3,
+        (i, x) -> offset + (amplitude * Math.sin(2 * Math.PI * x)));
+  }
+
+  private static ComplexWaveform response() {
+
+    final double[] x = new double[POINTS];
+    final Complex[] y = new Complex[POINTS];
+
+    for (int i = 0; i < POINTS; i++) {
+      x[i] = Math.pow(10, i * 1e-2);
+      y[i] = new Complex(1.0, 0.0).divide(new Complex(1.0, x[i] / 1e3));
+    }
+
+    return ComplexWaveform.buildComplexWaveform(x, y, "Hz", "V");
+  }
+
+  @Test
+  void realChain() {
+
+    final RealWaveform a = sine(1.0, 0.5);
+    final RealWaveform b = sine(0.5, 0.0);
+
+    final RealWaveform eager = a.subtract(b).abs().divide(2.0);
+    final LazyWaveform lazy = a.lazy().subtract(b).abs().divide(2.0);
+
+    assertArrayEquals(eager.getY(), ((RealWaveform) lazy.materialize()).getY(),
+        COMP);
+    assertArrayEquals(eager.getX(), lazy.materialize().getX(), COMP);
+    assertEquals(eager.getValue(0.1234).getValue(),
+        ((RealValue) lazy.getValue(0.1234)).getValue(), COMP);
+    assertEquals(eager.cross(0.4, 2).getValue(),
+        lazy.cross(0.4, 2).getValue(), COMP);
+    assertEquals(eager.integrate().getValue(), lazy.integrate().getValue(),
+        COMP);
+    assertEquals(eager.ymax().getValue(), lazy.ymax().getValue(), COMP);
+    assertEquals(eager.ymin().getValue(), lazy.ymin().getValue(), COMP);
+  }
+
+  @Test
+  void complexChain() {
+
+    final ComplexWaveform wave = response();
+
+    final LazyWaveform lazy = wave.lazy().multiply(new Complex(2.0, 1.0));
+
+    assertTrue(lazy.isComplex());
+
+    final ComplexWaveform eager = wave.multiply(new Complex(2.0, 1.0));
+
+    assertArrayEquals(eager.db20().getY(),
+        ((RealWaveform) lazy.db20().materialize()).getY(), COMP);
+    assertArrayEquals(eager.phaseDeg().getY(),
+        ((RealWaveform) lazy.phaseDeg().materialize()).getY(), COMP);
+    assertEquals("deg", lazy.phaseDeg().getUnitY());
+    assertEquals(eager.abs().db20().cross(0, 1).getValue(),
+        lazy.db20().cross(0, 1).getValue(), COMP);
+  }
+
+  @Test
+  void sharedNodes() {
+
+    final RealWaveform a = sine(1.0, 0.0);
+
+    final LazyWaveform square = a.lazy().multiply(a);
+    final LazyWaveform sum = square.add(square).divide(square);
+
+    final double[] y = ((RealWaveform) sum.materialize()).getY();
+
+    assertEquals(2.0, y[1], COMP);
+    assertEquals(2.0, y[POINTS - 1], COMP);
+  }
+
+  @Test
+  void resampledOperand() {
+
+    final RealWaveform a = sine(1.0, 0.0);
+    final RealWaveform b = RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 1.0 }, new double[] { 0.0, 1.0 }, "s", "V");
+
+    final RealWaveform eager = a.add(b);
+    final RealWaveform lazy = (RealWaveform) a.lazy().add(b.lazy())
+        .materialize();
+
+    assertArrayEquals(eager.getY(), lazy.getY(), COMP);
+  }
+}
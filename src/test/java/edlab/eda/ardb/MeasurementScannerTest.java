@@ -0,0 +1,105 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class MeasurementScannerTest {
+
+  /**
+   * Step response of a second order system with overshoot
+   */
+  private static RealWaveform step(final int points) {
+    return TestWaves.wave(points, 1e-3,
+        (i, x) -> 1 - (Math.exp(-x) * Math.cos(5 * x)));
+  }
+
+  @Test
+  void measurements() {
+
+    final MeasurementScanner scanner = new MeasurementScanner();
+
+    final int rise10 = scanner.cross(0.1, 1);
+    final int rise90 = scanner.cross(0.9, 1);
+    final int third = scanner.cross(1.0, 3);
+    final int never = scanner.cross(5.0, 1);
+    final int overshoot = scanner.ymax(0.0, 2.0);
+    final int undershoot = scanner.ymin(0.5, 1.5005);
+    final int area = scanner.integrate(0.1234, 3.4567);
+    final int outside = scanner.ymax(20.0, 30.0);
+    final int empty = scanner.integrate(2.0, 1.0);
+    final int end = scanner.value(9.999);
+
+    assertEquals(10, scanner.size());
+
+    // with and without an index in the waveform
+    for (final int points : new int[] { 200, 10000 }) {
+
+      final RealWaveform wave = step(points);
+      final double[] results = scanner.scan(wave);
+
+      assertEquals(wave.crossAt(0.1, 1), results[rise10]);
+      assertEquals(wave.crossAt(0.9, 1), results[rise90]);
+      assertEquals(wave.crossAt(1.0, 3), results[third]);
+      assertTrue(Double.isNaN(results[never]));
+      assertEquals(wave.ymaxAsDouble(0.0, 2.0), results[overshoot]);
+      assertEquals(wave.yminAsDouble(0.5, 1.5005), results[undershoot]);
+      assertEquals(wave.integrate(0.1234, 3.4567).getValue(), results[area],
+          1e-9);
+      assertEquals(wave.ymaxAsDouble(20.0, 30.0), results[outside]);
+      assertTrue(Double.isNaN(results[empty]));
+      assertEquals(wave.valueAt(9.999), results[end]);
+    }
+
+    assertFalse(scanner.scan(step(10), new double[3]));
+    assertTrue(Double.isNaN(scanner.scan(new RealWaveform())[rise10]));
+  }
+
+  @Test
+  void settlingTime() {
+
+    final double[] x = new double[20001];
+    final double[] y = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = 1.0 + (i * 1e-3);
+      y[i] = 2.0 * (1 - Math.exp(-(x[i] - 1.0)));
+    }
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(x, y, "s", "V");
+
+    final MeasurementScanner scanner = new MeasurementScanner();
+
+    final int settling = scanner.settlingTime(0.02);
+    final int flat = scanner.settlingTime(10.0);
+
+    final double[] results = scanner.scan(wave);
+
+    final double yEnd = y[y.length - 1];
+
+    assertEquals(-Math.log(1 - ((0.99 * yEnd) / 2.0)), results[settling],
+        1e-6);
+    assertEquals(0.0, results[flat]);
+
+    assertEquals(results[settling], wave.getSettlingTime(0.02).getValue());
+    assertEquals(0.0, wave.getSettlingTime(10.0).getValue());
+    assertEquals("s", wave.getSettlingTime(0.02).getUnit());
+
+    // a ringing wave leaves the band on both sides
+    for (int i = 0; i < x.length; i++) {
+      y[i] = 1 - (Math.exp(-(x[i] - 1.0)) * Math.cos(10 * x[i]));
+    }
+
+    final RealWaveform ringing = RealWaveform.buildRealWaveform(x, y, "s",
+        "V");
+
+    final double time = scanner.scan(ringing)[settling];
+
+    assertTrue(time > 2.0);
+    assertEquals(time, ringing.getSettlingTime(0.02).getValue());
+    assertTrue(Double.isNaN(new RealWaveform().getSettlingTime(0.02)
+        .getValue()));
+  }
+}
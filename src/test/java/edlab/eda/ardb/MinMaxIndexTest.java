@@ -0,0 +1,154 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MinMaxIndexTest {
+
+  private static final int POINTS = 10007;
+
+  private static RealWaveform noise(final long seed) {
+
+    final Random random = new Random(seed);
+
+    return TestWaves.wave(POINTS, 1e-3,
+        (i, x) -> Math.sin(x) + (0.1 * random.nextGaussian()));
+  }
+
+  /**
+   * Linear search of the intersection
+   */
+  private static int cross(final double[] y, final double val,
+      final int edge) {
+
+    int counter = 1;
+
+    for (int i = 0; i < (y.length - 1); i++) {
+      if (((y[i] - val) * (y[i + 1] - val)) <= 0) {
+        if (counter == edge) {
+          return i;
+        }
+        counter++;
+      }
+    }
+
+    return -1;
+  }
+
+  @Test
+  void cross() {
+
+    final RealWaveform wave = noise(1);
+    final double[] y = wave.getY();
+    final MinMaxIndex index = wave.getIndex();
+
+    assertSame(index, wave.getIndex());
+
+    for (double val = -1.3; val < 1.3; val += 0.0123) {
+      for (final int edge : new int[] { 0, 1, 2, 5, 17, 100, 5000 }) {
+        assertEquals(cross(y, val, edge), index.cross(val, edge));
+      }
+    }
+
+    assertEquals(-1, index.cross(Double.NaN, 1));
+    assertEquals(-1, index.cross(Double.POSITIVE_INFINITY, 1));
+  }
+
+  @Test
+  void crossAll() {
+
+    final RealWaveform wave = noise(4);
+    final double[] x = wave.getX();
+    final double[] y = wave.getY();
+
+    double[] crossings;
+    int k;
+
+    for (double val = -1.3; val < 1.3; val += 0.0377) {
+
+      crossings = wave.cross(val).getX();
+      k = 0;
+
+      for (int i = 0; i < (y.length - 1); i++) {
+        if (((y[i] - val) * (y[i + 1] - val)) <= 0) {
+          assertEquals(x[i] + (((val - y[i]) / (y[i + 1] - y[i]))
+              * (x[i + 1] - x[i])), crossings[k++]);
+        }
+      }
+
+      assertEquals(k, crossings.length);
+    }
+  }
+
+  @Test
+  void underflow() {
+
+    final double[] x = new double[POINTS];
+    final double[] y = new double[POINTS];
+
+    for (int i = 0; i < POINTS; i++) {
+      x[i] = i;
+      y[i] = 1.0;
+    }
+
+    // the products of these points underflow to zero
+    y[5000] = 1e-200;
+    y[5001] = 2e-200;
+    y[7000] = Double.NaN;
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(x, y, "s", "V");
+
+    assertEquals(cross(y, 0.0, 1), wave.getIndex().cross(0.0, 1));
+    assertEquals(5000, wave.getIndex().cross(0.0, 1));
+    assertEquals(cross(y, 1.0, 3000), wave.getIndex().cross(1.0, 3000));
+  }
+
+  @Test
+  void extrema() {
+
+    final RealWaveform wave = noise(2);
+    final MinMaxIndex index = wave.getIndex();
+    final double[] y = wave.getY();
+
+    final Random random = new Random(3);
+
+    int from;
+    int to;
+    double min;
+    double max;
+    double left;
+    double right;
+
+    for (int k = 0; k < 200; k++) {
+
+      from = random.nextInt(POINTS);
+      to = from + random.nextInt((POINTS - from) + 1);
+
+      min = Double.POSITIVE_INFINITY;
+      max = Double.NEGATIVE_INFINITY;
+
+      for (int i = from; i < to; i++) {
+        min = Math.min(min, y[i]);
+        max = Math.max(max, y[i]);
+      }
+
+      assertEquals(min, index.min(from, to));
+      assertEquals(max, index.max(from, to));
+
+      left = random.nextDouble() * 10.0;
+      right = left + (random.nextDouble() * 2.0);
+
+      assertEquals(wave.clip(left, right).ymax().getValue(),
+          wave.ymax(left, right).getValue());
+      assertEquals(wave.clip(left, right).ymin().getValue(),
+          wave.ymin(left, right).getValue());
+    }
+
+    assertEquals(wave.cross(0.5, 3).getValue(),
+        wave.clip(0, 10.006).cross(0.5, 3).getValue());
+  }
+}
@@ -0,0 +1,115 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.math3.complex.Complex;
+import org.junit.jupiter.api.Test;
+
+class NutmegStreamReaderTest {
+
+  @Test
+  void nutbin() {
+
+    final List<ResultsDatabase> dbs = NutmegStreamReader
+        .read("./src/test/resources/nutbin.raw");
+
+    assertNotNull(dbs);
+    assertEquals(10, dbs.size());
+
+    final RealResultsDatabase dcop = (RealResultsDatabase) dbs.get(0);
+
+    assertEquals(105, dcop.getValueNames().size());
+    assertEquals(-7.906531904385188,
+        dcop.getRealValue("DUT.MPCM222.m1:gmoverid").getValue());
+    assertEquals("1/V", dcop.getRealValue("DUT.MPCM222.m1:gmoverid").getUnit());
+
+    final ComplexWaveform loopGain = ((ComplexResultsDatabase) dbs.get(2))
+        .getComplexWaveform("loopGain");
+
+    assertEquals(501, loopGain.getX().length);
+    assertEquals("Hz", loopGain.getUnitX());
+    assertEquals(new Complex(-4410.648066645174, 4.077938504944919),
+        loopGain.getValue(1.0).getValue());
+
+    final RealResultsDatabase tran = (RealResultsDatabase) dbs.get(3);
+
+    assertTrue(tran.getWaveNames().size() > 0);
+
+    for (final String name : tran.getWaveNames()) {
+      assertEquals(385, tran.getRealWaveform(name).getX().length);
+    }
+
+    assertTrue(ComplexResultsDatabase.isInstanceOf(dbs.get(7)));
+
+    // the last plot declares no points, but contains one
+    assertEquals(-5.534465397360275, ((RealResultsDatabase) dbs.get(9))
+        .getRealValue("DUT.MPCM222.m1:gmoverid").getValue());
+  }
+
+  @Test
+  void nutascii() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".raw");
+    file.deleteOnExit();
+
+    final String content = "Title: test\n" + "Date: today\n"
+        + "Plotname: tran\n" + "Flags: real\n" + "No. Variables: 2\n"
+        + "No. Points: 3\n" + "Variables:\t0\ttime\ts\n"
+        + "\t1\tOUT\tV plot=0\n" + "Values:\n" + " 0\t2.0\n\t0.5\n"
+        + " 1\t0.0\n\t-1.5\n" + " 2\t1.0\n\t2.5e-1\n" + "Plotname: ac\n"
+        + "Flags: complex\n" + "No. Variables: 2\n" + "No. Points: 2\n"
+        + "Variables:\t0\tfreq\tHz\n" + "\t1\tOUT\tV\n" + "Values:\n"
+        + " 0\t1.0,0.0\n\t1.0,-1.0\n" + " 1\t10.0,0.0\n\t0.5,-2.0\n";
+
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+
+    final List<ResultsDatabase> dbs = NutmegStreamReader.read(file.getPath());
+
+    assertNotNull(dbs);
+    assertEquals(2, dbs.size());
+
+    final RealWaveform out = ((RealResultsDatabase) dbs.get(0))
+        .getRealWaveform("OUT");
+
+    assertArrayEquals(new double[] { 0.0, 1.0, 2.0 }, out.getX());
+    assertArrayEquals(new double[] { -1.5, 0.25, 0.5 }, out.getY());
+    assertEquals("s", out.getUnitX());
+    assertEquals("V", out.getUnitY());
+
+    final ComplexWaveform ac = ((ComplexResultsDatabase) dbs.get(1))
+        .getComplexWaveform("OUT");
+
+    assertArrayEquals(new double[] { 1.0, 10.0 }, ac.getX());
+    assertArrayEquals(new double[] { -1.0, -2.0 }, ac.imag().getY());
+  }
+
+  @Test
+  void missing() {
+    assertNull(NutmegStreamReader.read("./src/test/resources/missing.raw"));
+  }
+
+  @Test
+  void malformed() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".raw");
+    file.deleteOnExit();
+
+    final String content = "Title: test\n" + "Date: today\n"
+        + "Plotname: tran\n" + "Flags: real\n" + "No. Variables: 1\n"
+        + "No. Points: many\n" + "Variables:\t0\ttime\ts\n" + "Values:\n";
+
+    Files.write(file.toPath(), content.getBytes(StandardCharsets.US_ASCII));
+
+    assertNull(NutmegStreamReader.read(file.getPath()));
+  }
+}
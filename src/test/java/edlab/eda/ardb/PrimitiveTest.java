@@ -0,0 +1,63 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class PrimitiveTest {
+
+  private static final double[] X = { 0.0, 1.0, 2.0, 3.0, 4.0 };
+
+  @Test
+  void real() {
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(X,
+        new double[] { 0.0, 2.0, -1.0, 3.0, 1.0 }, "s", "V");
+
+    final InterpolationCursor cursor = new InterpolationCursor(wave);
+
+    for (double pos = -1.0; pos <= 5.0; pos += 0.25) {
+      assertEquals(wave.getValue(pos).getValue(), wave.valueAt(pos));
+      assertEquals(wave.getValue(pos).getValue(), wave.valueAt(pos, cursor));
+    }
+
+    for (int edge = 1; edge <= 4; edge++) {
+      assertEquals(wave.cross(0.5, edge).getValue(), wave.crossAt(0.5, edge));
+    }
+
+    assertTrue(Double.isNaN(wave.crossAt(0.5, 5)));
+    assertTrue(wave.cross(0.5, 5).isNaN());
+
+    assertEquals(3.0, wave.ymaxAsDouble());
+    assertEquals(-1.0, wave.yminAsDouble());
+    assertEquals(2.0, wave.ymaxAsDouble(0.5, 2.5));
+    assertEquals(-1.0, wave.yminAsDouble(0.5, 2.5));
+    assertEquals(0.0, wave.xminAsDouble());
+    assertEquals(4.0, wave.xmaxAsDouble());
+
+    final RealWaveform empty = new RealWaveform();
+
+    assertTrue(Double.isNaN(empty.valueAt(1.0)));
+    assertTrue(Double.isNaN(empty.xminAsDouble()));
+    assertTrue(Double.isNaN(empty.ymaxAsDouble(0.0, 1.0)));
+  }
+
+  @Test
+  void complex() {
+
+    final ComplexWaveform wave = ComplexWaveform.buildComplexWaveform(X,
+        new double[] { 0.0, 2.0, -1.0, 3.0, 1.0 },
+        new double[] { 1.0, 0.0, 4.0, -2.0, 0.5 }, "Hz", "V");
+
+    final double[] buffer = new double[4];
+
+    for (double pos = -1.0; pos <= 5.0; pos += 0.25) {
+
+      wave.valueAt(pos, buffer, 2);
+
+      assertEquals(wave.getValue(pos).getValue().getReal(), buffer[2]);
+      assertEquals(wave.getValue(pos).getValue().getImaginary(), buffer[3]);
+    }
+  }
+}
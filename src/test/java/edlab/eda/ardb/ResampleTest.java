@@ -0,0 +1,117 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ResampleTest {
+
+  public static final double COMP = 1e-12;
+
+  private static RealWaveform wave() {
+    return RealWaveform.buildRealWaveform(new double[] { 0.0, 1.0, 2.0, 4.0 },
+        new double[] { 0.0, 2.0, 0.0, 4.0 }, "s", "V");
+  }
+
+  @Test
+  void linear() {
+
+    final double[] newX = new double[] { -1.0, 0.5, 1.0, 3.0, 5.0 };
+
+    final RealWaveform wave = wave().resample(newX);
+
+    assertArrayEquals(newX, wave.getX(), COMP);
+    assertArrayEquals(new double[] { -2.0, 1.0, 2.0, 2.0, 6.0 }, wave.getY(),
+        COMP);
+  }
+
+  @Test
+  void nearest() {
+
+    final RealWaveform wave = wave().resample(
+        new double[] { -1.0, 0.5, 0.6, 3.5, 5.0 },
+        Waveform.INTERPOLATION.NEAREST);
+
+    assertArrayEquals(new double[] { 0.0, 0.0, 2.0, 4.0, 4.0 }, wave.getY(),
+        COMP);
+  }
+
+  @Test
+  void hold() {
+
+    final RealWaveform wave = wave().resample(
+        new double[] { -1.0, 0.5, 1.0, 3.9, 5.0 },
+        Waveform.INTERPOLATION.HOLD);
+
+    assertArrayEquals(new double[] { 0.0, 0.0, 2.0, 0.0, 4.0 }, wave.getY(),
+        COMP);
+  }
+
+  @Test
+  void unsorted() {
+
+    final RealWaveform wave = wave()
+        .resample(new double[] { 3.0, 0.5, 5.0, -1.0, 1.0 });
+
+    assertArrayEquals(new double[] { -1.0, 0.5, 1.0, 3.0, 5.0 }, wave.getX(),
+        COMP);
+    assertArrayEquals(new double[] { -2.0, 1.0, 2.0, 2.0, 6.0 }, wave.getY(),
+        COMP);
+  }
+
+  @Test
+  void arithmetic() {
+
+    final RealWaveform other = RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 4.0 }, new double[] { 1.0, 1.0 }, "s", "V");
+
+    final RealWaveform sum = wave().add(other);
+
+    assertArrayEquals(wave().getX(), sum.getX(), COMP);
+    assertArrayEquals(new double[] { 1.0, 3.0, 1.0, 5.0 }, sum.getY(), COMP);
+
+    final ComplexWaveform complex = new ComplexWaveform(wave())
+        .resample(new double[] { 0.5, 3.0 });
+
+    assertEquals(2, complex.noOfVals());
+    assertEquals(2.0, complex.getYReal()[1], COMP);
+  }
+
+  @Test
+  void sharedAxis() {
+
+    final RealWaveform wave = wave();
+    final RealWaveform derived = wave.add(1.0).multiply(2.0).abs();
+
+    assertSame(wave.getX(), derived.getX());
+    assertSame(wave.getX(), new ComplexWaveform(derived).conjugate().getX());
+
+    final RealWaveform other = RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 4.0 }, new double[] { 1.0, 1.0 }, "s", "V");
+
+    assertSame(wave.getX(), wave.subtract(other).getX());
+  }
+
+  @Test
+  void internedAxis() {
+
+    final Map<String, RealWaveform> first = new HashMap<>();
+    first.put("a", wave());
+
+    final Map<String, RealWaveform> second = new HashMap<>();
+    second.put("b", wave().add(1.0));
+
+    final RealWaveform a = RealResultsDatabase
+        .create(new HashMap<>(), first).getRealWaveform("a");
+    final RealWaveform b = RealResultsDatabase
+        .create(new HashMap<>(), second).getRealWaveform("b");
+
+    assertSame(a.getX(), b.getX());
+    assertArrayEquals(new double[] { 1.0, 3.0, 1.0, 5.0 }, b.getY(), COMP);
+  }
+}
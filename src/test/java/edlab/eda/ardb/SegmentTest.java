@@ -0,0 +1,209 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SegmentTest {
+
+  private static RealWaveform wave(final double[] x) {
+
+    final double[] y = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      y[i] = Math.cos(i * 0.37);
+    }
+
+    return RealWaveform.buildRealWaveform(x, y, "s", "V");
+  }
+
+  /**
+   * First segment whose right point is not smaller than the position, clamped
+   * to the valid segments
+   */
+  private static int segment(final double[] x, final double pos) {
+
+    if (x.length < 3) {
+      return 0;
+    }
+
+    for (int i = 0; i < (x.length - 2); i++) {
+      if (x[i + 1] >= pos) {
+        return i;
+      }
+    }
+
+    return x.length - 2;
+  }
+
+  private static void check(final double[] x, final double[] positions) {
+
+    final RealWaveform wave = wave(x);
+
+    final int stride = Math.max(1, x.length / 7);
+
+    int lower;
+    int upper;
+
+    for (final double pos : positions) {
+
+      assertEquals(segment(x, pos), wave.segment(pos), "segment at " + pos);
+
+      for (int hint = -1; hint <= x.length; hint += stride) {
+        assertEquals(segment(x, pos), wave.segment(pos, hint),
+            "segment at " + pos + " from " + hint);
+      }
+
+      lower = 0;
+      while ((lower < x.length) && (x[lower] < pos)) {
+        lower++;
+      }
+
+      upper = lower;
+      while ((upper < x.length) && (x[upper] <= pos)) {
+        upper++;
+      }
+
+      assertEquals(lower, wave.lowerBound(pos));
+      assertEquals(upper, wave.upperBound(pos));
+    }
+  }
+
+  /**
+   * Positions on, between and outside of the x-values
+   */
+  private static double[] positions(final double[] x) {
+
+    final Random random = new Random(17);
+
+    final double first = x.length > 0 ? x[0] : 0;
+    final double last = x.length > 0 ? x[x.length - 1] : 1;
+
+    final double[] retval = new double[(3 * x.length) + 54];
+
+    int k = 0;
+
+    for (final double value : x) {
+      retval[k++] = value;
+      retval[k++] = Math.nextUp(value);
+      retval[k++] = Math.nextDown(value);
+    }
+
+    for (int i = 0; i < 50; i++) {
+      retval[k++] = first + ((last - first) * random.nextDouble());
+    }
+
+    retval[k++] = first - 1e3;
+    retval[k++] = last + 1e3;
+    retval[k++] = Double.NEGATIVE_INFINITY;
+    retval[k++] = Double.POSITIVE_INFINITY;
+
+    return retval;
+  }
+
+  @Test
+  void uniform() {
+
+    final double[] x = new double[1000];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * 0.1;
+    }
+
+    check(x, positions(x));
+
+    // exactly on a grid point, the left segment is used
+    assertEquals(41, wave(x).segment(x[42]));
+    assertEquals(0, wave(x).segment(x[0]));
+    assertEquals(x.length - 2, wave(x).segment(x[x.length - 1]));
+  }
+
+  @Test
+  void nonUniform() {
+
+    final double[] log = new double[500];
+
+    for (int i = 0; i < log.length; i++) {
+      log[i] = Math.pow(10, i / 50.0);
+    }
+
+    check(log, positions(log));
+
+    final Random random = new Random(4711);
+    final double[] duplicates = new double[300];
+
+    for (int i = 0; i < duplicates.length; i++) {
+      duplicates[i] = random.nextInt(100);
+    }
+
+    Arrays.sort(duplicates);
+
+    check(duplicates, positions(duplicates));
+  }
+
+  @Test
+  void small() {
+
+    check(new double[] {}, new double[] { -1, 0, 1 });
+    check(new double[] { 1.0 }, positions(new double[] { 1.0 }));
+    check(new double[] { 1.0, 2.0 }, positions(new double[] { 1.0, 2.0 }));
+    check(new double[] { 1.0, 2.0, 4.0 },
+        positions(new double[] { 1.0, 2.0, 4.0 }));
+
+    assertEquals(3.5, wave(new double[] { 1.0, 2.0 }).add(2.5).valueAt(1.0),
+        1e-12);
+  }
+
+  @Test
+  void cursor() {
+
+    final double[] x = new double[200];
+    final double[] other = new double[300];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * i * 1e-3;
+    }
+
+    for (int i = 0; i < other.length; i++) {
+      other[i] = i * 0.2;
+    }
+
+    final RealWaveform wave = wave(x);
+    final RealWaveform derived = wave.multiply(2.0);
+    final RealWaveform foreign = wave(other);
+
+    assertSame(wave.x, derived.x);
+
+    final InterpolationCursor cursor = new InterpolationCursor(wave);
+
+    double pos;
+
+    // ascending positions on waves that share the axis and on another axis
+    for (int i = 0; i < 400; i++) {
+
+      pos = i * 0.1;
+
+      assertEquals(wave.valueAt(pos), wave.valueAt(pos, cursor));
+      assertEquals(derived.valueAt(pos), derived.valueAt(pos, cursor));
+      assertEquals(foreign.valueAt(pos), foreign.valueAt(pos, cursor));
+    }
+
+    // evaluations on a foreign axis do not move the cursor
+    assertEquals(segment(x, 39.9), cursor.locate(39.9));
+
+    // descending positions and a reset cursor
+    for (int i = 400; i >= 0; i -= 7) {
+      assertEquals(segment(x, i * 0.1), cursor.locate(i * 0.1));
+    }
+
+    cursor.locate(1e9);
+    cursor.reset();
+
+    assertEquals(segment(x, 0.5), cursor.locate(0.5));
+    assertSame(wave, cursor.getWaveform());
+  }
+}
@@ -0,0 +1,76 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class StatisticsTest {
+
+  private static RealWaveform sine(final int points, final double offset) {
+    return TestWaves.wave(points, 1 / (points - 1.0),
+        (i, x) -> offset + Math.sin(2 * Math.PI * 4 * x));
+  }
+
+  @Test
+  void negative() {
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 1.0, 2.0, 3.0 },
+        new double[] { -3.0, -1.0, -2.0, -5.0 }, "s", "V");
+
+    assertEquals(-1.0, wave.ymax().getValue());
+    assertEquals(-5.0, wave.ymin().getValue());
+    assertEquals(1.0, wave.getStatistics().argmax().getValue());
+    assertEquals(3.0, wave.getStatistics().argmin().getValue());
+    assertEquals("V", wave.getStatistics().max().getUnit());
+    assertEquals("s", wave.getStatistics().argmax().getUnit());
+  }
+
+  @Test
+  void sine() {
+
+    final RealWaveform wave = sine(10001, 0.5);
+    final Statistics statistics = wave.getStatistics();
+
+    assertSame(statistics, wave.getStatistics());
+
+    assertEquals(1.5, statistics.max().getValue(), 1e-9);
+    assertEquals(-0.5, statistics.min().getValue(), 1e-9);
+    assertEquals(1 / 16.0, statistics.argmax().getValue(), 1e-4);
+    assertEquals(0.5, statistics.mean().getValue(), 1e-6);
+    assertEquals(Math.sqrt(0.75), statistics.rms().getValue(), 1e-6);
+    assertEquals(0.5, wave.integrate().getValue(), 1e-6);
+  }
+
+  @Test
+  void nan() {
+
+    final RealWaveform wave = RealWaveform.buildRealWaveform(
+        new double[] { 0.0, 1.0, 2.0 },
+        new double[] { 1.0, Double.NaN, 3.0 }, "s", "V");
+
+    assertTrue(wave.ymax().isNaN());
+    assertTrue(wave.ymin().isNaN());
+    assertEquals(1.0, wave.getStatistics().argmin().getValue());
+  }
+
+  @Test
+  void parallel() {
+
+    final Statistics serial = sine(100001, 0.0).getStatistics();
+
+    ExecutionPolicy.setThreshold(1);
+
+    try {
+
+      final Statistics parallel = sine(100001, 0.0).getStatistics();
+
+      assertEquals(serial.toString(), parallel.toString());
+
+    } finally {
+      ExecutionPolicy.setThreshold(ExecutionPolicy.DEFAULT_THRESHOLD);
+    }
+  }
+}
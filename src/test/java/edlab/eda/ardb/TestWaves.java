@@ -0,0 +1,65 @@
+package edlab.eda.ardb;
+
+/**
+ * Waveforms that are used as test data
+ */
+final class TestWaves {
+
+  private TestWaves() {
+  }
+
+  /**
+   * Create a waveform on a uniform x-axis that starts at <code>0</code>
+   *
+   * @param points number of points
+   * @param step   distance of the x-values
+   * @param y      y-value of every point
+   * @return waveform in <code>V</code> over <code>s</code>
+   */
+  static RealWaveform wave(final int points, final double step,
+      final PointFunction y) {
+
+    final double[] x = new double[points];
+
+    for (int i = 0; i < points; i++) {
+      x[i] = i * step;
+    }
+
+    return TestWaves.wave(x, y);
+  }
+
+  /**
+   * Create a waveform. The y-values are evaluated in ascending order, i.e. the
+   * function can draw from a random generator.
+   *
+   * @param x x-values
+   * @param y y-value of every point
+   * @return waveform in <code>V</code> over <code>s</code>
+   */
+  static RealWaveform wave(final double[] x, final PointFunction y) {
+
+    final double[] values = new double[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      values[i] = y.apply(i, x[i]);
+    }
+
+    return RealWaveform.buildRealWaveform(x, values, "s", "V");
+  }
+
+  /**
+   * y-value of a point
+   */
+  @FunctionalInterface
+  interface PointFunction {
+
+    /**
+     * Get the y-value of a point
+     *
+     * @param i index of the point
+     * @param x x-value of the point
+     * @return y-value
+     */
+    double apply(int i, double x);
+  }
+}
@@ -0,0 +1,124 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WaveformSorterTest {
+
+  /**
+   * Stable reference permutation
+   */
+  private static int[] reference(final double[] x) {
+
+    final Integer[] indices = new Integer[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      indices[i] = i;
+    }
+
+    Arrays.sort(indices, Comparator.comparingDouble(i -> x[i]));
+
+    final int[] retval = new int[x.length];
+
+    for (int i = 0; i < x.length; i++) {
+      retval[i] = indices[i];
+    }
+
+    return retval;
+  }
+
+  @Test
+  void sorted() {
+
+    final double[] x = { 0, 1, 1, 2, 3, 5, 8 };
+    final double[] y = { 7, 6, 5, 4, 3, 2, 1 };
+
+    assertTrue(WaveformSorter.isSorted(x));
+    assertTrue(WaveformSorter.isSorted(new double[] {}));
+    assertFalse(WaveformSorter.isSorted(new double[] { 0, 2, 1 }));
+
+    WaveformSorter.sort(x, y);
+
+    assertArrayEquals(new double[] { 0, 1, 1, 2, 3, 5, 8 }, x);
+    assertArrayEquals(new double[] { 7, 6, 5, 4, 3, 2, 1 }, y);
+    assertArrayEquals(new int[] { 0, 1, 2, 3, 4, 5, 6 },
+        WaveformSorter.permutation(x));
+  }
+
+  @Test
+  void runs() {
+
+    // a reversed run and two ascending runs
+    final double[] x = { 9, 8, 7, 6, 1, 3, 5, 0, 2, 4 };
+
+    assertArrayEquals(reference(x), WaveformSorter.permutation(x));
+
+    final double[] reversed = new double[1000];
+
+    for (int i = 0; i < reversed.length; i++) {
+      reversed[i] = reversed.length - i;
+    }
+
+    assertArrayEquals(reference(reversed),
+        WaveformSorter.permutation(reversed));
+
+    final Random random = new Random(42);
+    final double[] shuffled = new double[5000];
+
+    for (int i = 0; i < shuffled.length; i++) {
+      shuffled[i] = random.nextGaussian();
+    }
+
+    assertArrayEquals(reference(shuffled),
+        WaveformSorter.permutation(shuffled));
+  }
+
+  @Test
+  void duplicates() {
+
+    final Random random = new Random(7);
+    final double[] x = new double[2000];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = random.nextInt(20);
+    }
+
+    // equal x-values keep their original order
+    assertArrayEquals(reference(x), WaveformSorter.permutation(x));
+
+    final double[] descending = { 3, 3, 2, 2, 1, 1 };
+
+    assertArrayEquals(new int[] { 4, 5, 2, 3, 0, 1 },
+        WaveformSorter.permutation(descending));
+  }
+
+  @Test
+  void coSort() {
+
+    final double[] x = { 3, 1, 2, 1, 0 };
+    final double[] y1 = { 30, 10, 20, 11, 0 };
+    final double[] y2 = { -3, -1, -2, -1.1, -0 };
+
+    final int[] permutation = WaveformSorter.permutation(x);
+
+    final double[] reordered = WaveformSorter.reorder(y1, permutation);
+
+    assertArrayEquals(new double[] { 0, 10, 11, 20, 30 }, reordered);
+    assertArrayEquals(new double[] { 30, 10, 20, 11, 0 }, y1);
+    assertSame(y1, WaveformSorter.reorder(y1, null));
+
+    WaveformSorter.sort(x, y1, y2);
+
+    assertArrayEquals(new double[] { 0, 1, 1, 2, 3 }, x);
+    assertArrayEquals(new double[] { 0, 10, 11, 20, 30 }, y1);
+    assertArrayEquals(new double[] { -0, -1, -1.1, -2, -3 }, y2);
+  }
+}
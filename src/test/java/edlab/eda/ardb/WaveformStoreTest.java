@@ -0,0 +1,195 @@
+package edlab.eda.ardb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.math3.complex.Complex;
+
+import org.junit.jupiter.api.Test;
+
+class WaveformStoreTest {
+
+  public static final double COMP = 1e-12;
+
+  private static RealResultsDatabase database() {
+
+    final double[] x = new double[100];
+    final double[] y = new double[100];
+
+    for (int i = 0; i < x.length; i++) {
+      x[i] = i * 1e-3;
+      y[i] = Math.sin(2 * Math.PI * 20 * x[i]);
+    }
+
+    final RealWaveform out = RealWaveform.buildRealWaveform(x, y, "s", "V");
+
+    final Map<String, RealWaveform> waves = new HashMap<>();
+    waves.put("OUT", out);
+    waves.put("IN", out.multiply(-0.5));
+
+    final Map<String, RealValue> values = new HashMap<>();
+    values.put("VDD", new RealValue(3.3, "V"));
+
+    return RealResultsDatabase.create(values, waves);
+  }
+
+  @Test
+  void roundTrip() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".store");
+    file.deleteOnExit();
+
+    final RealResultsDatabase db = database();
+
+    assertTrue(db.writeStore(file.getPath()));
+
+    final RealResultsDatabase mapped = RealResultsDatabase
+        .openStore(file.getPath());
+
+    assertNotNull(mapped);
+    assertEquals(3.3, mapped.getRealValue("VDD").getValue(), COMP);
+    assertEquals("V", mapped.getRealValue("VDD").getUnit());
+
+    final RealWaveform expected = db.getRealWaveform("OUT");
+    final RealWaveform actual = mapped.getRealWaveform("OUT");
+
+    assertEquals("s", actual.getUnitX());
+    assertArrayEquals(expected.getX(), actual.getX());
+    assertArrayEquals(expected.getY(), actual.getY());
+    assertSame(actual.x, mapped.getRealWaveform("IN").x);
+  }
+
+  @Test
+  void chunks() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".store");
+    file.deleteOnExit();
+
+    final RealResultsDatabase db = database();
+
+    assertTrue(db.writeStore(file.getPath()));
+
+    final Map<String, RealValue> values = new HashMap<>();
+    final Map<String, RealWaveform> waves = new HashMap<>();
+
+    // eight values per mapped chunk
+    assertTrue(WaveformStore.read(file.getPath(), values, waves, 3));
+
+    final RealWaveform expected = db.getRealWaveform("IN");
+    final RealWaveform actual = waves.get("IN");
+
+    assertArrayEquals(expected.getY(), actual.getY());
+
+    // the mapped values are copied on every access and not kept on the heap
+    assertNotSame(actual.getY(), actual.getY());
+    assertArrayEquals(expected.resample(actual).getY(),
+        expected.resample(actual.getX()).getY(), COMP);
+
+    assertEquals(expected.getValue(0.0123).getValue(),
+        actual.getValue(0.0123).getValue(), COMP);
+    assertEquals(expected.cross(0.1, 3).getValue(),
+        actual.cross(0.1, 3).getValue(), COMP);
+    assertEquals(expected.ymax().getValue(), actual.ymax().getValue(), COMP);
+    assertEquals(expected.integrate().getValue(),
+        actual.integrate().getValue(), COMP);
+    assertArrayEquals(expected.clip(0.013, 0.051).getY(),
+        actual.clip(0.013, 0.051).getY(), COMP);
+  }
+
+  @Test
+  void combined() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".store");
+    file.deleteOnExit();
+
+    final RealResultsDatabase real = database();
+
+    final double[] f = { 1e3, 1e4, 1e5, 1e6 };
+    final double[] re = { 10, 9, 5, 1 };
+    final double[] im = { -0.1, -1, -4, -2 };
+
+    final Map<String, ComplexWaveform> complexWaves = new HashMap<>();
+    complexWaves.put("GAIN",
+        ComplexWaveform.buildComplexWaveform(f, re, im, "Hz", "V"));
+
+    final Map<String, ComplexValue> complexValues = new HashMap<>();
+    complexValues.put("Z", new ComplexValue(new Complex(50, -3), "Ohm"));
+
+    final CombinedResultsDatabase db = CombinedResultsDatabase.create(real,
+        ComplexResultsDatabase.create(complexValues, complexWaves));
+
+    assertTrue(db.writeStore(file.getPath()));
+
+    final CombinedResultsDatabase mapped = CombinedResultsDatabase
+        .openStore(file.getPath());
+
+    assertNotNull(mapped);
+    assertEquals(db.getWaveNames(), mapped.getWaveNames());
+    assertEquals(db.getValueNames(), mapped.getValueNames());
+    assertEquals(new Complex(50, -3),
+        ((ComplexValue) mapped.getValue("Z")).getValue());
+
+    final ComplexWaveform gain = (ComplexWaveform) mapped.getWaveform("GAIN");
+
+    assertEquals("Hz", gain.getUnitX());
+    assertArrayEquals(f, gain.getX());
+    assertArrayEquals(re, gain.real().getY());
+    assertArrayEquals(im, gain.imag().getY());
+    assertArrayEquals(real.getRealWaveform("IN").getY(),
+        ((RealWaveform) mapped.getWaveform("IN")).getY());
+
+    // a real database reads only the real part of the file
+    final RealResultsDatabase realOnly = RealResultsDatabase
+        .openStore(file.getPath());
+
+    assertEquals(real.getWaveNames(), realOnly.getWaveNames());
+  }
+
+  @Test
+  void lazy() throws IOException {
+
+    final File file = File.createTempFile("ardb", ".store");
+    file.deleteOnExit();
+
+    assertTrue(database().writeStore(file.getPath()));
+
+    final WaveformStore store = WaveformStore.open(file.getPath());
+
+    assertNotNull(store);
+    assertEquals(2, store.getRealWaves().size());
+    assertEquals(0, ((LazyWaveMap<?>) store.getRealWaves()).noOfLoadedWaves());
+
+    // the units are known without creating the waves
+    final RealResultsDatabase db = RealResultsDatabase.openStore(store);
+
+    assertTrue(db.toString().contains("- OUT V"));
+    assertEquals(0, ((LazyWaveMap<?>) store.getRealWaves()).noOfLoadedWaves());
+
+    // the waves are created one after another and are not cached
+    final File copy = File.createTempFile("ardb", ".store");
+    copy.deleteOnExit();
+
+    assertTrue(db.writeStore(copy.getPath()));
+    assertEquals(0, ((LazyWaveMap<?>) store.getRealWaves()).noOfLoadedWaves());
+
+    final RealResultsDatabase copied = RealResultsDatabase
+        .openStore(copy.getPath());
+
+    assertEquals("s", copied.getRealWaveform("IN").getUnitX());
+    assertArrayEquals(database().getRealWaveform("IN").getY(),
+        copied.getRealWaveform("IN").getY());
+
+    assertNotNull(store.getRealWaves().get("OUT"));
+    assertEquals(1, ((LazyWaveMap<?>) store.getRealWaves()).noOfLoadedWaves());
+    assertTrue(store.getComplexWaves().isEmpty());
+  }
+}